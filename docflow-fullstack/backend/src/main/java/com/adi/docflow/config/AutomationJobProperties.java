@@ -0,0 +1,218 @@
+package com.adi.docflow.config;
+
+import com.adi.docflow.job.JobType;
+import com.adi.docflow.job.RateLimit;
+import com.adi.docflow.job.RetryPolicy;
+import jakarta.validation.constraints.AssertTrue;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configurações do runner de automações (prefixo {@code app.jobs} no application.yml).
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.jobs")
+public class AutomationJobProperties {
+
+    public enum ExecutionMode {
+        PLATFORM, // pool fixo de threads do SO por JobType
+        VIRTUAL   // uma thread virtual por job, limitada pelo semáforo do tipo
+    }
+
+    public enum Store {
+        SQL,  // app.automation_job; várias réplicas
+        LOCAL // journal em disco + heap em memória; um único nó, sem carga no banco
+    }
+
+    // onde a fila vive; ver JobStore
+    private Store store = Store.SQL;
+
+    // identificação deste nó ao reivindicar jobs; padrão "pid@host"
+    private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    // espera antes da primeira varredura (ms)
+    private long initialDelayMs = 3000L;
+
+    // intervalo entre varreduras com a fila ativa (ms)
+    private long minPollDelayMs = 100L;
+
+    // intervalo máximo com a fila ociosa, sem sinal de job novo (ms)
+    private long maxPollDelayMs = 30000L;
+
+    // como os jobs são executados; ver SchedulingConfig
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+
+    // máximo de jobs reivindicados de uma vez por tipo
+    private int claimBatchSize = 100;
+
+    // a cada N rodadas de claim de um tipo, uma ignora a prioridade (anti-starvation; 0 desliga)
+    private int fifoClaimEvery = 5;
+
+    // por quanto tempo uma idempotency key repetida devolve o job original
+    private Duration idempotencyWindow = Duration.ofHours(24);
+
+    // máximo de jobs aceitos num único POST /api/v1/jobs/batch
+    private int maxBatchSubmit = 50000;
+
+    // limite de workers simultâneos para tipos sem configuração explícita
+    private int defaultConcurrency = 2;
+
+    // limite de jobs simultâneos por JobType (semáforo; no modo PLATFORM, também o tamanho do pool)
+    private Map<JobType, Integer> concurrency = new EnumMap<>(JobType.class);
+
+    // política de retry para tipos sem configuração explícita
+    private RetryPolicy defaultRetry = new RetryPolicy();
+
+    // política de retry por JobType
+    private Map<JobType, RetryPolicy> retry = new EnumMap<>(JobType.class);
+
+    // vazão máxima por JobType (token bucket); tipos sem entrada não são limitados
+    private Map<JobType, RateLimit> rateLimit = new EnumMap<>(JobType.class);
+
+    // tempo máximo de execução para tipos sem configuração explícita; nulo = sem limite
+    private Duration defaultTimeout = Duration.ofMinutes(30);
+
+    // tempo máximo de execução por JobType; estourado, o worker é interrompido e o job vira FAILED
+    private Map<JobType, Duration> timeout = new EnumMap<>(JobType.class);
+
+    // progresso vai para o banco a cada N itens ou T, o que vier primeiro
+    private long progressFlushItems = 100L;
+    private Duration progressFlushInterval = Duration.ofSeconds(2);
+
+    // vida máxima de uma conexão SSE em /api/v1/jobs/{uuid}/events
+    private Duration sseTimeout = Duration.ofMinutes(30);
+
+    // validade da lease de um job reivindicado; o heartbeat a renova bem antes de vencer
+    private Duration leaseDuration = Duration.ofSeconds(60);
+
+    // finalizações acumuladas antes de um flush imediato (e tamanho máximo do lote)
+    private int completionFlushSize = 50;
+
+    // arquivamento de jobs finalizados; ver JobArchiver
+    private JobRetentionProperties retention = new JobRetentionProperties();
+
+    // jobs recorrentes (cron); ver RecurringJobScheduler
+    private RecurringJobProperties recurring = new RecurringJobProperties();
+
+    // journal do store LOCAL; ver LocalJobStore
+    private LocalJobStoreProperties local = new LocalJobStoreProperties();
+
+    // IMPORT_DOCUMENTS; ver ImportDocumentsProcessor
+    private DocumentImportProperties documentImport = new DocumentImportProperties();
+
+    // tempo máximo aguardando os workers terminarem no shutdown (s)
+    private long shutdownTimeoutSeconds = 30L;
+
+    public int concurrencyFor(JobType type) {
+        Integer limit = concurrency.get(type);
+        return (limit != null && limit > 0) ? limit : Math.max(1, defaultConcurrency);
+    }
+
+    public Duration timeoutFor(JobType type) {
+        return timeout.getOrDefault(type, defaultTimeout);
+    }
+
+    public RetryPolicy retryFor(JobType type) {
+        return retry.getOrDefault(type, defaultRetry);
+    }
+
+    /**
+     * Um job arquivado some da busca por idempotency key: se a retenção fosse
+     * menor que a janela, repetir a chave ainda dentro dela criaria um job novo.
+     * Checado na subida.
+     */
+    @AssertTrue(message = "app.jobs.retention.archive-after (e archive-after-by-type) não pode ser menor que app.jobs.idempotency-window")
+    public boolean isRetentionCoveringIdempotencyWindow() {
+        if (!retention.isEnabled() || idempotencyWindow == null) return true;
+        for (JobType type : JobType.values()) {
+            if (retention.archiveAfterFor(type).compareTo(idempotencyWindow) < 0) return false;
+        }
+        return true;
+    }
+
+    public Store getStore() { return store; }
+    public void setStore(Store store) { this.store = store; }
+
+    public LocalJobStoreProperties getLocal() { return local; }
+    public void setLocal(LocalJobStoreProperties local) { this.local = local; }
+
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+
+    public long getInitialDelayMs() { return initialDelayMs; }
+    public void setInitialDelayMs(long initialDelayMs) { this.initialDelayMs = initialDelayMs; }
+
+    public long getMinPollDelayMs() { return minPollDelayMs; }
+    public void setMinPollDelayMs(long minPollDelayMs) { this.minPollDelayMs = minPollDelayMs; }
+
+    public long getMaxPollDelayMs() { return maxPollDelayMs; }
+    public void setMaxPollDelayMs(long maxPollDelayMs) { this.maxPollDelayMs = maxPollDelayMs; }
+
+    public ExecutionMode getExecutionMode() { return executionMode; }
+    public void setExecutionMode(ExecutionMode executionMode) { this.executionMode = executionMode; }
+
+    public int getClaimBatchSize() { return claimBatchSize; }
+    public void setClaimBatchSize(int claimBatchSize) { this.claimBatchSize = claimBatchSize; }
+
+    public int getFifoClaimEvery() { return fifoClaimEvery; }
+    public void setFifoClaimEvery(int fifoClaimEvery) { this.fifoClaimEvery = fifoClaimEvery; }
+
+    public Duration getIdempotencyWindow() { return idempotencyWindow; }
+    public void setIdempotencyWindow(Duration idempotencyWindow) { this.idempotencyWindow = idempotencyWindow; }
+
+    public int getMaxBatchSubmit() { return maxBatchSubmit; }
+    public void setMaxBatchSubmit(int maxBatchSubmit) { this.maxBatchSubmit = maxBatchSubmit; }
+
+    public int getDefaultConcurrency() { return defaultConcurrency; }
+    public void setDefaultConcurrency(int defaultConcurrency) { this.defaultConcurrency = defaultConcurrency; }
+
+    public Map<JobType, Integer> getConcurrency() { return concurrency; }
+    public void setConcurrency(Map<JobType, Integer> concurrency) { this.concurrency = concurrency; }
+
+    public RetryPolicy getDefaultRetry() { return defaultRetry; }
+    public void setDefaultRetry(RetryPolicy defaultRetry) { this.defaultRetry = defaultRetry; }
+
+    public Map<JobType, RetryPolicy> getRetry() { return retry; }
+    public void setRetry(Map<JobType, RetryPolicy> retry) { this.retry = retry; }
+
+    public Map<JobType, RateLimit> getRateLimit() { return rateLimit; }
+    public void setRateLimit(Map<JobType, RateLimit> rateLimit) { this.rateLimit = rateLimit; }
+
+    public Duration getDefaultTimeout() { return defaultTimeout; }
+    public void setDefaultTimeout(Duration defaultTimeout) { this.defaultTimeout = defaultTimeout; }
+
+    public Map<JobType, Duration> getTimeout() { return timeout; }
+    public void setTimeout(Map<JobType, Duration> timeout) { this.timeout = timeout; }
+
+    public long getProgressFlushItems() { return progressFlushItems; }
+    public void setProgressFlushItems(long progressFlushItems) { this.progressFlushItems = progressFlushItems; }
+
+    public Duration getProgressFlushInterval() { return progressFlushInterval; }
+    public void setProgressFlushInterval(Duration progressFlushInterval) { this.progressFlushInterval = progressFlushInterval; }
+
+    public Duration getSseTimeout() { return sseTimeout; }
+    public void setSseTimeout(Duration sseTimeout) { this.sseTimeout = sseTimeout; }
+
+    public Duration getLeaseDuration() { return leaseDuration; }
+    public void setLeaseDuration(Duration leaseDuration) { this.leaseDuration = leaseDuration; }
+
+    public int getCompletionFlushSize() { return completionFlushSize; }
+    public void setCompletionFlushSize(int completionFlushSize) { this.completionFlushSize = completionFlushSize; }
+
+    public DocumentImportProperties getDocumentImport() { return documentImport; }
+    public void setDocumentImport(DocumentImportProperties documentImport) { this.documentImport = documentImport; }
+
+    public JobRetentionProperties getRetention() { return retention; }
+    public void setRetention(JobRetentionProperties retention) { this.retention = retention; }
+
+    public RecurringJobProperties getRecurring() { return recurring; }
+    public void setRecurring(RecurringJobProperties recurring) { this.recurring = recurring; }
+
+    public long getShutdownTimeoutSeconds() { return shutdownTimeoutSeconds; }
+    public void setShutdownTimeoutSeconds(long shutdownTimeoutSeconds) { this.shutdownTimeoutSeconds = shutdownTimeoutSeconds; }
+}
@@ -0,0 +1,43 @@
+package com.adi.docflow.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Importação de documentos ({@code app.jobs.document-import}): por job, o
+ * payload aponta um arquivo dentro de {@code baseDir}; por upload, o arquivo
+ * vem no POST. Nos dois casos as linhas são gravadas em chunks de
+ * {@code chunkSize}, cada um na sua transação.
+ */
+public class DocumentImportProperties {
+
+    // diretório de entrega dos arquivos; caminhos fora dele são recusados
+    private Path baseDir = Path.of("imports");
+
+    // linhas por transação; o checkpoint do job avança a cada chunk gravado
+    private int chunkSize = 1000;
+
+    // linhas inválidas detalhadas no log por execução (as demais só entram na contagem)
+    private int maxLoggedErrors = 100;
+
+    // relatórios de erro dos uploads (um CSV por importação), baixados pela URL da resposta
+    private Path reportDir = Path.of("data", "import-reports");
+
+    // idade a partir da qual o relatório é apagado
+    private Duration reportRetention = Duration.ofHours(24);
+
+    public Path getBaseDir() { return baseDir; }
+    public void setBaseDir(Path baseDir) { this.baseDir = baseDir; }
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public int getMaxLoggedErrors() { return maxLoggedErrors; }
+    public void setMaxLoggedErrors(int maxLoggedErrors) { this.maxLoggedErrors = maxLoggedErrors; }
+
+    public Path getReportDir() { return reportDir; }
+    public void setReportDir(Path reportDir) { this.reportDir = reportDir; }
+
+    public Duration getReportRetention() { return reportRetention; }
+    public void setReportRetention(Duration reportRetention) { this.reportRetention = reportRetention; }
+}
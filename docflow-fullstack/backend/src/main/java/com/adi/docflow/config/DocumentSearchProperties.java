@@ -0,0 +1,49 @@
+package com.adi.docflow.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Índice textual de documentos ({@code app.search}): Lucene embarcado em
+ * {@code indexDir}, atualizado a cada escrita de documento e usado pelo
+ * filtro {@code q} das listagens.
+ */
+@ConfigurationProperties(prefix = "app.search")
+public class DocumentSearchProperties {
+
+    // false: o filtro q volta ao LIKE no banco
+    private boolean enabled = true;
+
+    private Path indexDir = Path.of("data", "search");
+
+    // reconstrói o índice a partir de app.document na subida (o LIKE atende enquanto isso)
+    private boolean rebuildOnStartup = true;
+
+    // ids por busca, aplicados como IN (...) (SQL Server: até 2100 parâmetros); acima disso, q usa o LIKE
+    private int maxHits = 1000;
+
+    // commit periódico do índice; entre commits as buscas já enxergam as mudanças
+    private long commitIntervalMs = 5000;
+
+    // linhas lidas por ida ao banco na reconstrução
+    private int rebuildFetchSize = 5000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Path getIndexDir() { return indexDir; }
+    public void setIndexDir(Path indexDir) { this.indexDir = indexDir; }
+
+    public boolean isRebuildOnStartup() { return rebuildOnStartup; }
+    public void setRebuildOnStartup(boolean rebuildOnStartup) { this.rebuildOnStartup = rebuildOnStartup; }
+
+    public int getMaxHits() { return maxHits; }
+    public void setMaxHits(int maxHits) { this.maxHits = maxHits; }
+
+    public long getCommitIntervalMs() { return commitIntervalMs; }
+    public void setCommitIntervalMs(long commitIntervalMs) { this.commitIntervalMs = commitIntervalMs; }
+
+    public int getRebuildFetchSize() { return rebuildFetchSize; }
+    public void setRebuildFetchSize(int rebuildFetchSize) { this.rebuildFetchSize = rebuildFetchSize; }
+}
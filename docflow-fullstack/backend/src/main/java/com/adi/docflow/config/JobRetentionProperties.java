@@ -0,0 +1,60 @@
+package com.adi.docflow.config;
+
+import com.adi.docflow.job.JobType;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Retenção de jobs finalizados ({@code app.jobs.retention}): depois de
+ * {@code archiveAfter} (ou do valor do tipo em {@code archiveAfterByType})
+ * o job sai de app.automation_job para app.automation_job_archive.
+ */
+public class JobRetentionProperties {
+
+    private boolean enabled = true;
+
+    // idade mínima (desde finished_at) para arquivar um job finalizado
+    private Duration archiveAfter = Duration.ofDays(30);
+
+    // idade por JobType; tipos sem entrada usam archiveAfter
+    private Map<JobType, Duration> archiveAfterByType = new EnumMap<>(JobType.class);
+
+    // apaga do arquivo depois deste prazo (desde archived_at); nulo mantém para sempre
+    private Duration purgeArchivedAfter;
+
+    // linhas por DELETE; abaixo de 5000 o SQL Server não escala para lock de tabela
+    private int batchSize = 500;
+
+    // pausa entre lotes para não competir com o claim (ms)
+    private long batchPauseMs = 50L;
+
+    // tempo máximo de uma execução; o restante fica para a próxima
+    private Duration maxRunTime = Duration.ofMinutes(2);
+
+    public Duration archiveAfterFor(JobType type) {
+        return archiveAfterByType.getOrDefault(type, archiveAfter);
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getArchiveAfter() { return archiveAfter; }
+    public void setArchiveAfter(Duration archiveAfter) { this.archiveAfter = archiveAfter; }
+
+    public Map<JobType, Duration> getArchiveAfterByType() { return archiveAfterByType; }
+    public void setArchiveAfterByType(Map<JobType, Duration> archiveAfterByType) { this.archiveAfterByType = archiveAfterByType; }
+
+    public Duration getPurgeArchivedAfter() { return purgeArchivedAfter; }
+    public void setPurgeArchivedAfter(Duration purgeArchivedAfter) { this.purgeArchivedAfter = purgeArchivedAfter; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public long getBatchPauseMs() { return batchPauseMs; }
+    public void setBatchPauseMs(long batchPauseMs) { this.batchPauseMs = batchPauseMs; }
+
+    public Duration getMaxRunTime() { return maxRunTime; }
+    public void setMaxRunTime(Duration maxRunTime) { this.maxRunTime = maxRunTime; }
+}
@@ -0,0 +1,31 @@
+package com.adi.docflow.config;
+
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Fila local ({@code app.jobs.local}, usada com {@code app.jobs.store: LOCAL}):
+ * journal append-only mapeado em memória em {@code journalDir}, reaplicado e
+ * compactado na subida.
+ */
+public class LocalJobStoreProperties {
+
+    // diretório do arquivo jobs.journal
+    private Path journalDir = Path.of("data", "jobs");
+
+    // tamanho inicial do mapeamento; cheio, o journal é compactado (e dobra se ainda faltar espaço)
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    // force() a cada escrita: sobrevive a queda do SO, ao custo de um fsync por operação
+    private boolean fsync = false;
+
+    public Path getJournalDir() { return journalDir; }
+    public void setJournalDir(Path journalDir) { this.journalDir = journalDir; }
+
+    public DataSize getSegmentSize() { return segmentSize; }
+    public void setSegmentSize(DataSize segmentSize) { this.segmentSize = segmentSize; }
+
+    public boolean isFsync() { return fsync; }
+    public void setFsync(boolean fsync) { this.fsync = fsync; }
+}
@@ -0,0 +1,30 @@
+package com.adi.docflow.config;
+
+/**
+ * Agendador de jobs recorrentes ({@code app.jobs.recurring}); ver RecurringJobScheduler.
+ */
+public class RecurringJobProperties {
+
+    private boolean enabled = true;
+
+    // resolução da timing wheel (ms)
+    private long tickMs = 1000L;
+
+    // slots da roda; com tick de 1 s, 512 slots = uma volta a cada ~8,5 min
+    private int wheelSize = 512;
+
+    // intervalo de leitura das definições no banco (ms)
+    private long refreshIntervalMs = 30000L;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getTickMs() { return tickMs; }
+    public void setTickMs(long tickMs) { this.tickMs = tickMs; }
+
+    public int getWheelSize() { return wheelSize; }
+    public void setWheelSize(int wheelSize) { this.wheelSize = wheelSize; }
+
+    public long getRefreshIntervalMs() { return refreshIntervalMs; }
+    public void setRefreshIntervalMs(long refreshIntervalMs) { this.refreshIntervalMs = refreshIntervalMs; }
+}
@@ -1,8 +1,46 @@
 package com.adi.docflow.config;
 
+import com.adi.docflow.service.JobExecutorFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
+@EnableConfigurationProperties({AutomationJobProperties.class, DocumentSearchProperties.class})
 public class SchedulingConfig {
-    
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingConfig.class);
+
+    /**
+     * Executor dos JobProcessors por JobType ({@code app.jobs.execution-mode}).
+     * PLATFORM: pool fixo de threads do SO do tamanho de {@code app.jobs.concurrency}.
+     * VIRTUAL: uma thread virtual por job; quem limita é o semáforo do
+     * JobWorkerPool, então o limite por tipo pode subir para centenas (processors
+     * que passam o tempo bloqueados em SMTP/arquivo/JDBC) sem um pool de threads do SO.
+     */
+    @Bean
+    public JobExecutorFactory jobExecutorFactory(AutomationJobProperties properties) {
+        return forMode(properties.getExecutionMode());
+    }
+
+    public static JobExecutorFactory forMode(AutomationJobProperties.ExecutionMode mode) {
+        if (mode == AutomationJobProperties.ExecutionMode.VIRTUAL) {
+            log.info("Jobs de automação rodando em threads virtuais");
+            return (type, concurrency) -> Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("job-vt-" + type.name().toLowerCase() + "-", 1).factory());
+        }
+        return (type, concurrency) -> new ThreadPoolExecutor(
+                concurrency, concurrency,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("job-" + type.name().toLowerCase() + "-"));
+    }
 }
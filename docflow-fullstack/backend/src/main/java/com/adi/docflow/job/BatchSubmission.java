@@ -0,0 +1,9 @@
+package com.adi.docflow.job;
+
+import java.util.List;
+
+/**
+ * Resultado de um create em lote: UUIDs na ordem da entrada (o do job
+ * original quando a idempotency key repetiu) e quantos itens eram repetidos.
+ */
+public record BatchSubmission(List<String> uuids, int duplicates) {}
@@ -0,0 +1,9 @@
+package com.adi.docflow.job;
+
+/** Resultado de um pedido de cancelamento (DELETE /api/v1/jobs/{uuid}). */
+public enum CancelResult {
+    CANCELLED,        // estava QUEUED/BLOCKED e foi cancelado na hora
+    CANCEL_REQUESTED, // está RUNNING; o nó dono vai interromper o worker
+    ALREADY_FINISHED, // já estava num estado final
+    NOT_FOUND
+}
@@ -0,0 +1,4 @@
+package com.adi.docflow.job;
+
+/** Publicado quando um job RUNNING recebe pedido de cancelamento. */
+public record JobCancelRequestedEvent(Long jobId, String uuid) {}
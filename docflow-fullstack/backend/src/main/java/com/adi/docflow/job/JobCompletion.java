@@ -0,0 +1,31 @@
+package com.adi.docflow.job;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Resultado de uma execução, acumulado pelo runner e gravado em lote.
+ * Um retry volta o job para QUEUED com {@code nextAttemptAt} preenchido.
+ */
+public record JobCompletion(Long jobId, JobStatus status, String errorMessage,
+                            OffsetDateTime finishedAt, OffsetDateTime nextAttemptAt) {
+
+    public static JobCompletion success(Long jobId) {
+        return new JobCompletion(jobId, JobStatus.SUCCESS, null, OffsetDateTime.now(), null);
+    }
+
+    public static JobCompletion failed(Long jobId, String errorMessage) {
+        return new JobCompletion(jobId, JobStatus.FAILED, errorMessage, OffsetDateTime.now(), null);
+    }
+
+    public static JobCompletion cancelled(Long jobId) {
+        return new JobCompletion(jobId, JobStatus.CANCELLED, "Cancelado durante a execução", OffsetDateTime.now(), null);
+    }
+
+    public static JobCompletion deadLetter(Long jobId, String errorMessage) {
+        return new JobCompletion(jobId, JobStatus.DEAD_LETTER, errorMessage, OffsetDateTime.now(), null);
+    }
+
+    public static JobCompletion retry(Long jobId, String errorMessage, OffsetDateTime nextAttemptAt) {
+        return new JobCompletion(jobId, JobStatus.QUEUED, errorMessage, null, nextAttemptAt);
+    }
+}
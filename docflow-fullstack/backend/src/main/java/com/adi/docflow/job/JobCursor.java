@@ -0,0 +1,37 @@
+package com.adi.docflow.job;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Posição da listagem de jobs: último (scheduled_at, id) entregue. Vai para o
+ * cliente como token opaco (base64url), devolvido no parâmetro {@code cursor}.
+ */
+public record JobCursor(OffsetDateTime scheduledAt, long id) {
+
+    public String encode() {
+        Instant at = scheduledAt.toInstant();
+        String raw = at.getEpochSecond() + ":" + at.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws IllegalArgumentException se o token não foi gerado por {@link #encode()} */
+    public static JobCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) throw new IllegalArgumentException("Cursor inválido");
+            long nanos = Long.parseLong(parts[1]);
+            long id = Long.parseLong(parts[2]);
+            // encode() só gera nanos normalizados e ids de IDENTITY
+            if (nanos < 0 || nanos > 999_999_999L || id < 1) throw new IllegalArgumentException("Cursor inválido");
+            Instant at = Instant.ofEpochSecond(Long.parseLong(parts[0]), nanos);
+            return new JobCursor(OffsetDateTime.ofInstant(at, ZoneOffset.UTC), id);
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.adi.docflow.job;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Publicado quando um job entra na fila; o runner escuta após o commit
+ * para despachar imediatamente em vez de esperar a próxima varredura.
+ */
+public record JobEnqueuedEvent(String uuid, JobType type, OffsetDateTime scheduledAt) {}
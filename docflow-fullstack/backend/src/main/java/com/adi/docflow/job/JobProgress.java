@@ -0,0 +1,13 @@
+package com.adi.docflow.job;
+
+/**
+ * Estado de um job enviado no stream SSE (GET /api/v1/jobs/{uuid}/events).
+ * {@code etaSeconds} é estimado pela vazão desde o início da execução.
+ */
+public record JobProgress(String uuid, JobStatus status, Long processed, Long total,
+                          Long etaSeconds, String errorMessage) {
+
+    public boolean isFinal() {
+        return status != JobStatus.QUEUED && status != JobStatus.RUNNING && status != JobStatus.BLOCKED;
+    }
+}
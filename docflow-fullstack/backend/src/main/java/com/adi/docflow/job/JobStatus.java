@@ -2,8 +2,10 @@ package com.adi.docflow.job;
 
 public enum JobStatus {
     QUEUED,
+    BLOCKED,    // aguardando jobs dos quais depende terminarem em SUCCESS
     RUNNING,
     SUCCESS,
     FAILED,
-    CANCELLED
+    CANCELLED,
+    DEAD_LETTER // esgotou as tentativas da RetryPolicy
 }
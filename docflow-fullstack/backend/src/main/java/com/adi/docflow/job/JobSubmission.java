@@ -0,0 +1,9 @@
+package com.adi.docflow.job;
+
+import com.adi.docflow.model.AutomationJob;
+
+/**
+ * Resultado de um create: {@code duplicate} indica que a idempotency key já
+ * existia dentro da janela e {@code job} é o job original, não um novo.
+ */
+public record JobSubmission(AutomationJob job, boolean duplicate) {}
@@ -0,0 +1,21 @@
+package com.adi.docflow.job;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Job a ser enfileirado via {@code AutomationJobService#submit} ou {@code #createAll}.
+ * Campos nulos assumem os padrões (agora, prioridade 5, sem dependências, sem chave).
+ */
+public record NewJob(JobType type, String payload, OffsetDateTime scheduledAt, Integer priority,
+                     List<String> dependsOn, String idempotencyKey) {
+
+    public NewJob {
+        dependsOn = dependsOn == null ? List.of() : List.copyOf(dependsOn);
+        idempotencyKey = idempotencyKey == null || idempotencyKey.isBlank() ? null : idempotencyKey.trim();
+    }
+
+    public NewJob(JobType type, String payload, OffsetDateTime scheduledAt, Integer priority) {
+        this(type, payload, scheduledAt, priority, null, null);
+    }
+}
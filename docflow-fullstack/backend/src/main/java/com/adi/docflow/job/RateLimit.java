@@ -0,0 +1,20 @@
+package com.adi.docflow.job;
+
+/**
+ * Limite de vazão declarativo de um JobType ({@code app.jobs.rate-limit.<TIPO>}).
+ * O dispatcher só reivindica jobs do tipo enquanto houver tokens; os demais
+ * continuam QUEUED até a próxima recarga.
+ */
+public class RateLimit {
+
+    // tokens repostos por segundo (vazão sustentada)
+    private double permitsPerSecond = 10.0;
+    // capacidade do balde: quantos jobs podem sair de uma vez após um período ocioso
+    private int burst = 10;
+
+    public double getPermitsPerSecond() { return permitsPerSecond; }
+    public void setPermitsPerSecond(double permitsPerSecond) { this.permitsPerSecond = permitsPerSecond; }
+
+    public int getBurst() { return burst; }
+    public void setBurst(int burst) { this.burst = burst; }
+}
@@ -0,0 +1,45 @@
+package com.adi.docflow.job;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Política de retry de um JobType: backoff exponencial com jitter.
+ * Depois de {@code maxAttempts} execuções com falha o job vai para DEAD_LETTER.
+ */
+public class RetryPolicy {
+
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofSeconds(10);
+    private double multiplier = 2.0;
+    private Duration maxBackoff = Duration.ofMinutes(10);
+    // fração aleatória (+/-) aplicada ao atraso, para espalhar retries simultâneos
+    private double jitter = 0.2;
+
+    public boolean canRetry(int attemptsMade) {
+        return attemptsMade < maxAttempts;
+    }
+
+    /** Atraso antes da próxima tentativa, dado quantas já foram feitas (1 = primeira falhou). */
+    public Duration backoff(int attemptsMade) {
+        double base = initialBackoff.toMillis() * Math.pow(multiplier, Math.max(0, attemptsMade - 1));
+        double capped = Math.min(base, maxBackoff.toMillis());
+        double factor = jitter > 0 ? 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter) : 1;
+        return Duration.ofMillis(Math.max(0L, Math.round(capped * factor)));
+    }
+
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+    public Duration getInitialBackoff() { return initialBackoff; }
+    public void setInitialBackoff(Duration initialBackoff) { this.initialBackoff = initialBackoff; }
+
+    public double getMultiplier() { return multiplier; }
+    public void setMultiplier(double multiplier) { this.multiplier = multiplier; }
+
+    public Duration getMaxBackoff() { return maxBackoff; }
+    public void setMaxBackoff(Duration maxBackoff) { this.maxBackoff = maxBackoff; }
+
+    public double getJitter() { return jitter; }
+    public void setJitter(double jitter) { this.jitter = jitter; }
+}
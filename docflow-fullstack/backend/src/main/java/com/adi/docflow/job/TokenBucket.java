@@ -0,0 +1,65 @@
+package com.adi.docflow.job;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket em memória: recarrega {@code permitsPerSecond} tokens por segundo
+ * até {@code burst}. Cada job reivindicado consome um token.
+ * O limite vale por nó; com várias réplicas a vazão total é a soma delas.
+ */
+public class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(RateLimit limit) {
+        this(limit, System::nanoTime);
+    }
+
+    // relógio injetável para os testes
+    TokenBucket(RateLimit limit, LongSupplier nanoClock) {
+        if (limit.getPermitsPerSecond() <= 0 || limit.getBurst() <= 0) {
+            throw new IllegalArgumentException("Rate limit precisa de permits-per-second e burst positivos");
+        }
+        this.permitsPerNano = limit.getPermitsPerSecond() / 1_000_000_000d;
+        this.capacity = limit.getBurst();
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /** Consome até {@code max} tokens inteiros e devolve quantos conseguiu. */
+    public synchronized int take(int max) {
+        refill();
+        int granted = (int) Math.min(max, Math.floor(tokens));
+        if (granted > 0) tokens -= granted;
+        return Math.max(granted, 0);
+    }
+
+    /** Devolve tokens consumidos que não viraram job (fila tinha menos que o reservado). */
+    public synchronized void refund(int count) {
+        if (count > 0) tokens = Math.min(capacity, tokens + count);
+    }
+
+    /** Nível atual do balde, de 0 a 1. */
+    public synchronized double fillRatio() {
+        refill();
+        return tokens / capacity;
+    }
+
+    /** Tempo até haver ao menos um token inteiro (0 se já houver). */
+    public synchronized long millisUntilNextToken() {
+        refill();
+        if (tokens >= 1) return 0L;
+        return (long) Math.ceil((1 - tokens) / permitsPerNano / 1_000_000d);
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+}
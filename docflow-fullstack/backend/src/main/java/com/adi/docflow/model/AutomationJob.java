@@ -8,10 +8,21 @@ import java.time.OffsetDateTime;
 @Entity
 @Table(name = "automation_job", schema = "app",
        indexes = {
-           @Index(name = "ix_job_status_sched", columnList = "status, scheduled_at")
+           @Index(name = "ix_job_claim", columnList = "status, type, next_attempt_at"),
+           @Index(name = "ix_job_claim_priority", columnList = "status, type, priority DESC, next_attempt_at"),
+           @Index(name = "ix_job_finished", columnList = "type, finished_at"),
+           @Index(name = "ix_job_scheduled", columnList = "type, status, scheduled_at, id"),
+           @Index(name = "ix_job_scheduled_type", columnList = "type, scheduled_at, id"),
+           @Index(name = "ix_job_scheduled_status", columnList = "status, scheduled_at, id"),
+           @Index(name = "ix_job_scheduled_all", columnList = "scheduled_at, id")
        })
 public class AutomationJob {
 
+    // faixas 0..9; maior é servido primeiro
+    public static final int MIN_PRIORITY = 0;
+    public static final int DEFAULT_PRIORITY = 5;
+    public static final int MAX_PRIORITY = 9;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -33,9 +44,53 @@ public class AutomationJob {
     @Column(name = "error_message", columnDefinition = "NVARCHAR(MAX)")
     private String errorMessage;
 
+    // chave opcional do cliente; repetida dentro da janela devolve este job
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // nó (réplica) que reivindicou o job para execução
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    // até quando o dono garante que o job está vivo; renovada por heartbeat
+    @Column(name = "lease_expires_at")
+    private OffsetDateTime leaseExpiresAt;
+
     @Column(name = "scheduled_at", nullable = false)
     private OffsetDateTime scheduledAt;
 
+    @Column(name = "priority", nullable = false)
+    private int priority = DEFAULT_PRIORITY;
+
+    // quando o job pode ser reivindicado de novo (= scheduled_at na primeira tentativa)
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    // pais (dependências) que ainda não terminaram; o job fica BLOCKED enquanto > 0
+    @Column(name = "pending_dependencies", nullable = false)
+    private int pendingDependencies;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // cancelamento pedido enquanto RUNNING; o nó dono interrompe o worker
+    @Column(name = "cancel_requested", nullable = false)
+    private boolean cancelRequested;
+
+    // progresso reportado pelo processor (total nulo = desconhecido)
+    @Column(name = "progress_processed")
+    private Long progressProcessed;
+
+    @Column(name = "progress_total")
+    private Long progressTotal;
+
+    @Column(name = "progress_updated_at")
+    private OffsetDateTime progressUpdatedAt;
+
+    // última linha já gravada por um processor em chunks; a próxima tentativa continua dali
+    @Column(name = "checkpoint_row")
+    private Long checkpointRow;
+
     @Column(name = "started_at")
     private OffsetDateTime startedAt;
 
@@ -67,9 +122,45 @@ public class AutomationJob {
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
 
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
+    public String getLockedBy() { return lockedBy; }
+    public void setLockedBy(String lockedBy) { this.lockedBy = lockedBy; }
+
+    public OffsetDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(OffsetDateTime leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+
     public OffsetDateTime getScheduledAt() { return scheduledAt; }
     public void setScheduledAt(OffsetDateTime scheduledAt) { this.scheduledAt = scheduledAt; }
 
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+
+    public OffsetDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(OffsetDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public int getPendingDependencies() { return pendingDependencies; }
+    public void setPendingDependencies(int pendingDependencies) { this.pendingDependencies = pendingDependencies; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public boolean isCancelRequested() { return cancelRequested; }
+    public void setCancelRequested(boolean cancelRequested) { this.cancelRequested = cancelRequested; }
+
+    public Long getProgressProcessed() { return progressProcessed; }
+    public void setProgressProcessed(Long progressProcessed) { this.progressProcessed = progressProcessed; }
+
+    public Long getProgressTotal() { return progressTotal; }
+    public void setProgressTotal(Long progressTotal) { this.progressTotal = progressTotal; }
+
+    public Long getCheckpointRow() { return checkpointRow; }
+    public void setCheckpointRow(Long checkpointRow) { this.checkpointRow = checkpointRow; }
+
+    public OffsetDateTime getProgressUpdatedAt() { return progressUpdatedAt; }
+    public void setProgressUpdatedAt(OffsetDateTime progressUpdatedAt) { this.progressUpdatedAt = progressUpdatedAt; }
+
     public OffsetDateTime getStartedAt() { return startedAt; }
     public void setStartedAt(OffsetDateTime startedAt) { this.startedAt = startedAt; }
 
@@ -1,16 +1,143 @@
 package com.adi.docflow.repository;
 
 import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobType;
 import com.adi.docflow.model.AutomationJob;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface AutomationJobRepository extends JpaRepository<AutomationJob, Long> {
+public interface AutomationJobRepository extends JpaRepository<AutomationJob, Long>, JpaSpecificationExecutor<AutomationJob> {
     Optional<AutomationJob> findByUuid(String uuid);
 
-    List<AutomationJob> findTop10ByStatusAndScheduledAtLessThanEqualOrderByScheduledAtAsc(
-            JobStatus status, OffsetDateTime scheduledAt);
+    // próxima tentativa ainda na fila para o tipo (seek em ix_job_claim)
+    @Query("""
+        select min(j.nextAttemptAt) from AutomationJob j
+        where j.status = com.adi.docflow.job.JobStatus.QUEUED and j.type = :type
+        """)
+    OffsetDateTime findNextAttemptAt(@Param("type") JobType type);
+
+    // backlog por tipo e status: linhas [JobType, JobStatus, Long]
+    @Query("""
+        select j.type, j.status, count(j) from AutomationJob j
+        where j.status in :statuses
+        group by j.type, j.status
+        """)
+    List<Object[]> countByTypeAndStatus(@Param("statuses") Collection<JobStatus> statuses);
+
+    /**
+     * Reivindica até {@code max} jobs vencidos do tipo num único UPDATE...OUTPUT,
+     * faixas de prioridade mais altas primeiro (ix_job_claim_priority) e contando
+     * a tentativa. READPAST pula as linhas já travadas por outra réplica, então
+     * dois nós nunca recebem o mesmo job.
+     */
+    @Query(value = """
+        WITH due AS (
+            SELECT TOP (:max) *
+            FROM app.automation_job WITH (ROWLOCK, UPDLOCK, READPAST)
+            WHERE status = 'QUEUED'
+              AND type = :type
+              AND next_attempt_at <= :now
+            ORDER BY priority DESC, next_attempt_at
+        )
+        UPDATE due
+           SET status = 'RUNNING',
+               locked_by = :node,
+               lease_expires_at = :leaseUntil,
+               attempts = attempts + 1,
+               started_at = :now,
+               updated_at = :now
+        OUTPUT inserted.*
+        """, nativeQuery = true)
+    List<AutomationJob> claimDueByPriority(@Param("type") String type,
+                                           @Param("max") int max,
+                                           @Param("node") String node,
+                                           @Param("now") LocalDateTime now,
+                                           @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Mesmo claim em ordem FIFO pura (ix_job_claim), ignorando a prioridade.
+     * Usado periodicamente para que as faixas baixas não fiquem sem vez.
+     */
+    @Query(value = """
+        WITH due AS (
+            SELECT TOP (:max) *
+            FROM app.automation_job WITH (ROWLOCK, UPDLOCK, READPAST)
+            WHERE status = 'QUEUED'
+              AND type = :type
+              AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+        )
+        UPDATE due
+           SET status = 'RUNNING',
+               locked_by = :node,
+               lease_expires_at = :leaseUntil,
+               attempts = attempts + 1,
+               started_at = :now,
+               updated_at = :now
+        OUTPUT inserted.*
+        """, nativeQuery = true)
+    List<AutomationJob> claimDueFifo(@Param("type") String type,
+                                     @Param("max") int max,
+                                     @Param("node") String node,
+                                     @Param("now") LocalDateTime now,
+                                     @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // ids, dentre os informados, com cancelamento pedido
+    @Query("""
+        select j.id from AutomationJob j
+        where j.id in :ids and j.cancelRequested = true
+        """)
+    List<Long> findCancelRequested(@Param("ids") Collection<Long> ids);
+
+    // cancela direto um job ainda na fila (ou bloqueado); 0 se já saiu de QUEUED/BLOCKED
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update AutomationJob j
+           set j.status = com.adi.docflow.job.JobStatus.CANCELLED,
+               j.errorMessage = 'Cancelado antes da execução',
+               j.finishedAt = :now,
+               j.updatedAt = :now
+         where j.uuid = :uuid
+           and j.status in (com.adi.docflow.job.JobStatus.QUEUED, com.adi.docflow.job.JobStatus.BLOCKED)
+        """)
+    int cancelQueued(@Param("uuid") String uuid, @Param("now") OffsetDateTime now);
+
+    // marca o pedido de cancelamento de um job em execução; 0 se não está RUNNING
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update AutomationJob j
+           set j.cancelRequested = true,
+               j.updatedAt = :now
+         where j.uuid = :uuid
+           and j.status = com.adi.docflow.job.JobStatus.RUNNING
+        """)
+    int requestCancel(@Param("uuid") String uuid, @Param("now") OffsetDateTime now);
+
+    // progresso de um job em execução; ignorado se o job já não é deste nó
+    @Modifying
+    @Query("""
+        update AutomationJob j
+           set j.progressProcessed = :processed,
+               j.progressTotal = :total,
+               j.progressUpdatedAt = :now
+         where j.id = :id
+           and j.status = com.adi.docflow.job.JobStatus.RUNNING
+           and j.lockedBy = :node
+        """)
+    int updateProgress(@Param("id") Long id,
+                       @Param("processed") long processed,
+                       @Param("total") Long total,
+                       @Param("node") String node,
+                       @Param("now") OffsetDateTime now);
+
+    List<AutomationJob> findByUuidIn(Collection<String> uuids);
 }
@@ -0,0 +1,36 @@
+package com.adi.docflow.repository;
+
+import com.adi.docflow.model.Document;
+import com.adi.docflow.web.dto.DocumentListItemDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Listagens de documentos por projeção: uma única consulta com só as colunas
+ * de {@link DocumentListItemDTO} e o nome do projeto via LEFT JOIN, sem
+ * hidratar {@code Document} (nem description/remarks) e sem carregar o
+ * projeto linha a linha. Filtros vêm da mesma Specification das listagens.
+ */
+public interface DocumentListRepository {
+
+    /** Linha da listagem por cursor: o item e os valores das chaves de ordenação, na ordem do Sort. */
+    record DocumentListRow(DocumentListItemDTO item, List<Object> sortKeys) {}
+
+    Page<DocumentListItemDTO> findListItems(Specification<Document> spec, Pageable pageable);
+
+    /** Até {@code limit} linhas na ordem de {@code sort}, sem COUNT. */
+    List<DocumentListRow> findListRows(Specification<Document> spec, Sort sort, int limit);
+
+    /**
+     * Entrega todas as linhas a {@code action}, lidas num cursor forward-only de
+     * {@code fetchSize} em {@code fetchSize}: sem COUNT, sem OFFSET e sem entidades
+     * no contexto de persistência, então a memória não cresce com o resultado.
+     * @return linhas entregues
+     */
+    long forEachListItem(Specification<Document> spec, Sort sort, int fetchSize, Consumer<DocumentListItemDTO> action);
+}
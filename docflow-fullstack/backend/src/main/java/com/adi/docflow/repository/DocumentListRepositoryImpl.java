@@ -0,0 +1,128 @@
+package com.adi.docflow.repository;
+
+import com.adi.docflow.model.Document;
+import com.adi.docflow.model.Project;
+import com.adi.docflow.web.dto.DocumentListItemDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+class DocumentListRepositoryImpl implements DocumentListRepository {
+
+    // colunas de DocumentListItemDTO, na ordem do construtor
+    private static final int DTO_COLUMNS = 11;
+
+    private final EntityManager em;
+
+    DocumentListRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public Page<DocumentListItemDTO> findListItems(Specification<Document> spec, Pageable pageable) {
+        List<DocumentListItemDTO> items = new ArrayList<>();
+        for (Tuple t : query(spec, pageable.getSort(), false)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList()) {
+            items.add(toItem(t));
+        }
+        return PageableExecutionUtils.getPage(items, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<DocumentListRow> findListRows(Specification<Document> spec, Sort sort, int limit) {
+        List<DocumentListRow> rows = new ArrayList<>();
+        for (Tuple t : query(spec, sort, true).setMaxResults(limit).getResultList()) {
+            List<Object> keys = new ArrayList<>();
+            for (int i = DTO_COLUMNS; i < t.getElements().size(); i++) keys.add(t.get(i));
+            rows.add(new DocumentListRow(toItem(t), keys));
+        }
+        return rows;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachListItem(Specification<Document> spec, Sort sort, int fetchSize,
+                                Consumer<DocumentListItemDTO> action) {
+        long count = 0;
+        try (Stream<Tuple> rows = query(spec, sort, false)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            for (Iterator<Tuple> it = rows.iterator(); it.hasNext(); count++) {
+                action.accept(toItem(it.next()));
+            }
+        }
+        return count;
+    }
+
+    private TypedQuery<Tuple> query(Specification<Document> spec, Sort sort, boolean withSortKeys) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Document> root = cq.from(Document.class);
+        Join<Document, Project> project = root.join("project", JoinType.LEFT);
+
+        List<Selection<?>> columns = new ArrayList<>(List.of(
+                root.get("id"), root.get("code"), root.get("title"), root.get("revision"),
+                root.get("format"), root.get("currentLocation"), root.get("status"),
+                root.get("updatedAt"), project.get("id"), project.get("name"), root.get("uploadHash")));
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order o : sort) {
+            Path<?> path = path(root, project, o.getProperty());
+            orders.add(o.isAscending() ? cb.asc(path) : cb.desc(path));
+            if (withSortKeys) columns.add(path);
+        }
+        cq.multiselect(columns);
+        Predicate where = spec.toPredicate(root, cq, cb);
+        if (where != null) cq.where(where);
+        cq.orderBy(orders);
+        return em.createQuery(cq);
+    }
+
+    private long count(Specification<Document> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Document> root = cq.from(Document.class);
+        cq.select(cb.count(root));
+        Predicate where = spec.toPredicate(root, cq, cb);
+        if (where != null) cq.where(where);
+        return em.createQuery(cq).getSingleResult();
+    }
+
+    // "project.name" usa o LEFT JOIN da projeção; o resto é atributo do documento
+    private static Path<?> path(Root<Document> root, Join<Document, Project> project, String property) {
+        if (property.startsWith("project.")) return project.get(property.substring("project.".length()));
+        return root.get(property);
+    }
+
+    private static DocumentListItemDTO toItem(Tuple t) {
+        return new DocumentListItemDTO(
+                t.get(0, Long.class), t.get(1, String.class), t.get(2, String.class), t.get(3, String.class),
+                t.get(4, String.class), t.get(5, String.class), t.get(6, String.class),
+                t.get(7, Instant.class), t.get(8, Long.class), t.get(9, String.class), t.get(10, String.class));
+    }
+}
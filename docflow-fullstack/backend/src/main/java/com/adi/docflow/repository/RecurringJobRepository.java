@@ -0,0 +1,43 @@
+package com.adi.docflow.repository;
+
+import com.adi.docflow.model.RecurringJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface RecurringJobRepository extends JpaRepository<RecurringJob, Long> {
+
+    boolean existsByName(String name);
+
+    // definições habilitadas que vencem até o horizonte (seek em ix_recurring_due)
+    @Query("""
+        select r from RecurringJob r
+        where r.enabled = true and r.nextRunAt <= :until
+        order by r.nextRunAt
+        """)
+    List<RecurringJob> findDueUntil(@Param("until") OffsetDateTime until);
+
+    /**
+     * Avança a definição de {@code dueAt} para {@code nextRunAt}. Só um nó
+     * consegue (os demais veem next_run_at já alterado e recebem 0), então
+     * quem recebe 1 é quem cria o AutomationJob da execução.
+     */
+    @Modifying
+    @Query("""
+        update RecurringJob r
+           set r.nextRunAt = :nextRunAt,
+               r.lastRunAt = :dueAt,
+               r.updatedAt = :now
+         where r.id = :id
+           and r.enabled = true
+           and r.nextRunAt = :dueAt
+        """)
+    int advance(@Param("id") Long id,
+                @Param("dueAt") OffsetDateTime dueAt,
+                @Param("nextRunAt") OffsetDateTime nextRunAt,
+                @Param("now") OffsetDateTime now);
+}
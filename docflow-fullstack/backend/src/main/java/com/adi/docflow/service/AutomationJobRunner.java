@@ -1,49 +1,391 @@
 package com.adi.docflow.service;
 
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.job.JobCompletion;
+import com.adi.docflow.job.JobCancelRequestedEvent;
+import com.adi.docflow.job.JobEnqueuedEvent;
+import com.adi.docflow.job.JobProgress;
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.RateLimit;
+import com.adi.docflow.job.RetryPolicy;
+import com.adi.docflow.job.TokenBucket;
 import com.adi.docflow.model.AutomationJob;
 import com.adi.docflow.service.processor.JobProcessor;
 import com.adi.docflow.job.JobType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
-public class AutomationJobRunner {
+public class AutomationJobRunner implements SmartLifecycle {
 
     private static final Logger log = LoggerFactory.getLogger(AutomationJobRunner.class);
 
     private final AutomationJobService service;
+    private final JobCompletionBuffer completions;
+    private final AutomationJobProperties properties;
+    private final JobMetrics metrics;
+    private final JobEventBroadcaster broadcaster;
     private final Map<JobType, JobProcessor> processors = new EnumMap<>(JobType.class);
+    private final Map<JobType, JobWorkerPool> pools = new EnumMap<>(JobType.class);
+    private final Map<JobType, TokenBucket> rateLimits = new EnumMap<>(JobType.class);
 
-    public AutomationJobRunner(AutomationJobService service, java.util.List<JobProcessor> processorsList) {
+    private final JobDispatchSignal signal = new JobDispatchSignal();
+    // tipos cujo pool encheu na última rodada: ao liberar uma vaga, vale acordar o dispatcher
+    private final Set<JobType> saturated = ConcurrentHashMap.newKeySet();
+    // tipos sem tokens na última rodada: o dispatcher acorda quando o balde recarregar
+    private final Set<JobType> throttled = EnumSet.noneOf(JobType.class);
+    // jobs reivindicados por este nó e ainda em execução (ids com heartbeat)
+    private final Map<Long, JobExecution> inFlight = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public AutomationJobRunner(AutomationJobService service,
+                               JobCompletionBuffer completions,
+                               AutomationJobProperties properties,
+                               JobExecutorFactory executorFactory,
+                               JobMetrics metrics,
+                               JobEventBroadcaster broadcaster,
+                               MeterRegistry meterRegistry,
+                               List<JobProcessor> processorsList) {
         this.service = service;
+        this.completions = completions;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.broadcaster = broadcaster;
         for (JobProcessor p : processorsList) {
             processors.put(p.getType(), p);
         }
+        for (JobType type : processors.keySet()) {
+            int concurrency = properties.concurrencyFor(type);
+            pools.put(type, new JobWorkerPool(type, concurrency, executorFactory.create(type, concurrency)));
+        }
+        for (Map.Entry<JobType, RateLimit> e : properties.getRateLimit().entrySet()) {
+            TokenBucket bucket = new TokenBucket(e.getValue());
+            rateLimits.put(e.getKey(), bucket);
+            Gauge.builder("docflow.jobs.ratelimit.fill", bucket, TokenBucket::fillRatio)
+                    .description("Nível do token bucket do tipo (0 = sem tokens, 1 = cheio)")
+                    .tag("type", e.getKey().name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Acorda o dispatcher após o commit do job: se já venceu é reivindicado na hora;
+     * se é futuro, passa a limitar o próximo prazo de espera.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobEnqueued(JobEnqueuedEvent event) {
+        signal.signal();
+    }
+
+    /**
+     * Cancelamento pedido neste nó: se o job roda aqui, interrompe já.
+     * Jobs de outros nós são descobertos pelo heartbeat do dono.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCancelRequested(JobCancelRequestedEvent event) {
+        stop(event.jobId(), JobExecution.StopReason.CANCELLED);
+    }
+
+    // ============================ DISPATCHER ============================
+
+    private void dispatchLoop() {
+        long delay = properties.getMinPollDelayMs();
+        try {
+            signal.await(properties.getInitialDelayMs());
+            while (running) {
+                int claimed = 0;
+                try {
+                    claimed = dequeueAndRun();
+                } catch (Exception e) {
+                    log.error("Falha na rodada do dispatcher de jobs: {}", e.getMessage(), e);
+                }
+                delay = nextDelay(claimed, delay);
+                signal.await(delay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Backoff adaptativo: com trabalho volta ao mínimo (~100 ms); ocioso dobra até
+     * o máximo (~30 s), mas nunca dorme além da próxima tentativa vencendo num tipo
+     * com vagas livres (tipos cheios são acordados pelos workers ao terminar)
+     * nem além da recarga do token bucket de um tipo limitado.
+     */
+    private long nextDelay(int claimed, long previous) {
+        long min = properties.getMinPollDelayMs();
+        long max = properties.getMaxPollDelayMs();
+        if (claimed > 0) return min;
+
+        long delay = Math.min(max, Math.max(min, previous * 2));
+        for (JobType type : throttled) {
+            delay = Math.min(delay, Math.max(min, rateLimits.get(type).millisUntilNextToken()));
+        }
+        Set<JobType> idle = EnumSet.noneOf(JobType.class);
+        idle.addAll(pools.keySet());
+        idle.removeAll(saturated);
+        idle.removeAll(throttled);
+        OffsetDateTime nextDue = idle.isEmpty() ? null : service.nextAttemptAt(idle);
+        if (nextDue != null) {
+            long untilDue = Duration.between(OffsetDateTime.now(), nextDue).toMillis();
+            delay = Math.min(delay, Math.max(min, untilDue));
+        }
+        return delay;
     }
 
-    @Scheduled(fixedDelay = 5000L, initialDelay = 3000L)
-    public void dequeueAndRun() {
-        List<AutomationJob> pending = service.fetchPending(10);
-        for (AutomationJob job : pending) {
-            JobProcessor processor = processors.get(job.getType());
-            if (processor == null) {
-                service.markFailed(job, "Processor não encontrado para tipo: " + job.getType());
+    /**
+     * Despacha os jobs vencidos para o pool do respectivo tipo.
+     * Cada tipo só reivindica tantos jobs quanto tiver de vagas livres,
+     * então um import lento não segura os e-mails atrás dele. Dentro do tipo,
+     * faixas de prioridade mais altas saem primeiro, com uma rodada FIFO a cada
+     * {@code app.jobs.fifo-claim-every}. Tipos com rate limit também ficam
+     * limitados aos tokens do balde; sem tokens, os jobs seguem QUEUED.
+     * O claim já grava RUNNING; as finalizações vão para o JobCompletionBuffer.
+     * @return quantidade de jobs reivindicados nesta rodada
+     */
+    int dequeueAndRun() {
+        failJobsWithoutProcessor();
+
+        int total = 0;
+        for (JobWorkerPool pool : pools.values()) {
+            JobType type = pool.getType();
+            int wanted = Math.min(pool.getConcurrency(), properties.getClaimBatchSize());
+            int reserved = pool.reserve(wanted);
+            if (reserved == 0) {
+                saturated.add(type);
                 continue;
             }
+
+            TokenBucket bucket = rateLimits.get(type);
+            if (bucket != null) {
+                int tokens = bucket.take(reserved);
+                if (tokens == 0) {
+                    pool.release(reserved);
+                    throttled.add(type);
+                    continue;
+                }
+                throttled.remove(type);
+                pool.release(reserved - tokens);
+                reserved = tokens;
+            }
+
+            int used = 0;
             try {
-                service.markRunning(job);
-                processor.process(job);
-                service.markSuccess(job);
+                boolean fifo = pool.nextRoundIsFifo(properties.getFifoClaimEvery());
+                List<AutomationJob> claimed = service.claimPending(type, reserved, fifo);
+                for (AutomationJob job : claimed) {
+                    used++;
+                    JobExecution execution = new JobExecution(job, deadlineFor(type), this::flushProgress,
+                            properties.getProgressFlushItems(), properties.getProgressFlushInterval().toNanos());
+                    inFlight.put(job.getId(), execution);
+                    metrics.recordQueueWait(type, job.getNextAttemptAt(), job.getStartedAt());
+                    pool.submit(() -> execute(execution));
+                }
             } catch (Exception e) {
-                log.error("Falha ao executar job {}: {}", job.getUuid(), e.getMessage(), e);
-                service.markFailed(job, e.getMessage());
+                log.error("Falha ao despachar jobs do tipo {}: {}", type, e.getMessage(), e);
+            } finally {
+                pool.release(reserved - used);
+                if (bucket != null) bucket.refund(reserved - used);
+            }
+            if (used == reserved && pool.isFull()) saturated.add(type);
+            else saturated.remove(type);
+            total += used;
+        }
+        return total;
+    }
+
+    private void execute(JobExecution execution) {
+        AutomationJob job = execution.getJob();
+        JobProcessor processor = processors.get(job.getType());
+        JobCompletion completion;
+        long start = System.nanoTime();
+        execution.attach(Thread.currentThread());
+        try {
+            processor.process(job, execution);
+            // o processador pode ter ignorado a interrupção e terminado mesmo sem a lease
+            completion = execution.getStopReason() == JobExecution.StopReason.LEASE_LOST
+                    ? null : JobCompletion.success(job.getId());
+        } catch (Exception e) {
+            completion = execution.getStopReason() != null ? stoppedOf(execution) : failureOf(job, e);
+        } finally {
+            execution.detach();
+        }
+        try {
+            metrics.recordExecution(job.getType(), System.nanoTime() - start);
+            // sem lease o job já não é deste nó: a finalização seria ignorada pelo UPDATE de qualquer forma
+            if (completion != null) {
+                metrics.recordOutcome(job.getType(), completion.status());
+                completions.add(completion);
+            } else {
+                log.warn("Job {} terminou sem a lease deste nó; finalização descartada", job.getUuid());
+            }
+        } finally {
+            inFlight.remove(job.getId());
+            if (saturated.contains(job.getType())) signal.signal();
+        }
+    }
+
+    /**
+     * Heartbeat em lote: renova a lease de todos os jobs em execução neste nó
+     * com um UPDATE por bloco de ids, em vez de um por job. Jobs cuja lease não
+     * foi renovada já voltaram para a fila (e podem estar rodando em outro nó):
+     * o worker daqui é interrompido para não haver duas execuções simultâneas.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        if (inFlight.isEmpty()) return;
+        List<Long> ids = List.copyOf(inFlight.keySet());
+        Set<Long> renewed = service.extendLeases(ids);
+        for (Long id : ids) {
+            if (!renewed.contains(id)) leaseLost(id);
+        }
+        // cancelamentos pedidos via outra réplica
+        for (Long id : service.findCancelRequested(ids)) {
+            stop(id, JobExecution.StopReason.CANCELLED);
+        }
+    }
+
+    /**
+     * Interrompe os workers que passaram do timeout do tipo
+     * ({@code app.jobs.timeout}); o job é gravado como FAILED.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.watchdog-interval-ms:1000}")
+    public void watchdog() {
+        long now = System.nanoTime();
+        for (JobExecution execution : inFlight.values()) {
+            if (execution.isPastDeadline(now) && execution.stop(JobExecution.StopReason.TIMEOUT)) {
+                AutomationJob job = execution.getJob();
+                log.warn("Job {} ({}) excedeu o timeout de {}; interrompendo o worker",
+                        job.getUuid(), job.getType(), properties.timeoutFor(job.getType()));
             }
         }
     }
+
+    /** Progresso já filtrado pelo throttle da JobExecution: grava e avisa assinantes SSE. */
+    private void flushProgress(JobExecution execution, long processed, long total) {
+        AutomationJob job = execution.getJob();
+        Long knownTotal = total >= 0 ? total : null;
+        try {
+            if (!service.updateProgress(job.getId(), processed, knownTotal)) {
+                leaseLost(job.getId());
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("Falha ao gravar progresso do job {}: {}", job.getUuid(), e.getMessage());
+        }
+        broadcaster.publish(new JobProgress(job.getUuid(), JobStatus.RUNNING, processed, knownTotal,
+                JobEventBroadcaster.eta(JobStatus.RUNNING, job.getStartedAt(), processed, knownTotal), null));
+    }
+
+    private void stop(Long jobId, JobExecution.StopReason reason) {
+        JobExecution execution = inFlight.get(jobId);
+        if (execution != null && execution.stop(reason)) {
+            log.info("Job {} interrompido: {}", execution.getJob().getUuid(), reason);
+        }
+    }
+
+    private void leaseLost(Long jobId) {
+        JobExecution execution = inFlight.get(jobId);
+        if (execution != null && execution.stop(JobExecution.StopReason.LEASE_LOST)) {
+            log.warn("Job {} perdeu a lease deste nó; interrompendo o worker", execution.getJob().getUuid());
+        }
+    }
+
+    private long deadlineFor(JobType type) {
+        Duration timeout = properties.timeoutFor(type);
+        return timeout == null ? Long.MAX_VALUE : System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Job interrompido por cancelamento ou timeout; nenhum dos dois volta para retry.
+     * Com a lease perdida não há finalização: o job pertence a quem o reivindicou depois.
+     */
+    private JobCompletion stoppedOf(JobExecution execution) {
+        AutomationJob job = execution.getJob();
+        if (execution.getStopReason() == JobExecution.StopReason.LEASE_LOST) return null;
+        if (execution.getStopReason() == JobExecution.StopReason.CANCELLED) {
+            return JobCompletion.cancelled(job.getId());
+        }
+        return JobCompletion.failed(job.getId(),
+                "Timeout de " + properties.timeoutFor(job.getType()) + " excedido");
+    }
+
+    /** Falha com tentativas restantes volta para a fila com backoff; esgotadas, vai para DEAD_LETTER. */
+    private JobCompletion failureOf(AutomationJob job, Exception e) {
+        RetryPolicy policy = properties.retryFor(job.getType());
+        if (policy.canRetry(job.getAttempts())) {
+            Duration backoff = policy.backoff(job.getAttempts());
+            log.warn("Job {} falhou na tentativa {}/{}; nova tentativa em {} ms: {}",
+                    job.getUuid(), job.getAttempts(), policy.getMaxAttempts(), backoff.toMillis(), e.getMessage());
+            return JobCompletion.retry(job.getId(), e.getMessage(), OffsetDateTime.now().plus(backoff));
+        }
+        log.error("Falha ao executar job {} (tentativa {}/{}), enviado para DEAD_LETTER: {}",
+                job.getUuid(), job.getAttempts(), policy.getMaxAttempts(), e.getMessage(), e);
+        return JobCompletion.deadLetter(job.getId(), e.getMessage());
+    }
+
+    private void failJobsWithoutProcessor() {
+        for (JobType type : JobType.values()) {
+            if (processors.containsKey(type)) continue;
+            for (AutomationJob job : service.claimPending(type, 10, true)) {
+                metrics.recordOutcome(type, JobStatus.FAILED);
+                completions.add(JobCompletion.failed(job.getId(), "Processor não encontrado para tipo: " + job.getType()));
+            }
+        }
+    }
+
+    // ============================ LIFECYCLE ============================
+
+    @Override
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "job-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        signal.signal();
+        if (dispatcher != null) {
+            try {
+                dispatcher.join(properties.getMaxPollDelayMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (JobWorkerPool pool : pools.values()) {
+            try {
+                pool.shutdown(properties.getShutdownTimeoutSeconds());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        completions.flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
 }
@@ -1,71 +1,148 @@
 package com.adi.docflow.service;
 
+import com.adi.docflow.job.BatchSubmission;
+import com.adi.docflow.job.CancelResult;
+import com.adi.docflow.job.JobCompletion;
+import com.adi.docflow.job.JobCursor;
 import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobSubmission;
 import com.adi.docflow.job.JobType;
+import com.adi.docflow.job.NewJob;
 import com.adi.docflow.model.AutomationJob;
-import com.adi.docflow.repository.AutomationJobRepository;
-import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
-/*import java.util.Map;*/
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 
+/**
+ * Ponto de entrada da fila de jobs para controllers, runner e agendadores.
+ * A persistência fica no {@link JobStore} configurado em {@code app.jobs.store}
+ * (SqlJobStore ou LocalJobStore); as regras de cada operação estão lá.
+ */
 @Service
 public class AutomationJobService {
 
-    private final AutomationJobRepository repository;
+    private final JobStore store;
 
-    public AutomationJobService(AutomationJobRepository repository) {
-        this.repository = repository;
+    public AutomationJobService(JobStore store) {
+        this.store = store;
     }
 
-    @Transactional
     public AutomationJob create(JobType type, String payload, OffsetDateTime scheduledAt) {
-        AutomationJob job = new AutomationJob();
-        job.setUuid(UUID.randomUUID().toString());
-        job.setType(type);
-        job.setStatus(JobStatus.QUEUED);
-        job.setPayload(payload);
-        OffsetDateTime now = OffsetDateTime.now();
-        job.setScheduledAt(scheduledAt != null ? scheduledAt : now);
-        job.setCreatedAt(now);
-        job.setUpdatedAt(now);
-        return repository.save(job);
+        return create(type, payload, scheduledAt, null);
+    }
+
+    public AutomationJob create(JobType type, String payload, OffsetDateTime scheduledAt, Integer priority) {
+        return submit(new NewJob(type, payload, scheduledAt, priority)).job();
+    }
+
+    /**
+     * Cria o job. Com {@code dependsOn} (UUIDs de jobs existentes) ele nasce
+     * BLOCKED e só entra na fila quando todos os pais terminarem em SUCCESS.
+     * Com {@code idempotencyKey} já usada dentro de {@code app.jobs.idempotency-window},
+     * devolve o job original em vez de criar outro.
+     * @throws IllegalArgumentException se algum pai não existe
+     * @throws IllegalStateException se algum pai já terminou sem sucesso
+     */
+    public JobSubmission submit(NewJob request) {
+        return store.submit(request);
+    }
+
+    /**
+     * Enfileira vários jobs de uma vez, tudo ou nada, com as mesmas regras do
+     * {@link #submit}. Chave repetida dentro do próprio lote aponta para o
+     * primeiro item com ela. Os itens são consumidos em blocos; ver {@link JobStore#createAll}.
+     * @return UUIDs na ordem de {@code jobs} (o original, para chaves repetidas)
+     */
+    public BatchSubmission createAll(Iterator<NewJob> jobs) {
+        return store.createAll(jobs);
     }
 
     public Optional<AutomationJob> getByUuid(String uuid) {
-        return repository.findByUuid(uuid);
+        return store.findByUuid(uuid);
+    }
+
+    /**
+     * Lista jobs do mais recente para o mais antigo por (scheduledAt, id),
+     * continuando depois de {@code after}. Todos os filtros são opcionais; {@code to} é exclusivo.
+     * @return até {@code limit + 1} jobs; o excedente indica que há próxima página
+     */
+    public List<AutomationJob> search(JobType type, JobStatus status, OffsetDateTime from, OffsetDateTime to,
+                                      JobCursor after, int limit) {
+        return store.search(type, status, from, to, after, limit);
+    }
+
+    /**
+     * Cancela um job: na fila (ou BLOCKED) vira CANCELLED na hora, junto com os
+     * dependentes; em execução só marca o pedido, e o nó dono interrompe o worker.
+     */
+    public CancelResult cancel(String uuid) {
+        return store.cancel(uuid);
+    }
+
+    /**
+     * Grava o progresso reportado por um job que ainda roda neste nó.
+     * @return false se o job já não é deste nó
+     */
+    public boolean updateProgress(Long jobId, long processed, Long total) {
+        return store.updateProgress(jobId, processed, total);
+    }
+
+    /**
+     * Grava até onde um processor em chunks chegou; a próxima tentativa lê de
+     * {@link AutomationJob#getCheckpointRow()}.
+     * @throws IllegalStateException se o job já não está em execução neste nó
+     */
+    public void saveCheckpoint(Long jobId, long checkpointRow) {
+        store.saveCheckpoint(jobId, checkpointRow);
+    }
+
+    /** Dentre os jobs informados, os que tiveram cancelamento pedido. */
+    public List<Long> findCancelRequested(Collection<Long> jobIds) {
+        return store.findCancelRequested(jobIds);
+    }
+
+    /**
+     * Próxima tentativa vencendo na fila entre os tipos informados,
+     * usada pelo dispatcher como prazo de espera.
+     */
+    public OffsetDateTime nextAttemptAt(Collection<JobType> types) {
+        return store.nextAttemptAt(types);
     }
 
-    public java.util.List<AutomationJob> fetchPending(int max) {
-        return repository.findTop10ByStatusAndScheduledAtLessThanEqualOrderByScheduledAtAsc(
-                JobStatus.QUEUED, OffsetDateTime.now());
+    /**
+     * Move atomicamente até {@code max} jobs vencidos do tipo para RUNNING,
+     * registrando este nó como dono.
+     * @param fifo ignora a prioridade e pega os mais antigos (proteção contra starvation)
+     */
+    public List<AutomationJob> claimPending(JobType type, int max, boolean fifo) {
+        if (max <= 0) return List.of();
+        return store.claimPending(type, max, fifo);
     }
 
-    @Transactional
-    public void markRunning(AutomationJob job) {
-        job.setStatus(JobStatus.RUNNING);
-        job.setStartedAt(OffsetDateTime.now());
-        job.setUpdatedAt(OffsetDateTime.now());
-        repository.save(job);
+    /** @return ids cuja lease ainda pertencia a este nó (os demais foram perdidos) */
+    public Set<Long> extendLeases(Collection<Long> jobIds) {
+        if (jobIds.isEmpty()) return Set.of();
+        return store.extendLeases(jobIds);
     }
 
-    @Transactional
-    public void markSuccess(AutomationJob job) {
-        job.setStatus(JobStatus.SUCCESS);
-        job.setFinishedAt(OffsetDateTime.now());
-        job.setUpdatedAt(OffsetDateTime.now());
-        repository.save(job);
+    /**
+     * Devolve à fila (ou DEAD_LETTER/CANCELLED) os jobs RUNNING cuja lease venceu.
+     * @return quantidade de jobs recuperados
+     */
+    public int reapExpiredLeases() {
+        return store.reapExpiredLeases();
     }
 
-    @Transactional
-    public void markFailed(AutomationJob job, String error) {
-        job.setStatus(JobStatus.FAILED);
-        job.setErrorMessage(error);
-        job.setFinishedAt(OffsetDateTime.now());
-        job.setUpdatedAt(OffsetDateTime.now());
-        repository.save(job);
+    /**
+     * Grava um lote de finalizações e libera ou cancela os dependentes.
+     * @return quantidade de jobs atualizados
+     */
+    public int completeAll(List<JobCompletion> completions) {
+        return store.completeAll(completions);
     }
 }
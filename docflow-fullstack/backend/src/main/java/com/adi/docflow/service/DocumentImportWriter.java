@@ -0,0 +1,145 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.service.search.DocumentsChangedEvent;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Escrita de um chunk da importação de documentos. Linhas e checkpoint do job
+ * vão na mesma transação: uma nova tentativa nunca regrava um chunk já
+ * commitado nem pula um que foi desfeito. Projetos que ganharam documentos
+ * têm o updated_at renovado, como no cadastro e na importação JSON.
+ */
+@Component
+public class DocumentImportWriter {
+
+    // insere só se (project_id, code, revision) ainda não existe (UX_document_project_code_revision)
+    private static final String INSERT_SQL = """
+        INSERT INTO app.document (project_id, code, name, revision, status, created_at, updated_at, edit_count)
+        SELECT ?, ?, ?, ?, 'PLANNED', SYSUTCDATETIME(), SYSUTCDATETIME(), 0
+        WHERE NOT EXISTS (
+            SELECT 1 FROM app.document WITH (UPDLOCK, HOLDLOCK)
+            WHERE project_id = ? AND code = ? AND revision = ?)
+        """;
+
+    private static final int IDS_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final AutomationJobService jobService;
+    private final ApplicationEventPublisher events;
+
+    public DocumentImportWriter(JdbcTemplate jdbc, AutomationJobService jobService, ApplicationEventPublisher events) {
+        this.jdbc = jdbc;
+        this.jobService = jobService;
+        this.events = events;
+    }
+
+    public record Row(long projectId, String code, String title, int revision) {}
+
+    /**
+     * Grava o chunk e move o checkpoint do job para {@code checkpointRow}.
+     * O checkpoint só é aceito se o job ainda está RUNNING neste nó; se a
+     * lease foi perdida para outra réplica, a transação inteira é desfeita.
+     * Com {@code app.jobs.store=local} o checkpoint vai para o journal e não
+     * participa desta transação; um chunk regravado após uma queda cai no
+     * NOT EXISTS e não duplica documentos.
+     * @return linhas efetivamente inseridas (as já existentes são ignoradas)
+     */
+    @Transactional
+    public int writeChunk(long jobId, List<Row> rows, long checkpointRow) {
+        int inserted = insert(rows);
+        jobService.saveCheckpoint(jobId, checkpointRow);
+        return inserted;
+    }
+
+    /**
+     * Grava o chunk na sua própria transação, sem job (upload em
+     * POST /api/v1/documents/import).
+     * @return linhas efetivamente inseridas (as já existentes são ignoradas)
+     */
+    @Transactional
+    public int writeChunk(List<Row> rows) {
+        return insert(rows);
+    }
+
+    // um único batch JDBC por chunk
+    private int insert(List<Row> rows) {
+        int inserted = 0;
+        Set<Long> touchedProjects = new HashSet<>();
+        if (!rows.isEmpty()) {
+            int[][] counts = jdbc.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, r) -> {
+                ps.setLong(1, r.projectId());
+                ps.setString(2, r.code());
+                ps.setString(3, r.title());
+                ps.setInt(4, r.revision());
+                ps.setLong(5, r.projectId());
+                ps.setString(6, r.code());
+                ps.setInt(7, r.revision());
+            });
+            // um único lote do tamanho do chunk: counts[0][i] é a linha i
+            int[] batch = counts.length == 0 ? new int[0] : counts[0];
+            for (int i = 0; i < batch.length; i++) {
+                if (batch[i] > 0) {
+                    inserted += batch[i];
+                    touchedProjects.add(rows.get(i).projectId());
+                }
+            }
+        }
+        if (inserted > 0) {
+            touchProjects(touchedProjects);
+            events.publishEvent(new DocumentsChangedEvent(idsOf(rows)));
+        }
+        return inserted;
+    }
+
+    private void touchProjects(Set<Long> projectIds) {
+        List<Long> list = new ArrayList<>(projectIds);
+        for (int from = 0; from < list.size(); from += IDS_PER_STATEMENT) {
+            List<Long> chunk = list.subList(from, Math.min(from + IDS_PER_STATEMENT, list.size()));
+            jdbc.update("UPDATE app.project SET updated_at = SYSUTCDATETIME() WHERE id IN ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")", chunk.toArray());
+        }
+    }
+
+    // ids das linhas do chunk (todas as revisões dos códigos) para o índice de busca
+    private List<Long> idsOf(List<Row> rows) {
+        Map<Long, Set<String>> codesByProject = new LinkedHashMap<>();
+        for (Row r : rows) codesByProject.computeIfAbsent(r.projectId(), k -> new HashSet<>()).add(r.code());
+        List<Long> ids = new ArrayList<>();
+        codesByProject.forEach((projectId, codes) -> {
+            List<Object> list = new ArrayList<>(codes);
+            for (int from = 0; from < list.size(); from += IDS_PER_STATEMENT) {
+                List<Object> chunk = new ArrayList<>(list.subList(from, Math.min(from + IDS_PER_STATEMENT, list.size())));
+                String in = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                chunk.add(0, projectId);
+                jdbc.query("SELECT id FROM app.document WHERE project_id = ? AND code IN (" + in + ")",
+                        rs -> { ids.add(rs.getLong(1)); }, chunk.toArray());
+            }
+        });
+        return ids;
+    }
+
+    /** Dentre {@code ids}, os projetos que existem. */
+    public Set<Long> existingProjects(Collection<Long> ids) {
+        Set<Long> found = new HashSet<>();
+        List<Long> list = new ArrayList<>(ids);
+        for (int from = 0; from < list.size(); from += IDS_PER_STATEMENT) {
+            List<Long> chunk = list.subList(from, Math.min(from + IDS_PER_STATEMENT, list.size()));
+            jdbc.query("SELECT id FROM app.project WHERE id IN ("
+                            + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                    rs -> { found.add(rs.getLong(1)); }, chunk.toArray());
+        }
+        return found;
+    }
+}
@@ -7,10 +7,12 @@ import com.adi.docflow.model.RequestDocument;
 import com.adi.docflow.model.RequestStatus;
 
 import com.adi.docflow.repository.*;
+import com.adi.docflow.service.search.DocumentsChangedEvent;
 
 import com.adi.docflow.web.dto.*;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -32,6 +34,7 @@ public class DocumentService {
 
     private final RequestDocumentRepository requestDocumentRepository;
     private final RequestRepository requestRepository;
+    private final ApplicationEventPublisher events;
 
     private static final DateTimeFormatter BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
@@ -121,7 +124,9 @@ public class DocumentService {
         if (isBlank(doc.getUploadHash()))
             doc.setUploadHash(UUID.randomUUID().toString().replace("-", "") + "_0");
 
-        return documentRepository.save(doc);
+        Document saved = documentRepository.save(doc);
+        events.publishEvent(DocumentsChangedEvent.of(saved.getId()));
+        return saved;
     }
 
 
@@ -155,6 +160,7 @@ public class DocumentService {
 
         syncRequestDocumentSnapshot(saved);
         propagateDocumentUpdateToRequests(saved.getId());
+        events.publishEvent(DocumentsChangedEvent.of(saved.getId()));
 
         return saved;
     }
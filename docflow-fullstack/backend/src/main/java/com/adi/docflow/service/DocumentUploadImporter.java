@@ -0,0 +1,203 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.config.DocumentImportProperties;
+import com.adi.docflow.service.importer.CsvRowReader;
+import com.adi.docflow.service.importer.DocumentRowChunk;
+import com.adi.docflow.service.importer.DocumentRowParser;
+import com.adi.docflow.service.importer.NdjsonRowReader;
+import com.adi.docflow.service.importer.RowReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Importação de documentos enviada no POST (CSV ou NDJSON), sem job: o corpo é
+ * lido em streaming e gravado em chunks de {@code chunkSize} linhas, cada um
+ * num batch JDBC e na sua transação. As linhas inválidas vão para um CSV em
+ * {@code reportDir}, baixado depois pela URL da resposta, então nem o arquivo
+ * nem os erros ficam no heap.
+ * <p>
+ * Uma falha no meio mantém os chunks já gravados; reenviar o mesmo arquivo é
+ * seguro, os documentos existentes são ignorados.
+ */
+@Service
+public class DocumentUploadImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentUploadImporter.class);
+
+    // campos lidos de cada objeto NDJSON (os mesmos de ImportDocumentDTO)
+    private static final List<String> NDJSON_COLUMNS = List.of("projectId", "code", "title", "revision");
+
+    private final DocumentImportWriter writer;
+    private final DocumentImportProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public DocumentUploadImporter(DocumentImportWriter writer,
+                                  AutomationJobProperties properties,
+                                  ObjectMapper objectMapper) {
+        this.writer = writer;
+        this.properties = properties.getDocumentImport();
+        this.objectMapper = objectMapper;
+    }
+
+    /** @param reportId id do relatório de erros, ou nulo se não houve linha inválida */
+    public record Result(long rows, long created, long existing, long invalid, String reportId) {}
+
+    /**
+     * Importa o arquivo inteiro.
+     * @param defaultProject projeto das linhas sem a coluna de projeto (pode ser nulo)
+     * @throws IllegalArgumentException arquivo vazio ou cabeçalho sem as colunas obrigatórias
+     */
+    public Result importFile(InputStream body, boolean ndjson, Long defaultProject) throws IOException {
+        int chunkSize = Math.max(properties.getChunkSize(), 1);
+        String reportId = UUID.randomUUID().toString();
+        Path reportFile = reportPath(reportId);
+        Files.createDirectories(reportFile.getParent());
+
+        long rowNo = 0, created = 0, existing = 0;
+        ErrorReport errors = new ErrorReport(reportFile);
+        try (RowReader reader = open(body, ndjson); errors) {
+            List<String> header = reader.next();
+            if (header == null) throw new IllegalArgumentException("Arquivo vazio");
+            DocumentRowChunk chunk = new DocumentRowChunk(new DocumentRowParser(header, defaultProject),
+                    writer::existingProjects, chunkSize, errors::add);
+            while (true) {
+                List<String> cells;
+                try {
+                    cells = reader.next();
+                } catch (NdjsonRowReader.InvalidLineException e) {
+                    errors.add(++rowNo, null, e.getMessage());
+                    continue;
+                }
+                if (cells == null) break;
+                chunk.add(++rowNo, cells);
+                if (chunk.size() >= chunkSize) {
+                    int[] written = flush(chunk);
+                    created += written[0];
+                    existing += written[1];
+                }
+            }
+            int[] written = flush(chunk);
+            created += written[0];
+            existing += written[1];
+        } catch (RuntimeException | IOException e) {
+            Files.deleteIfExists(reportFile);
+            throw e;
+        }
+
+        if (errors.count == 0) {
+            Files.deleteIfExists(reportFile);
+            reportId = null;
+        }
+        log.info("Upload de documentos: {} linhas, {} criados, {} já existentes, {} inválidas",
+                rowNo, created, existing, errors.count);
+        return new Result(rowNo, created, existing, errors.count, reportId);
+    }
+
+    /** Relatório de erros de uma importação, se ainda existe. */
+    public Optional<Path> report(String reportId) {
+        try {
+            UUID.fromString(reportId);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty(); // também barra caminhos arbitrários
+        }
+        Path file = reportPath(reportId);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /** Apaga relatórios mais velhos que {@code report-retention}. */
+    @Scheduled(fixedDelay = 3_600_000L, initialDelay = 60_000L)
+    void purgeReports() {
+        Path dir = properties.getReportDir();
+        if (!Files.isDirectory(dir)) return;
+        Instant cutoff = Instant.now().minus(properties.getReportRetention());
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.csv")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Limpeza dos relatórios de importação falhou: {}", e.getMessage());
+        }
+        if (deleted > 0) log.info("{} relatório(s) de importação expirado(s) apagado(s)", deleted);
+    }
+
+    // {criados, já existentes}
+    private int[] flush(DocumentRowChunk chunk) {
+        if (chunk.size() == 0) return new int[] {0, 0};
+        List<DocumentImportWriter.Row> valid = chunk.drain();
+        int inserted = writer.writeChunk(valid);
+        return new int[] {inserted, valid.size() - inserted};
+    }
+
+    private RowReader open(InputStream body, boolean ndjson) {
+        InputStreamReader reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+        return ndjson ? new NdjsonRowReader(reader, objectMapper, NDJSON_COLUMNS) : new CsvRowReader(reader);
+    }
+
+    private Path reportPath(String reportId) {
+        return properties.getReportDir().resolve(reportId + ".csv");
+    }
+
+    /** CSV das linhas recusadas: número da linha, conteúdo original e motivo. */
+    private static final class ErrorReport implements Closeable {
+
+        private final Path file;
+        private Writer out;
+        private long count;
+
+        ErrorReport(Path file) {
+            this.file = file;
+        }
+
+        void add(long rowNo, List<String> content, String message) {
+            count++;
+            try {
+                if (out == null) {
+                    // aberto no primeiro erro: importação limpa não cria arquivo
+                    out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+                    out.write("\uFEFFrow,content,message\r\n");
+                }
+                out.write(String.valueOf(rowNo));
+                out.write(',');
+                out.write(escape(content == null ? "" : String.join(",", content)));
+                out.write(',');
+                out.write(escape(message));
+                out.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) out.close();
+        }
+
+        private static String escape(String v) {
+            if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) return v;
+            return '"' + v.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.config.JobRetentionProperties;
+import com.adi.docflow.job.JobType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Manutenção de app.automation_job: move jobs finalizados (SUCCESS, FAILED,
+ * CANCELLED, DEAD_LETTER) mais velhos que a retenção do tipo para
+ * app.automation_job_archive, remove os vínculos de dependência que ficaram
+ * órfãos e, opcionalmente, expurga o arquivo.
+ * <p>
+ * Cada lote é um único {@code DELETE TOP (n) ... OUTPUT deleted.* INTO archive}
+ * em autocommit: a cópia e a remoção são atômicas e os locks duram só o lote.
+ * Roda em todos os nós; READPAST faz réplicas concorrentes pularem as linhas
+ * uma da outra em vez de esperar. Só existe com o store SQL; o LocalJobStore
+ * aplica a mesma retenção ao compactar o journal.
+ * <p>
+ * O arquivo precisa ter todas as colunas da tabela quente: coluna nova em
+ * app.automation_job entra numa migration do arquivo e em {@link #ARCHIVED_COLUMNS}.
+ * Na primeira execução o schema é conferido; havendo coluna de fora, o
+ * arquivamento não roda (o DELETE perderia os dados dela).
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.jobs", name = "store", havingValue = "sql", matchIfMissing = true)
+public class JobArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(JobArchiver.class);
+
+    // colunas copiadas para o arquivo (V16); manter igual à tabela quente
+    static final List<String> ARCHIVED_COLUMNS = List.of(
+            "id", "uuid", "type", "status", "priority", "attempts", "payload", "error_message",
+            "idempotency_key", "locked_by", "lease_expires_at", "scheduled_at", "next_attempt_at",
+            "pending_dependencies", "cancel_requested", "progress_processed", "progress_total",
+            "progress_updated_at", "checkpoint_row", "started_at", "finished_at", "created_at",
+            "updated_at");
+
+    private static final String ARCHIVE_SQL = """
+        DELETE TOP (?) FROM app.automation_job WITH (ROWLOCK, READPAST)
+        OUTPUT %s, SYSUTCDATETIME()
+        INTO app.automation_job_archive (%s, archived_at)
+        WHERE type = ?
+          AND finished_at < ?
+          AND status IN ('SUCCESS', 'FAILED', 'CANCELLED', 'DEAD_LETTER')
+        """.formatted(
+            ARCHIVED_COLUMNS.stream().map(c -> "deleted." + c).collect(Collectors.joining(", ")),
+            String.join(", ", ARCHIVED_COLUMNS));
+
+    // colunas da tabela quente que não chegariam ao arquivo
+    private static final String MISSING_COLUMNS_SQL = """
+        SELECT c.name FROM sys.columns c
+        WHERE c.object_id = OBJECT_ID('app.automation_job')
+          AND NOT EXISTS (SELECT 1 FROM sys.columns a
+                          WHERE a.object_id = OBJECT_ID('app.automation_job_archive') AND a.name = c.name)
+        """;
+
+    private static final String PURGE_SQL = """
+        DELETE TOP (?) FROM app.automation_job_archive WITH (ROWLOCK, READPAST)
+        WHERE archived_at < ?
+        """;
+
+    // vínculos de dependência cujo filho já saiu da tabela quente
+    private static final String ORPHAN_LINKS_SQL = """
+        DELETE TOP (?) d FROM app.automation_job_dependency d
+        WHERE NOT EXISTS (SELECT 1 FROM app.automation_job j WHERE j.id = d.job_id)
+        """;
+
+    private final JdbcTemplate jdbc;
+    private final JobRetentionProperties retention;
+    private final Map<JobType, Counter> archived = new EnumMap<>(JobType.class);
+    private final Counter purged;
+    private volatile Boolean schemaInSync;
+
+    public JobArchiver(JdbcTemplate jdbc, AutomationJobProperties properties, MeterRegistry registry) {
+        this.jdbc = jdbc;
+        this.retention = properties.getRetention();
+        for (JobType type : JobType.values()) {
+            archived.put(type, Counter.builder("docflow.jobs.archived")
+                    .description("Jobs finalizados movidos para o arquivo")
+                    .tag("type", type.name())
+                    .register(registry));
+        }
+        this.purged = Counter.builder("docflow.jobs.archive.purged")
+                .description("Jobs expurgados do arquivo")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.retention.interval-ms:600000}", initialDelay = 60000L)
+    public void run() {
+        if (!retention.isEnabled() || !archiveSchemaInSync()) return;
+        long deadline = System.nanoTime() + retention.getMaxRunTime().toNanos();
+        try {
+            for (JobType type : JobType.values()) {
+                LocalDateTime cutoff = utcNowMinus(retention.archiveAfterFor(type));
+                long started = System.nanoTime();
+                long moved = drain(ARCHIVE_SQL, deadline, type.name(), cutoff);
+                if (moved > 0) {
+                    archived.get(type).increment(moved);
+                    log.info("Retenção: {} job(s) {} arquivado(s) ({} linhas/s)",
+                            moved, type, rowsPerSecond(moved, System.nanoTime() - started));
+                }
+            }
+            drain(ORPHAN_LINKS_SQL, deadline);
+            if (retention.getPurgeArchivedAfter() != null) {
+                long started = System.nanoTime();
+                long removed = drain(PURGE_SQL, deadline, utcNowMinus(retention.getPurgeArchivedAfter()));
+                if (removed > 0) {
+                    purged.increment(removed);
+                    log.info("Retenção: {} job(s) expurgado(s) do arquivo ({} linhas/s)",
+                            removed, rowsPerSecond(removed, System.nanoTime() - started));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Falha na rotina de retenção de jobs: {}", e.getMessage(), e);
+        }
+    }
+
+    /** Confere uma vez se o arquivo e ARCHIVED_COLUMNS cobrem todas as colunas da tabela quente. */
+    private boolean archiveSchemaInSync() {
+        if (schemaInSync == null) {
+            Set<String> missing = new TreeSet<>(jdbc.queryForList(MISSING_COLUMNS_SQL, String.class));
+            for (String column : jdbc.queryForList(
+                    "SELECT name FROM sys.columns WHERE object_id = OBJECT_ID('app.automation_job')", String.class)) {
+                if (!ARCHIVED_COLUMNS.contains(column)) missing.add(column);
+            }
+            if (!missing.isEmpty()) {
+                log.error("Retenção desligada: colunas de app.automation_job fora do arquivo {}", missing);
+            }
+            schemaInSync = missing.isEmpty();
+        }
+        return schemaInSync;
+    }
+
+    /** Repete o DELETE em lotes até esvaziar o intervalo ou estourar o tempo da execução. */
+    private long drain(String sql, long deadline, Object... filters) throws InterruptedException {
+        int batchSize = retention.getBatchSize();
+        Object[] args = new Object[filters.length + 1];
+        args[0] = batchSize;
+        System.arraycopy(filters, 0, args, 1, filters.length);
+
+        long total = 0;
+        while (System.nanoTime() < deadline) {
+            int rows = jdbc.update(sql, args);
+            total += rows;
+            if (rows < batchSize) break;
+            if (retention.getBatchPauseMs() > 0) Thread.sleep(retention.getBatchPauseMs());
+        }
+        return total;
+    }
+
+    // colunas DATETIME2 guardam UTC (hibernate.jdbc.time_zone)
+    private static LocalDateTime utcNowMinus(Duration age) {
+        return LocalDateTime.now(ZoneOffset.UTC).minus(age);
+    }
+
+    private static long rowsPerSecond(long rows, long nanos) {
+        return nanos <= 0 ? rows : Math.round(rows * 1_000_000_000d / nanos);
+    }
+}
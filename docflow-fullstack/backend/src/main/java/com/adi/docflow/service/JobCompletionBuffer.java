@@ -0,0 +1,102 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.job.JobCompletion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Acumula as finalizações dos workers e grava em lote via
+ * {@link AutomationJobService#completeAll}: a cada N jobs ou a cada X ms,
+ * o que vier primeiro.
+ */
+@Component
+public class JobCompletionBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(JobCompletionBuffer.class);
+
+    private final AutomationJobService service;
+    private final AutomationJobProperties properties;
+
+    private final ConcurrentLinkedQueue<JobCompletion> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final DistributionSummary batchSizes;
+    private final Counter flushFailures;
+
+    public JobCompletionBuffer(AutomationJobService service,
+                               AutomationJobProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.service = service;
+        this.properties = properties;
+        this.batchSizes = DistributionSummary.builder("docflow.jobs.completion.flush.size")
+                .description("Finalizações de jobs gravadas por flush")
+                .baseUnit("jobs")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("docflow.jobs.completion.flush.failures")
+                .description("Flushes de finalizações que falharam e foram reenfileirados")
+                .register(meterRegistry);
+        meterRegistry.gauge("docflow.jobs.completion.pending", size);
+    }
+
+    public void add(JobCompletion completion) {
+        pending.add(completion);
+        if (size.incrementAndGet() >= properties.getCompletionFlushSize() && flushLock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.completion-flush-interval-ms:250}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void drain() {
+        int max = properties.getCompletionFlushSize();
+        while (!pending.isEmpty()) {
+            List<JobCompletion> batch = new ArrayList<>(max);
+            JobCompletion c;
+            while (batch.size() < max && (c = pending.poll()) != null) {
+                batch.add(c);
+            }
+            size.addAndGet(-batch.size());
+            try {
+                int written = service.completeAll(batch);
+                batchSizes.record(batch.size());
+                if (written < batch.size()) {
+                    // o UPDATE é condicionado a RUNNING + locked_by deste nó: o resto perdeu a lease no meio do caminho
+                    log.warn("{} de {} finalizações ignoradas: os jobs já não pertenciam a este nó",
+                            batch.size() - written, batch.size());
+                }
+            } catch (Exception e) {
+                // mantém os itens para a próxima tentativa
+                pending.addAll(batch);
+                size.addAndGet(batch.size());
+                flushFailures.increment();
+                log.error("Falha ao gravar {} finalizações de jobs: {}", batch.size(), e.getMessage(), e);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dependências entre jobs (app.automation_job_dependency). Cada filho guarda em
+ * {@code pending_dependencies} quantos pais ainda não terminaram; quando pais
+ * terminam em SUCCESS um único UPDATE por bloco decrementa o contador dos
+ * filhos e passa para QUEUED os que zeraram. Pai que termina em falha cancela
+ * toda a descendência ainda BLOCKED. Sempre chamado dentro da transação do
+ * SqlJobStore.
+ */
+@Component
+class JobDependencies {
+
+    // SQL Server aceita até 2100 parâmetros por comando
+    private static final int IDS_PER_STATEMENT = 2000;
+
+    static final Set<JobStatus> FAILED_TERMINAL =
+            EnumSet.of(JobStatus.FAILED, JobStatus.CANCELLED, JobStatus.DEAD_LETTER);
+
+    /** Pai resolvido na criação de um filho. */
+    record Parent(Long id, JobStatus status) {}
+
+    /** Vínculo filho -> pai; o filho é localizado pelo UUID (serve para inserts em batch). */
+    record Link(String childUuid, Long parentId) {}
+
+    private final JdbcTemplate jdbc;
+
+    JobDependencies(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Busca os pais por UUID com UPDLOCK: até o commit do filho nenhum pai pode
+     * ser finalizado, então a liberação nunca passa antes de o vínculo existir.
+     */
+    Map<String, Parent> lockParents(Collection<String> uuids) {
+        Map<String, Parent> parents = new HashMap<>();
+        List<String> list = new ArrayList<>(uuids);
+        for (int from = 0; from < list.size(); from += IDS_PER_STATEMENT) {
+            List<String> chunk = list.subList(from, Math.min(from + IDS_PER_STATEMENT, list.size()));
+            String sql = "SELECT uuid, id, status FROM app.automation_job WITH (UPDLOCK, ROWLOCK) WHERE uuid IN ("
+                    + placeholders(chunk.size()) + ")";
+            jdbc.query(sql, rs -> {
+                parents.put(rs.getString("uuid"),
+                        new Parent(rs.getLong("id"), JobStatus.valueOf(rs.getString("status"))));
+            }, chunk.toArray());
+        }
+        return parents;
+    }
+
+    /** Grava os vínculos de filhos recém-criados, em JDBC batch. */
+    void link(List<Link> links) {
+        if (links.isEmpty()) return;
+        List<Object[]> rows = new ArrayList<>(links.size());
+        for (Link link : links) rows.add(new Object[]{link.parentId(), link.childUuid()});
+        jdbc.batchUpdate("""
+            INSERT INTO app.automation_job_dependency (job_id, depends_on_id)
+            SELECT j.id, ? FROM app.automation_job j WHERE j.uuid = ?
+            """, rows);
+    }
+
+    /**
+     * Pais que terminaram em SUCCESS: decrementa os filhos BLOCKED e libera
+     * (QUEUED) os que não esperam mais ninguém.
+     * @return tipos dos jobs liberados, para acordar o dispatcher
+     */
+    Set<JobType> release(Collection<Long> succeededIds) {
+        Set<JobType> released = EnumSet.noneOf(JobType.class);
+        List<Long> ids = new ArrayList<>(succeededIds);
+        for (int from = 0; from < ids.size(); from += IDS_PER_STATEMENT) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IDS_PER_STATEMENT, ids.size()));
+            String sql = """
+                UPDATE c
+                   SET c.pending_dependencies = c.pending_dependencies - d.cnt,
+                       c.status = CASE WHEN c.pending_dependencies - d.cnt <= 0 THEN 'QUEUED' ELSE c.status END,
+                       c.updated_at = SYSDATETIMEOFFSET()
+                OUTPUT inserted.type, inserted.status
+                FROM app.automation_job c
+                JOIN (SELECT job_id, COUNT(*) AS cnt
+                        FROM app.automation_job_dependency
+                       WHERE depends_on_id IN (%s)
+                       GROUP BY job_id) d ON c.id = d.job_id
+                WHERE c.status = 'BLOCKED'
+                """.formatted(placeholders(chunk.size()));
+            jdbc.query(sql, rs -> {
+                if ("QUEUED".equals(rs.getString("status"))) released.add(JobType.valueOf(rs.getString("type")));
+            }, chunk.toArray());
+        }
+        return released;
+    }
+
+    /**
+     * Pais que terminaram sem sucesso: cancela a descendência ainda BLOCKED
+     * nível a nível. Cada UPDATE...OUTPUT cancela os filhos BLOCKED da fronteira
+     * e devolve os ids que viram a próxima fronteira, até nenhuma linha mudar.
+     * Como só linhas BLOCKED são atualizadas, cada job entra uma vez só, mesmo
+     * alcançado por vários caminhos (losangos encadeados): o custo é linear em
+     * vínculos, não em caminhos. Abaixo de um job que já terminou não se desce.
+     * @return quantidade de jobs cancelados
+     */
+    int cancelDescendants(Collection<Long> failedIds) {
+        int cancelled = 0;
+        List<Long> frontier = new ArrayList<>(failedIds);
+        while (!frontier.isEmpty()) {
+            List<Long> next = new ArrayList<>();
+            for (int from = 0; from < frontier.size(); from += IDS_PER_STATEMENT) {
+                List<Long> chunk = frontier.subList(from, Math.min(from + IDS_PER_STATEMENT, frontier.size()));
+                String sql = """
+                    UPDATE j
+                       SET j.status = 'CANCELLED',
+                           j.error_message = 'Cancelado: uma dependência não terminou com sucesso',
+                           j.finished_at = SYSUTCDATETIME(),
+                           j.updated_at = SYSDATETIMEOFFSET()
+                    OUTPUT inserted.id
+                    FROM app.automation_job j
+                    WHERE j.status = 'BLOCKED'
+                      AND j.id IN (SELECT d.job_id FROM app.automation_job_dependency d
+                                    WHERE d.depends_on_id IN (%s))
+                    """.formatted(placeholders(chunk.size()));
+                next.addAll(jdbc.queryForList(sql, Long.class, chunk.toArray()));
+            }
+            cancelled += next.size();
+            frontier = next;
+        }
+        return cancelled;
+    }
+
+    private static String placeholders(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.adi.docflow.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sinal de "há trabalho" para o dispatcher. Vários sinais antes de o
+ * dispatcher acordar se fundem em um só.
+ */
+class JobDispatchSignal {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private boolean pending;
+
+    void signal() {
+        lock.lock();
+        try {
+            pending = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Espera até {@code timeoutMs} ou até um sinal, o que vier primeiro.
+     * @return true se acordou por sinal
+     */
+    boolean await(long timeoutMs) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (!pending && remaining > 0) {
+                remaining = changed.awaitNanos(remaining);
+            }
+            boolean signalled = pending;
+            pending = false;
+            return signalled;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
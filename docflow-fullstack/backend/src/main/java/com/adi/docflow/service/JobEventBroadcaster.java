@@ -0,0 +1,124 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.job.JobProgress;
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.model.AutomationJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Assinaturas SSE por job. Progresso de jobs que rodam neste nó é empurrado na
+ * hora pelo runner; uma varredura única no banco (um SELECT para todos os
+ * assinantes) cobre jobs de outros nós e a transição para o estado final.
+ */
+@Component
+public class JobEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(JobEventBroadcaster.class);
+
+    static final String EVENT_PROGRESS = "progress";
+    static final String EVENT_FINISHED = "finished";
+
+    private final JobStore store;
+    private final Map<String, CopyOnWriteArrayList<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    // último estado enviado por job, para não repetir eventos iguais
+    private final Map<String, JobProgress> lastSent = new ConcurrentHashMap<>();
+
+    public JobEventBroadcaster(JobStore store) {
+        this.store = store;
+    }
+
+    /** Registra o emitter e envia o estado atual; se o job já terminou, fecha o stream. */
+    public void subscribe(AutomationJob job, SseEmitter emitter) {
+        String uuid = job.getUuid();
+        JobProgress current = snapshot(job);
+        if (current.isFinal()) {
+            send(emitter, EVENT_FINISHED, current);
+            emitter.complete();
+            return;
+        }
+        subscribers.computeIfAbsent(uuid, k -> new CopyOnWriteArrayList<>()).add(emitter);
+        Runnable remove = () -> unsubscribe(uuid, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        send(emitter, EVENT_PROGRESS, current);
+    }
+
+    /** Progresso vindo de um worker local. */
+    void publish(JobProgress progress) {
+        List<SseEmitter> emitters = subscribers.get(progress.uuid());
+        if (emitters == null || sameState(lastSent.put(progress.uuid(), progress), progress)) return;
+        String event = progress.isFinal() ? EVENT_FINISHED : EVENT_PROGRESS;
+        for (SseEmitter emitter : emitters) {
+            if (send(emitter, event, progress) && progress.isFinal()) emitter.complete();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.sse-poll-interval-ms:1000}")
+    public void poll() {
+        if (subscribers.isEmpty()) return;
+        try {
+            for (AutomationJob job : store.findByUuids(List.copyOf(subscribers.keySet()))) {
+                publish(snapshot(job));
+            }
+        } catch (Exception e) {
+            log.warn("Falha ao consultar jobs com assinantes SSE: {}", e.getMessage());
+        }
+    }
+
+    static JobProgress snapshot(AutomationJob job) {
+        return new JobProgress(job.getUuid(), job.getStatus(), job.getProgressProcessed(),
+                job.getProgressTotal(), eta(job.getStatus(), job.getStartedAt(),
+                        job.getProgressProcessed(), job.getProgressTotal()),
+                job.getErrorMessage());
+    }
+
+    static Long eta(JobStatus status, OffsetDateTime startedAt, Long processed, Long total) {
+        if (status != JobStatus.RUNNING || startedAt == null || processed == null || total == null
+                || processed <= 0 || total < processed) return null;
+        long elapsedMs = Duration.between(startedAt, OffsetDateTime.now()).toMillis();
+        return Math.max(0L, Math.round(elapsedMs / 1000d / processed * (total - processed)));
+    }
+
+    // ETA muda a cada leitura; só status e contadores contam como mudança
+    private static boolean sameState(JobProgress a, JobProgress b) {
+        return a != null && a.status() == b.status()
+                && Objects.equals(a.processed(), b.processed())
+                && Objects.equals(a.total(), b.total());
+    }
+
+    private void unsubscribe(String uuid, SseEmitter emitter) {
+        subscribers.computeIfPresent(uuid, (k, list) -> {
+            list.remove(emitter);
+            if (list.isEmpty()) {
+                lastSent.remove(uuid);
+                return null;
+            }
+            return list;
+        });
+    }
+
+    private static boolean send(SseEmitter emitter, String event, JobProgress data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // cliente desconectou; onError/onCompletion removem a assinatura
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.model.AutomationJob;
+import com.adi.docflow.service.processor.JobContext;
+
+/**
+ * Job em execução neste nó: guarda a thread do worker para que cancelamento
+ * e timeout possam interrompê-la, e serve de {@link JobContext} para o
+ * processor. A interrupção é cooperativa; o processor precisa responder a
+ * {@link InterruptedException} ou checar {@link #isStopRequested()}.
+ */
+class JobExecution implements JobContext {
+
+    enum StopReason {
+        CANCELLED,
+        TIMEOUT,
+        LEASE_LOST // o job foi recolhido pelo reaper; outro nó pode já estar executando
+    }
+
+    /** Recebe o progresso já filtrado pelo throttle (gravação no banco + SSE). */
+    @FunctionalInterface
+    interface ProgressSink {
+        void flush(JobExecution execution, long processed, long total);
+    }
+
+    private final AutomationJob job;
+    private final long deadlineNanos; // Long.MAX_VALUE = sem timeout
+    private final ProgressSink progressSink;
+    private final long flushEveryItems;
+    private final long flushIntervalNanos;
+
+    private Thread worker;
+    private volatile StopReason stopReason;
+
+    // progresso: só a thread do worker escreve
+    private long lastFlushedProcessed = -1;
+    private long lastFlushNanos;
+
+    JobExecution(AutomationJob job, long deadlineNanos, ProgressSink progressSink,
+                 long flushEveryItems, long flushIntervalNanos) {
+        this.job = job;
+        this.deadlineNanos = deadlineNanos;
+        this.progressSink = progressSink;
+        this.flushEveryItems = flushEveryItems;
+        this.flushIntervalNanos = flushIntervalNanos;
+    }
+
+    AutomationJob getJob() { return job; }
+
+    StopReason getStopReason() { return stopReason; }
+
+    boolean isPastDeadline(long nowNanos) {
+        return deadlineNanos != Long.MAX_VALUE && nowNanos - deadlineNanos > 0;
+    }
+
+    @Override
+    public void reportProgress(long processed, long total) {
+        long now = System.nanoTime();
+        boolean first = lastFlushedProcessed < 0;
+        boolean done = total >= 0 && processed >= total;
+        if (first || done
+                || processed - lastFlushedProcessed >= flushEveryItems
+                || now - lastFlushNanos >= flushIntervalNanos) {
+            lastFlushedProcessed = processed;
+            lastFlushNanos = now;
+            progressSink.flush(this, processed, total);
+        }
+    }
+
+    @Override
+    public boolean isStopRequested() {
+        return stopReason != null || Thread.currentThread().isInterrupted();
+    }
+
+    synchronized void attach(Thread thread) {
+        this.worker = thread;
+        // pedido chegou antes de o worker começar
+        if (stopReason != null) thread.interrupt();
+    }
+
+    /**
+     * Desvincula a thread ao fim do job e limpa a flag de interrupção, para que
+     * um stop atrasado não atinja o próximo job da mesma thread do pool.
+     */
+    synchronized void detach() {
+        worker = null;
+        Thread.interrupted();
+    }
+
+    /** @return false se já havia um stop pedido (o primeiro motivo prevalece) */
+    synchronized boolean stop(StopReason reason) {
+        if (stopReason != null) return false;
+        stopReason = reason;
+        if (worker != null) worker.interrupt();
+        return true;
+    }
+}
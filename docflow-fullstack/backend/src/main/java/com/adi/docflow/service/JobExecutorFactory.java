@@ -0,0 +1,14 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.job.JobType;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Cria o executor que roda os jobs de um JobType.
+ * A implementação é definida em SchedulingConfig.
+ */
+@FunctionalInterface
+public interface JobExecutorFactory {
+    ExecutorService create(JobType type, int concurrency);
+}
@@ -0,0 +1,354 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobType;
+import com.adi.docflow.model.AutomationJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Journal append-only do LocalJobStore, num arquivo mapeado em memória.
+ * <p>
+ * Cada registro é {@code [int tamanho][int crc32][corpo]}; um tamanho zero
+ * marca o fim. O corpo é um snapshot completo do job ({@link #JOB}) ou só o
+ * progresso ({@link #PROGRESS}); na leitura, o último registro de cada id vale.
+ * Uma escrita interrompida no meio falha no CRC e encerra a leitura ali.
+ * Sem fsync, a escrita vai para o page cache: sobrevive à morte do processo,
+ * não necessariamente à do SO.
+ * <p>
+ * Não é thread-safe; o LocalJobStore serializa o acesso.
+ */
+final class JobJournal implements Closeable {
+
+    static final byte JOB = 1;
+    static final byte PROGRESS = 2;
+
+    private static final Logger log = LoggerFactory.getLogger(JobJournal.class);
+
+    private static final int HEADER = 8;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    private final Path file;
+    private final boolean fsync;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    /** Registro lido na reaplicação. */
+    record Entry(byte kind, AutomationJob job, long[] parents,
+                 long jobId, long processed, Long total, OffsetDateTime at) {}
+
+    JobJournal(Path file, boolean fsync) {
+        this.file = file;
+        this.fsync = fsync;
+    }
+
+    /** Abre (ou cria) o arquivo e entrega cada registro válido, em ordem. */
+    void replay(long capacity, Consumer<Entry> consumer) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        map(file, Math.max(capacity, Files.exists(file) ? Files.size(file) : 0));
+        while (buffer.remaining() >= HEADER) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int crc = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            byte[] body = new byte[length];
+            buffer.get(body);
+            if (crc(body) != crc) {
+                buffer.position(start);
+                break;
+            }
+            consumer.accept(decode(ByteBuffer.wrap(body)));
+        }
+    }
+
+    /** @return false se não há espaço; o chamador compacta e tenta de novo */
+    boolean append(byte[] body) {
+        if (!write(buffer, body)) return false;
+        if (fsync) buffer.force();
+        return true;
+    }
+
+    long used() {
+        return buffer.position();
+    }
+
+    /**
+     * Troca o journal por um novo só com {@code records}, escrito ao lado e
+     * movido por cima do atual (atômico no mesmo diretório). O mapeamento
+     * atual só é fechado depois que o novo arquivo foi gravado e forçado: se
+     * algo falha antes disso o journal segue como estava; se o move falha, o
+     * arquivo antigo é mapeado de novo.
+     */
+    void rewrite(List<byte[]> records, long capacity) throws IOException {
+        long needed = HEADER;
+        for (byte[] r : records) needed += HEADER + r.length;
+        long size = checkedCapacity(Math.max(capacity, needed));
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        int position;
+        try (FileChannel out = open(tmp)) {
+            MappedByteBuffer next = out.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            try {
+                for (byte[] r : records) write(next, r);
+                next.force();
+                position = next.position();
+            } finally {
+                unmap(next);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+
+        // no Windows o move exige o arquivo atual sem mapeamento
+        int livePosition = buffer.position();
+        close();
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            map(file, Files.size(file));
+            buffer.position(livePosition);
+            throw e;
+        }
+        map(file, Files.size(file));
+        buffer.position(position);
+    }
+
+    /**
+     * Força e desfaz o mapeamento na hora, em vez de esperar o GC do buffer:
+     * sem isso cada compactação deixa o mapeamento antigo vivo (memória
+     * virtual e, no Windows, o arquivo travado para o move do rewrite).
+     */
+    @Override
+    public void close() throws IOException {
+        MappedByteBuffer mapped = buffer;
+        buffer = null;
+        if (mapped != null) {
+            mapped.force();
+            unmap(mapped);
+        }
+        if (channel != null) channel.close();
+        channel = null;
+    }
+
+    // sun.misc.Unsafe.invokeCleaner (jdk.unsupported); sem ele, o mapeamento fica para o GC
+    private static void unmap(MappedByteBuffer mapped) {
+        if (INVOKE_CLEANER == null) return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, mapped);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Não foi possível desfazer o mapeamento do journal de jobs: {}", e.toString());
+        }
+    }
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = type.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("sun.misc.Unsafe indisponível; o journal de jobs não desfaz mapeamentos: {}", e.toString());
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private void map(Path path, long capacity) throws IOException {
+        long size = checkedCapacity(capacity);
+        channel = open(path);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static long checkedCapacity(long capacity) throws IOException {
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("Journal de jobs maior que 2 GB; reduza a retenção");
+        }
+        return capacity;
+    }
+
+    /** @return false se o registro não cabe no espaço restante */
+    private static boolean write(MappedByteBuffer target, byte[] body) {
+        if (target.remaining() < HEADER + body.length) return false;
+        int start = target.position();
+        target.position(start + HEADER);
+        target.put(body);
+        // tamanho por último: um registro só é visível depois de completo
+        target.putInt(start + 4, crc(body));
+        target.putInt(start, body.length);
+        return true;
+    }
+
+    // ============================== CODEC ==============================
+
+    static byte[] encodeJob(AutomationJob job, long[] parents) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(JOB);
+            out.writeLong(job.getId());
+            writeString(out, job.getUuid());
+            writeString(out, job.getType().name());
+            writeString(out, job.getStatus().name());
+            writeString(out, job.getPayload());
+            writeString(out, job.getErrorMessage());
+            writeString(out, job.getIdempotencyKey());
+            writeString(out, job.getLockedBy());
+            out.writeInt(job.getPriority());
+            out.writeInt(job.getAttempts());
+            out.writeInt(job.getPendingDependencies());
+            out.writeBoolean(job.isCancelRequested());
+            writeLong(out, job.getProgressProcessed());
+            writeLong(out, job.getProgressTotal());
+            writeLong(out, job.getCheckpointRow());
+            writeTime(out, job.getLeaseExpiresAt());
+            writeTime(out, job.getScheduledAt());
+            writeTime(out, job.getNextAttemptAt());
+            writeTime(out, job.getProgressUpdatedAt());
+            writeTime(out, job.getStartedAt());
+            writeTime(out, job.getFinishedAt());
+            writeTime(out, job.getCreatedAt());
+            writeTime(out, job.getUpdatedAt());
+            out.writeInt(parents.length);
+            for (long p : parents) out.writeLong(p);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] encodeProgress(long jobId, long processed, Long total, OffsetDateTime at) {
+        ByteBuffer b = ByteBuffer.allocate(1 + 8 + 8 + 9 + 12);
+        b.put(PROGRESS).putLong(jobId).putLong(processed);
+        b.put((byte) (total == null ? 0 : 1)).putLong(total == null ? 0 : total);
+        Instant i = at.toInstant();
+        b.putLong(i.getEpochSecond()).putInt(i.getNano());
+        return b.array();
+    }
+
+    private static Entry decode(ByteBuffer in) {
+        byte kind = in.get();
+        if (kind == PROGRESS) {
+            long id = in.getLong();
+            long processed = in.getLong();
+            boolean hasTotal = in.get() == 1;
+            long total = in.getLong();
+            OffsetDateTime at = OffsetDateTime.ofInstant(Instant.ofEpochSecond(in.getLong(), in.getInt()), ZoneOffset.UTC);
+            return new Entry(kind, null, null, id, processed, hasTotal ? total : null, at);
+        }
+        AutomationJob job = new AutomationJob();
+        job.setId(in.getLong());
+        job.setUuid(readString(in));
+        job.setType(JobType.valueOf(readString(in)));
+        job.setStatus(JobStatus.valueOf(readString(in)));
+        job.setPayload(readString(in));
+        job.setErrorMessage(readString(in));
+        job.setIdempotencyKey(readString(in));
+        job.setLockedBy(readString(in));
+        job.setPriority(in.getInt());
+        job.setAttempts(in.getInt());
+        job.setPendingDependencies(in.getInt());
+        job.setCancelRequested(in.get() != 0);
+        job.setProgressProcessed(readLong(in));
+        job.setProgressTotal(readLong(in));
+        job.setCheckpointRow(readLong(in));
+        job.setLeaseExpiresAt(readTime(in));
+        job.setScheduledAt(readTime(in));
+        job.setNextAttemptAt(readTime(in));
+        job.setProgressUpdatedAt(readTime(in));
+        job.setStartedAt(readTime(in));
+        job.setFinishedAt(readTime(in));
+        job.setCreatedAt(readTime(in));
+        job.setUpdatedAt(readTime(in));
+        long[] parents = new long[in.getInt()];
+        for (int i = 0; i < parents.length; i++) parents[i] = in.getLong();
+        return new Entry(kind, job, parents, job.getId(), 0, null, null);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        out.writeLong(value == null ? 0 : value);
+    }
+
+    private static Long readLong(ByteBuffer in) {
+        boolean present = in.get() != 0;
+        long value = in.getLong();
+        return present ? value : null;
+    }
+
+    private static void writeTime(DataOutputStream out, OffsetDateTime value) throws IOException {
+        if (value == null) {
+            out.writeLong(NULL_TIME);
+            out.writeInt(0);
+            return;
+        }
+        Instant i = value.toInstant();
+        out.writeLong(i.getEpochSecond());
+        out.writeInt(i.getNano());
+    }
+
+    private static OffsetDateTime readTime(ByteBuffer in) {
+        long seconds = in.getLong();
+        int nanos = in.getInt();
+        return seconds == NULL_TIME ? null : OffsetDateTime.ofInstant(Instant.ofEpochSecond(seconds, nanos), ZoneOffset.UTC);
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
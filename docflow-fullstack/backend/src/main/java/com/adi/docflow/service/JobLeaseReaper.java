@@ -0,0 +1,34 @@
+package com.adi.docflow.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recupera jobs RUNNING cujo dono parou de mandar heartbeat (JVM morta,
+ * restart no meio da execução). Roda em todos os nós; o UPDATE é idempotente.
+ */
+@Component
+public class JobLeaseReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(JobLeaseReaper.class);
+
+    private final AutomationJobService service;
+
+    public JobLeaseReaper(AutomationJobService service) {
+        this.service = service;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.reaper-interval-ms:30000}", initialDelay = 10000L)
+    public void reap() {
+        try {
+            int reaped = service.reapExpiredLeases();
+            if (reaped > 0) {
+                log.warn("{} job(s) com lease expirada devolvido(s) à fila", reaped);
+            }
+        } catch (Exception e) {
+            log.error("Falha ao recuperar jobs com lease expirada: {}", e.getMessage(), e);
+        }
+    }
+}
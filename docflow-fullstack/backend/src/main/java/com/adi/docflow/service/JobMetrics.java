@@ -0,0 +1,119 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métricas do pipeline de jobs por JobType, expostas em /actuator/prometheus:
+ * <ul>
+ *   <li>{@code docflow.jobs.queue.wait}: de quando a tentativa venceu até o claim</li>
+ *   <li>{@code docflow.jobs.execution}: duração de {@code processor.process(job)}</li>
+ *   <li>{@code docflow.jobs.outcome}: contagem por resultado (success, retry, dead_letter, failed, cancelled)</li>
+ *   <li>{@code docflow.jobs.backlog}: jobs BLOCKED/QUEUED/RUNNING no banco, atualizado periodicamente</li>
+ * </ul>
+ * Os timers publicam histograma para calcular percentis no Prometheus.
+ */
+@Component
+public class JobMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(JobMetrics.class);
+    private static final List<JobStatus> BACKLOG_STATUSES = List.of(JobStatus.BLOCKED, JobStatus.QUEUED, JobStatus.RUNNING);
+
+    private final JobStore store;
+    private final Map<JobType, Timer> queueWait = new EnumMap<>(JobType.class);
+    private final Map<JobType, Timer> execution = new EnumMap<>(JobType.class);
+    private final Map<JobType, Map<JobStatus, Counter>> outcomes = new EnumMap<>(JobType.class);
+    private final Map<JobType, Map<JobStatus, AtomicLong>> backlog = new EnumMap<>(JobType.class);
+
+    public JobMetrics(JobStore store, MeterRegistry registry) {
+        this.store = store;
+        for (JobType type : JobType.values()) {
+            String tag = type.name();
+            queueWait.put(type, Timer.builder("docflow.jobs.queue.wait")
+                    .description("Espera na fila entre o vencimento da tentativa e o claim")
+                    .tag("type", tag)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(Duration.ofHours(1))
+                    .register(registry));
+            execution.put(type, Timer.builder("docflow.jobs.execution")
+                    .description("Tempo de execução do processor")
+                    .tag("type", tag)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(Duration.ofMinutes(30))
+                    .register(registry));
+
+            Map<JobStatus, Counter> byOutcome = new EnumMap<>(JobStatus.class);
+            for (JobStatus status : List.of(JobStatus.SUCCESS, JobStatus.QUEUED, JobStatus.DEAD_LETTER,
+                    JobStatus.FAILED, JobStatus.CANCELLED)) {
+                byOutcome.put(status, Counter.builder("docflow.jobs.outcome")
+                        .description("Execuções finalizadas por resultado")
+                        .tag("type", tag)
+                        .tag("outcome", outcomeTag(status))
+                        .register(registry));
+            }
+            outcomes.put(type, byOutcome);
+
+            Map<JobStatus, AtomicLong> byStatus = new EnumMap<>(JobStatus.class);
+            for (JobStatus status : BACKLOG_STATUSES) {
+                AtomicLong value = new AtomicLong();
+                registry.gauge("docflow.jobs.backlog",
+                        List.of(Tag.of("type", tag), Tag.of("status", status.name())),
+                        value);
+                byStatus.put(status, value);
+            }
+            backlog.put(type, byStatus);
+        }
+    }
+
+    /**
+     * Registra a espera de um job recém-reivindicado. O claim grava started_at e
+     * mantém next_attempt_at (= scheduled_at na primeira tentativa), então o
+     * backoff de um retry não conta como espera na fila.
+     */
+    void recordQueueWait(JobType type, OffsetDateTime dueAt, OffsetDateTime startedAt) {
+        if (dueAt == null || startedAt == null) return;
+        Duration wait = Duration.between(dueAt, startedAt);
+        queueWait.get(type).record(wait.isNegative() ? Duration.ZERO : wait);
+    }
+
+    void recordExecution(JobType type, long nanos) {
+        execution.get(type).record(Duration.ofNanos(nanos));
+    }
+
+    /** @param outcome status gravado na finalização (QUEUED = retry agendado) */
+    void recordOutcome(JobType type, JobStatus outcome) {
+        Counter counter = outcomes.get(type).get(outcome);
+        if (counter != null) counter.increment();
+    }
+
+    /** Atualiza o backlog com uma contagem agregada do store (um GROUP BY no SQL). */
+    @Scheduled(fixedDelayString = "${app.jobs.metrics-refresh-interval-ms:15000}", initialDelay = 5000L)
+    public void refreshBacklog() {
+        try {
+            Map<JobType, Map<JobStatus, Long>> counts = store.countByTypeAndStatus(BACKLOG_STATUSES);
+            backlog.forEach((type, byStatus) -> byStatus.forEach((status, value) ->
+                    value.set(counts.getOrDefault(type, Map.of()).getOrDefault(status, 0L))));
+        } catch (Exception e) {
+            log.warn("Falha ao atualizar backlog de jobs: {}", e.getMessage());
+        }
+    }
+
+    private static String outcomeTag(JobStatus status) {
+        return status == JobStatus.QUEUED ? "retry" : status.name().toLowerCase();
+    }
+}
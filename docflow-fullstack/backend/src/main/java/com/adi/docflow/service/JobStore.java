@@ -0,0 +1,75 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.job.BatchSubmission;
+import com.adi.docflow.job.CancelResult;
+import com.adi.docflow.job.JobCompletion;
+import com.adi.docflow.job.JobCursor;
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobSubmission;
+import com.adi.docflow.job.JobType;
+import com.adi.docflow.job.NewJob;
+import com.adi.docflow.model.AutomationJob;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Onde a fila de jobs vive. {@code app.jobs.store} escolhe a implementação:
+ * SQL (padrão; app.automation_job, várias réplicas) ou LOCAL (journal em
+ * disco + heap em memória, para instalações de um único nó).
+ * <p>
+ * O AutomationJobService delega tudo para cá; as implementações publicam
+ * {@code JobEnqueuedEvent}/{@code JobCancelRequestedEvent} como antes e
+ * devolvem entidades {@link AutomationJob} (gerenciadas ou não).
+ */
+public interface JobStore {
+
+    /** Cria o job, respeitando dependências e idempotency key; ver {@link NewJob}. */
+    JobSubmission submit(NewJob request);
+
+    /**
+     * Cria vários jobs de uma vez, tudo ou nada. O iterador pode ser lazy (lido
+     * do corpo da requisição); uma exceção lançada por ele desfaz o lote.
+     */
+    BatchSubmission createAll(Iterator<NewJob> jobs);
+
+    Optional<AutomationJob> findByUuid(String uuid);
+
+    List<AutomationJob> findByUuids(Collection<String> uuids);
+
+    /** Keyset por (scheduledAt, id) decrescente; devolve até {@code limit + 1} jobs. */
+    List<AutomationJob> search(JobType type, JobStatus status, OffsetDateTime from, OffsetDateTime to,
+                               JobCursor after, int limit);
+
+    /** Backlog por tipo e status, para as métricas. */
+    Map<JobType, Map<JobStatus, Long>> countByTypeAndStatus(Collection<JobStatus> statuses);
+
+    CancelResult cancel(String uuid);
+
+    /** @return false se o job já não é deste nó (lease perdida, finalizado) */
+    boolean updateProgress(Long jobId, long processed, Long total);
+
+    /**
+     * Grava o checkpoint de um job em execução neste nó.
+     * @throws IllegalStateException se o job já não é deste nó (lease perdida, finalizado)
+     */
+    void saveCheckpoint(Long jobId, long checkpointRow);
+
+    List<Long> findCancelRequested(Collection<Long> jobIds);
+
+    OffsetDateTime nextAttemptAt(Collection<JobType> types);
+
+    List<AutomationJob> claimPending(JobType type, int max, boolean fifo);
+
+    /** @return ids, dentre os informados, cuja lease ainda era deste nó e foi renovada */
+    Set<Long> extendLeases(Collection<Long> jobIds);
+
+    int reapExpiredLeases();
+
+    int completeAll(List<JobCompletion> completions);
+}
@@ -0,0 +1,85 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.job.JobType;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de workers de um único JobType.
+ * O semáforo limita quantos jobs do tipo estão em execução (no modo VIRTUAL é o
+ * único limite: o executor cria uma thread por job); o dispatcher só
+ * reivindica a quantidade de vagas livres, então a fila interna do executor nunca cresce.
+ */
+class JobWorkerPool {
+
+    private final JobType type;
+    private final int concurrency;
+    private final Semaphore slots;
+    private final ExecutorService executor;
+    private long claimRounds;
+
+    JobWorkerPool(JobType type, int concurrency, ExecutorService executor) {
+        this.type = type;
+        this.concurrency = concurrency;
+        this.slots = new Semaphore(concurrency);
+        this.executor = executor;
+    }
+
+    JobType getType() { return type; }
+
+    int getConcurrency() { return concurrency; }
+
+    /**
+     * Indica se a próxima rodada de claim deve ser FIFO pura: uma a cada
+     * {@code fifoEvery} rodadas, para que faixas de prioridade baixa avancem.
+     * Chamado apenas pela thread do dispatcher.
+     */
+    boolean nextRoundIsFifo(int fifoEvery) {
+        claimRounds++;
+        return fifoEvery > 0 && claimRounds % fifoEvery == 0;
+    }
+
+    /** Reserva até {@code max} vagas e devolve quantas conseguiu. */
+    int reserve(int max) {
+        int granted = Math.min(max, slots.availablePermits());
+        while (granted > 0 && !slots.tryAcquire(granted)) {
+            granted = Math.min(granted, slots.availablePermits());
+        }
+        return Math.max(granted, 0);
+    }
+
+    /** Sem vagas livres no momento. */
+    boolean isFull() {
+        return slots.availablePermits() == 0;
+    }
+
+    /** Devolve vagas reservadas que não foram usadas. */
+    void release(int count) {
+        if (count > 0) slots.release(count);
+    }
+
+    /** Executa a tarefa numa vaga previamente reservada; a vaga é liberada ao final. */
+    void submit(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    void shutdown(long timeoutSeconds) throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,752 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.config.JobRetentionProperties;
+import com.adi.docflow.config.LocalJobStoreProperties;
+import com.adi.docflow.job.BatchSubmission;
+import com.adi.docflow.job.CancelResult;
+import com.adi.docflow.job.JobCancelRequestedEvent;
+import com.adi.docflow.job.JobCompletion;
+import com.adi.docflow.job.JobCursor;
+import com.adi.docflow.job.JobEnqueuedEvent;
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobSubmission;
+import com.adi.docflow.job.JobType;
+import com.adi.docflow.job.NewJob;
+import com.adi.docflow.model.AutomationJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Fila de um único nó, sem banco: todo o estado fica em memória e cada
+ * mudança vai para um {@link JobJournal} mapeado em memória, reaplicado na
+ * subida. Enqueue, claim e finalização são operações em heap (TreeSet) sob um
+ * único lock, sem round-trip.
+ * <p>
+ * Por tipo, os jobs QUEUED ficam em {@code delayed} (ainda não vencidos, por
+ * nextAttemptAt) e, ao vencer, passam para {@code ready} (por prioridade) e
+ * {@code readyFifo} (por nextAttemptAt, para as rodadas anti-starvation).
+ * Todos os jobs ficam também em {@code byTypeStatus}, por (scheduledAt, id):
+ * listagem filtrada, contagem das métricas e reaper não varrem a fila inteira.
+ * <p>
+ * Limites: não pode haver mais de uma réplica apontando para o mesmo journal;
+ * jobs RUNNING encontrados na subida são tratados como lease expirada; leases
+ * e heartbeats só existem em memória. A retenção ({@code app.jobs.retention})
+ * é aplicada ao compactar o journal, na subida e quando o mapeamento enche.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.jobs", name = "store", havingValue = "local")
+class LocalJobStore implements JobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalJobStore.class);
+
+    private static final Comparator<AutomationJob> BY_NEXT_ATTEMPT =
+            Comparator.comparing(AutomationJob::getNextAttemptAt).thenComparing(AutomationJob::getId);
+    private static final Comparator<AutomationJob> BY_PRIORITY =
+            Comparator.comparing(AutomationJob::getPriority, Comparator.reverseOrder()).thenComparing(BY_NEXT_ATTEMPT);
+    private static final Comparator<AutomationJob> BY_SCHEDULE =
+            Comparator.comparing(AutomationJob::getScheduledAt).thenComparing(AutomationJob::getId);
+
+    private static final long[] NO_PARENTS = new long[0];
+
+    private final AutomationJobProperties properties;
+    private final LocalJobStoreProperties local;
+    private final ApplicationEventPublisher events;
+    private final JobJournal journal;
+
+    private final Map<Long, AutomationJob> jobs = new HashMap<>();
+    private final Map<String, AutomationJob> byUuid = new HashMap<>();
+    private final Map<String, AutomationJob> byIdempotencyKey = new HashMap<>();
+    private final Map<Long, long[]> parentsOf = new HashMap<>();
+    private final Map<Long, List<Long>> childrenOf = new HashMap<>();
+    private final NavigableSet<AutomationJob> bySchedule = new TreeSet<>(BY_SCHEDULE);
+    private final Map<JobType, Map<JobStatus, NavigableSet<AutomationJob>>> byTypeStatus = new EnumMap<>(JobType.class);
+    private final Map<JobType, TypeQueue> queues = new EnumMap<>(JobType.class);
+    private long nextId = 1;
+
+    /** Jobs QUEUED de um tipo; um job está em delayed ou nos dois ready, nunca em ambos. */
+    private static final class TypeQueue {
+        final TreeSet<AutomationJob> delayed = new TreeSet<>(BY_NEXT_ATTEMPT);
+        final TreeSet<AutomationJob> ready = new TreeSet<>(BY_PRIORITY);
+        final TreeSet<AutomationJob> readyFifo = new TreeSet<>(BY_NEXT_ATTEMPT);
+
+        void promote(OffsetDateTime now) {
+            while (!delayed.isEmpty() && !delayed.first().getNextAttemptAt().isAfter(now)) {
+                AutomationJob job = delayed.pollFirst();
+                ready.add(job);
+                readyFifo.add(job);
+            }
+        }
+
+        OffsetDateTime next() {
+            OffsetDateTime next = readyFifo.isEmpty() ? null : readyFifo.first().getNextAttemptAt();
+            if (!delayed.isEmpty() && (next == null || delayed.first().getNextAttemptAt().isBefore(next))) {
+                next = delayed.first().getNextAttemptAt();
+            }
+            return next;
+        }
+    }
+
+    LocalJobStore(AutomationJobProperties properties, ApplicationEventPublisher events) {
+        this.properties = properties;
+        this.local = properties.getLocal();
+        this.events = events;
+        this.journal = new JobJournal(local.getJournalDir().resolve("jobs.journal"), local.isFsync());
+        for (JobType type : JobType.values()) {
+            queues.put(type, new TypeQueue());
+            Map<JobStatus, NavigableSet<AutomationJob>> byStatus = new EnumMap<>(JobStatus.class);
+            for (JobStatus status : JobStatus.values()) byStatus.put(status, new TreeSet<>(BY_SCHEDULE));
+            byTypeStatus.put(type, byStatus);
+        }
+    }
+
+    /** Reaplica o journal, recupera jobs que estavam RUNNING e compacta. */
+    @PostConstruct
+    synchronized void open() throws IOException {
+        long start = System.nanoTime();
+        journal.replay(local.getSegmentSize().toBytes(), this::apply);
+        for (AutomationJob job : jobs.values()) {
+            index(job);
+            nextId = Math.max(nextId, job.getId() + 1);
+        }
+        int recovered = reap(OffsetDateTime.now(), true, new ArrayList<>());
+        compact();
+        log.info("Fila local: {} jobs carregados de {} em {} ms ({} recuperados de execução interrompida)",
+                jobs.size(), local.getJournalDir(), (System.nanoTime() - start) / 1_000_000, recovered);
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        journal.close();
+    }
+
+    // ============================== CRIAÇÃO ==============================
+
+    @Override
+    public JobSubmission submit(NewJob request) {
+        List<Object> pending = new ArrayList<>();
+        JobSubmission result;
+        synchronized (this) {
+            OffsetDateTime now = OffsetDateTime.now();
+            AutomationJob existing = idempotentHit(request.idempotencyKey(), now);
+            if (existing != null) return new JobSubmission(copy(existing), true);
+            long[] parents = resolveParents(request.dependsOn());
+            result = new JobSubmission(copy(insert(request, parents, now, pending)), false);
+        }
+        pending.forEach(events::publishEvent);
+        return result;
+    }
+
+    /**
+     * O journal não tem rollback: para manter o tudo ou nada o lote é lido
+     * inteiro antes de qualquer gravação (a fila deste store já vive no heap).
+     */
+    @Override
+    public BatchSubmission createAll(Iterator<NewJob> items) {
+        List<NewJob> requests = new ArrayList<>();
+        items.forEachRemaining(requests::add);
+        Map<JobType, JobEnqueuedEvent> firstDueByType = new EnumMap<>(JobType.class);
+        List<String> uuids = new ArrayList<>(requests.size());
+        int duplicates = 0;
+        synchronized (this) {
+            OffsetDateTime now = OffsetDateTime.now();
+            // tudo ou nada: valida as dependências do lote inteiro antes de gravar
+            List<long[]> parents = new ArrayList<>(requests.size());
+            for (NewJob request : requests) parents.add(resolveParents(request.dependsOn()));
+
+            Map<String, String> uuidByKey = new HashMap<>();
+            List<Object> pending = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                NewJob request = requests.get(i);
+                String key = request.idempotencyKey();
+                String existing = key == null ? null : uuidByKey.get(key);
+                if (existing == null && key != null) {
+                    AutomationJob hit = idempotentHit(key, now);
+                    if (hit != null) existing = hit.getUuid();
+                }
+                if (existing != null) {
+                    uuids.add(existing);
+                    duplicates++;
+                    continue;
+                }
+                AutomationJob job = insert(request, parents.get(i), now, pending);
+                if (key != null) uuidByKey.put(key, job.getUuid());
+                uuids.add(job.getUuid());
+            }
+            // o listener só acorda o dispatcher; um evento por tipo basta
+            for (Object event : pending) {
+                JobEnqueuedEvent e = (JobEnqueuedEvent) event;
+                firstDueByType.merge(e.type(), e, (a, b) -> a.scheduledAt().isAfter(b.scheduledAt()) ? b : a);
+            }
+        }
+        firstDueByType.values().forEach(events::publishEvent);
+        return new BatchSubmission(uuids, duplicates);
+    }
+
+    /** Job com a chave dentro da janela; fora dela, a chave é liberada para o novo job. */
+    private AutomationJob idempotentHit(String key, OffsetDateTime now) {
+        if (key == null) return null;
+        AutomationJob existing = byIdempotencyKey.get(key);
+        if (existing == null) return null;
+        if (!existing.getCreatedAt().isBefore(now.minus(properties.getIdempotencyWindow()))) return existing;
+        byIdempotencyKey.remove(key);
+        existing.setIdempotencyKey(null);
+        write(existing);
+        return null;
+    }
+
+    private long[] resolveParents(Collection<String> dependsOn) {
+        if (dependsOn.isEmpty()) return NO_PARENTS;
+        Set<String> unique = new LinkedHashSet<>(dependsOn);
+        long[] ids = new long[unique.size()];
+        int i = 0;
+        for (String uuid : unique) {
+            AutomationJob parent = byUuid.get(uuid);
+            if (parent == null) {
+                throw new IllegalArgumentException("Dependência não encontrada: " + uuid);
+            }
+            if (JobDependencies.FAILED_TERMINAL.contains(parent.getStatus())) {
+                throw new IllegalStateException("Dependência " + uuid + " já terminou com status " + parent.getStatus());
+            }
+            ids[i++] = parent.getId();
+        }
+        return ids;
+    }
+
+    private AutomationJob insert(NewJob request, long[] parents, OffsetDateTime now, List<Object> pending) {
+        int waiting = 0;
+        for (long parentId : parents) {
+            if (jobs.get(parentId).getStatus() != JobStatus.SUCCESS) waiting++;
+        }
+        AutomationJob job = new AutomationJob();
+        job.setId(nextId++);
+        job.setUuid(UUID.randomUUID().toString());
+        job.setType(request.type());
+        job.setStatus(waiting > 0 ? JobStatus.BLOCKED : JobStatus.QUEUED);
+        job.setPendingDependencies(waiting);
+        job.setPayload(request.payload());
+        job.setIdempotencyKey(request.idempotencyKey());
+        job.setScheduledAt(request.scheduledAt() != null ? request.scheduledAt() : now);
+        job.setNextAttemptAt(job.getScheduledAt());
+        job.setAttempts(0);
+        job.setPriority(request.priority() != null ? request.priority() : AutomationJob.DEFAULT_PRIORITY);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        if (parents.length > 0) parentsOf.put(job.getId(), parents);
+        register(job);
+        index(job);
+        write(job);
+        if (job.getStatus() == JobStatus.QUEUED) {
+            pending.add(new JobEnqueuedEvent(job.getUuid(), job.getType(), job.getScheduledAt()));
+        }
+        return job;
+    }
+
+    // ============================== CONSULTAS ==============================
+
+    @Override
+    public synchronized Optional<AutomationJob> findByUuid(String uuid) {
+        return Optional.ofNullable(byUuid.get(uuid)).map(LocalJobStore::copy);
+    }
+
+    @Override
+    public synchronized List<AutomationJob> findByUuids(Collection<String> uuids) {
+        List<AutomationJob> found = new ArrayList<>(uuids.size());
+        for (String uuid : uuids) {
+            AutomationJob job = byUuid.get(uuid);
+            if (job != null) found.add(copy(job));
+        }
+        return found;
+    }
+
+    /**
+     * Sem filtro, percorre {@code bySchedule}; com tipo e/ou status, intercala
+     * de trás para frente só os conjuntos (tipo, status) que casam. O cursor e
+     * {@code to} viram o limite superior de cada conjunto, então a página custa
+     * O(k log n) e não depende de quantos jobs ficam fora do filtro.
+     */
+    @Override
+    public synchronized List<AutomationJob> search(JobType type, JobStatus status, OffsetDateTime from,
+                                                   OffsetDateTime to, JobCursor after, int limit) {
+        AutomationJob upper = null;
+        if (to != null) upper = probe(to, Long.MIN_VALUE);
+        if (after != null) {
+            AutomationJob cursor = probe(after.scheduledAt(), after.id());
+            if (upper == null || BY_SCHEDULE.compare(cursor, upper) < 0) upper = cursor;
+        }
+        List<NavigableSet<AutomationJob>> sets = new ArrayList<>();
+        if (type == null && status == null) {
+            sets.add(bySchedule);
+        } else {
+            for (JobType t : type != null ? List.of(type) : List.of(JobType.values())) {
+                Map<JobStatus, NavigableSet<AutomationJob>> byStatus = byTypeStatus.get(t);
+                if (status != null) sets.add(byStatus.get(status));
+                else sets.addAll(byStatus.values());
+            }
+        }
+        // k-way merge dos iteradores decrescentes, o maior (scheduledAt, id) primeiro
+        PriorityQueue<PeekingIterator> heads = new PriorityQueue<>(
+                Math.max(1, sets.size()), (a, b) -> BY_SCHEDULE.compare(b.head, a.head));
+        for (NavigableSet<AutomationJob> set : sets) {
+            NavigableSet<AutomationJob> range = upper == null ? set : set.headSet(upper, false);
+            Iterator<AutomationJob> it = range.descendingIterator();
+            if (it.hasNext()) heads.add(new PeekingIterator(it));
+        }
+        List<AutomationJob> page = new ArrayList<>(limit + 1);
+        while (!heads.isEmpty() && page.size() <= limit) {
+            PeekingIterator top = heads.poll();
+            if (from != null && top.head.getScheduledAt().isBefore(from)) break;
+            page.add(copy(top.head));
+            if (top.advance()) heads.add(top);
+        }
+        return page;
+    }
+
+    private static AutomationJob probe(OffsetDateTime scheduledAt, long id) {
+        AutomationJob probe = new AutomationJob();
+        probe.setScheduledAt(scheduledAt);
+        probe.setId(id);
+        return probe;
+    }
+
+    private static final class PeekingIterator {
+        final Iterator<AutomationJob> it;
+        AutomationJob head;
+
+        PeekingIterator(Iterator<AutomationJob> it) {
+            this.it = it;
+            this.head = it.next();
+        }
+
+        boolean advance() {
+            if (!it.hasNext()) return false;
+            head = it.next();
+            return true;
+        }
+    }
+
+    /** Tamanho dos conjuntos (tipo, status); não percorre os jobs. */
+    @Override
+    public synchronized Map<JobType, Map<JobStatus, Long>> countByTypeAndStatus(Collection<JobStatus> statuses) {
+        Map<JobType, Map<JobStatus, Long>> counts = new EnumMap<>(JobType.class);
+        byTypeStatus.forEach((type, byStatus) -> {
+            for (JobStatus status : statuses) {
+                int size = byStatus.get(status).size();
+                if (size > 0) counts.computeIfAbsent(type, t -> new EnumMap<>(JobStatus.class)).put(status, (long) size);
+            }
+        });
+        return counts;
+    }
+
+    @Override
+    public synchronized List<Long> findCancelRequested(Collection<Long> jobIds) {
+        List<Long> requested = new ArrayList<>();
+        for (Long id : jobIds) {
+            AutomationJob job = jobs.get(id);
+            if (job != null && job.isCancelRequested()) requested.add(id);
+        }
+        return requested;
+    }
+
+    @Override
+    public synchronized OffsetDateTime nextAttemptAt(Collection<JobType> types) {
+        OffsetDateTime next = null;
+        for (JobType type : types) {
+            OffsetDateTime candidate = queues.get(type).next();
+            if (candidate != null && (next == null || candidate.isBefore(next))) next = candidate;
+        }
+        return next;
+    }
+
+    // ============================== CICLO DE VIDA ==============================
+
+    @Override
+    public CancelResult cancel(String uuid) {
+        JobCancelRequestedEvent requested;
+        synchronized (this) {
+            AutomationJob job = byUuid.get(uuid);
+            if (job == null) return CancelResult.NOT_FOUND;
+            OffsetDateTime now = OffsetDateTime.now();
+            if (job.getStatus() == JobStatus.QUEUED || job.getStatus() == JobStatus.BLOCKED) {
+                unqueue(job);
+                finish(job, JobStatus.CANCELLED, "Cancelado antes da execução", now);
+                cancelDescendants(job.getId(), now);
+                return CancelResult.CANCELLED;
+            }
+            if (job.getStatus() != JobStatus.RUNNING) return CancelResult.ALREADY_FINISHED;
+            job.setCancelRequested(true);
+            job.setUpdatedAt(now);
+            write(job);
+            requested = new JobCancelRequestedEvent(job.getId(), uuid);
+        }
+        events.publishEvent(requested);
+        return CancelResult.CANCEL_REQUESTED;
+    }
+
+    @Override
+    public synchronized boolean updateProgress(Long jobId, long processed, Long total) {
+        AutomationJob job = owned(jobId);
+        if (job == null) return false;
+        OffsetDateTime now = OffsetDateTime.now();
+        job.setProgressProcessed(processed);
+        job.setProgressTotal(total);
+        job.setProgressUpdatedAt(now);
+        append(JobJournal.encodeProgress(jobId, processed, total, now));
+        return true;
+    }
+
+    @Override
+    public synchronized void saveCheckpoint(Long jobId, long checkpointRow) {
+        AutomationJob job = owned(jobId);
+        if (job == null) {
+            throw new IllegalStateException("Job " + jobId + " não está mais em execução neste nó");
+        }
+        job.setCheckpointRow(checkpointRow);
+        write(job);
+    }
+
+    @Override
+    public synchronized List<AutomationJob> claimPending(JobType type, int max, boolean fifo) {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime leaseUntil = now.plus(properties.getLeaseDuration());
+        TypeQueue queue = queues.get(type);
+        queue.promote(now);
+        List<AutomationJob> claimed = new ArrayList<>(Math.min(max, queue.ready.size()));
+        while (claimed.size() < max && !queue.ready.isEmpty()) {
+            AutomationJob job = fifo ? queue.readyFifo.pollFirst() : queue.ready.pollFirst();
+            if (fifo) queue.ready.remove(job);
+            else queue.readyFifo.remove(job);
+            moveTo(job, JobStatus.RUNNING);
+            job.setLockedBy(properties.getNodeId());
+            job.setLeaseExpiresAt(leaseUntil);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setStartedAt(now);
+            job.setUpdatedAt(now);
+            write(job);
+            claimed.add(copy(job));
+        }
+        return claimed;
+    }
+
+    /** Só em memória: depois de um restart todo RUNNING é recuperado de qualquer forma. */
+    @Override
+    public synchronized Set<Long> extendLeases(Collection<Long> jobIds) {
+        OffsetDateTime leaseUntil = OffsetDateTime.now().plus(properties.getLeaseDuration());
+        Set<Long> renewed = new HashSet<>();
+        for (Long id : jobIds) {
+            AutomationJob job = owned(id);
+            if (job == null) continue;
+            job.setLeaseExpiresAt(leaseUntil);
+            renewed.add(id);
+        }
+        return renewed;
+    }
+
+    @Override
+    public int reapExpiredLeases() {
+        List<Object> pending = new ArrayList<>();
+        int reaped;
+        synchronized (this) {
+            reaped = reap(OffsetDateTime.now(), false, pending);
+        }
+        pending.forEach(events::publishEvent);
+        return reaped;
+    }
+
+    /**
+     * Mesmas regras do UPDATE do SqlJobStore; {@code all} ignora a lease (subida do nó).
+     * Só percorre os jobs RUNNING.
+     */
+    private int reap(OffsetDateTime now, boolean all, List<Object> pending) {
+        List<AutomationJob> expired = new ArrayList<>();
+        for (Map<JobStatus, NavigableSet<AutomationJob>> byStatus : byTypeStatus.values()) {
+            for (AutomationJob job : byStatus.get(JobStatus.RUNNING)) {
+                if (all || job.getLeaseExpiresAt() == null || job.getLeaseExpiresAt().isBefore(now)) expired.add(job);
+            }
+        }
+        for (AutomationJob job : expired) {
+            String error = "Lease expirada: o nó " + (job.getLockedBy() == null ? "?" : job.getLockedBy())
+                    + " parou de responder";
+            job.setLockedBy(null);
+            job.setLeaseExpiresAt(null);
+            job.setNextAttemptAt(now);
+            if (job.isCancelRequested()) {
+                finish(job, JobStatus.CANCELLED, error, now);
+                cancelDescendants(job.getId(), now);
+            } else if (job.getAttempts() >= properties.retryFor(job.getType()).getMaxAttempts()) {
+                finish(job, JobStatus.DEAD_LETTER, error, now);
+                cancelDescendants(job.getId(), now);
+            } else {
+                moveTo(job, JobStatus.QUEUED);
+                job.setErrorMessage(error);
+                job.setFinishedAt(null);
+                job.setUpdatedAt(now);
+                index(job);
+                write(job);
+                pending.add(new JobEnqueuedEvent(job.getUuid(), job.getType(), now));
+            }
+        }
+        return expired.size();
+    }
+
+    /** Mesmas regras do completeAll do SqlJobStore, incluindo a liberação dos dependentes. */
+    @Override
+    public int completeAll(List<JobCompletion> completions) {
+        Set<JobType> wake = new HashSet<>();
+        int updated = 0;
+        synchronized (this) {
+            OffsetDateTime now = OffsetDateTime.now();
+            for (JobCompletion c : completions) {
+                AutomationJob job = owned(c.jobId());
+                if (job == null) continue;
+                updated++;
+                job.setLeaseExpiresAt(null);
+                job.setErrorMessage(c.errorMessage());
+                if (c.nextAttemptAt() != null) job.setNextAttemptAt(c.nextAttemptAt());
+                if (c.status() == JobStatus.QUEUED && job.isCancelRequested()) {
+                    finish(job, JobStatus.CANCELLED, c.errorMessage(), now);
+                    cancelDescendants(job.getId(), now);
+                } else if (c.status() == JobStatus.QUEUED) {
+                    moveTo(job, JobStatus.QUEUED);
+                    job.setLockedBy(null);
+                    job.setUpdatedAt(now);
+                    index(job);
+                    write(job);
+                    wake.add(job.getType());
+                } else {
+                    finish(job, c.status(), c.errorMessage(), c.finishedAt() != null ? c.finishedAt() : now);
+                    if (c.status() == JobStatus.SUCCESS) wake.addAll(release(job.getId(), now));
+                    else if (JobDependencies.FAILED_TERMINAL.contains(c.status())) cancelDescendants(job.getId(), now);
+                }
+            }
+        }
+        for (JobType type : wake) events.publishEvent(new JobEnqueuedEvent(null, type, OffsetDateTime.now()));
+        return updated;
+    }
+
+    /** Filhos BLOCKED do pai que terminou em SUCCESS; os que não esperam mais ninguém vão para a fila. */
+    private Set<JobType> release(long parentId, OffsetDateTime now) {
+        Set<JobType> released = new HashSet<>();
+        for (Long childId : childrenOf.getOrDefault(parentId, List.of())) {
+            AutomationJob child = jobs.get(childId);
+            if (child == null || child.getStatus() != JobStatus.BLOCKED) continue;
+            child.setPendingDependencies(child.getPendingDependencies() - 1);
+            if (child.getPendingDependencies() <= 0) {
+                moveTo(child, JobStatus.QUEUED);
+                index(child);
+                released.add(child.getType());
+            }
+            child.setUpdatedAt(now);
+            write(child);
+        }
+        return released;
+    }
+
+    /** Cancela toda a descendência ainda BLOCKED de um pai que terminou sem sucesso. */
+    private void cancelDescendants(long parentId, OffsetDateTime now) {
+        List<Long> frontier = new ArrayList<>(List.of(parentId));
+        while (!frontier.isEmpty()) {
+            List<Long> next = new ArrayList<>();
+            for (Long id : frontier) {
+                for (Long childId : childrenOf.getOrDefault(id, List.of())) {
+                    AutomationJob child = jobs.get(childId);
+                    if (child == null || child.getStatus() != JobStatus.BLOCKED) continue;
+                    finish(child, JobStatus.CANCELLED, "Cancelado: uma dependência não terminou com sucesso", now);
+                    next.add(childId);
+                }
+            }
+            frontier = next;
+        }
+    }
+
+    // ============================== ESTRUTURAS ==============================
+
+    private void finish(AutomationJob job, JobStatus status, String error, OffsetDateTime finishedAt) {
+        moveTo(job, status);
+        job.setErrorMessage(error);
+        job.setFinishedAt(finishedAt);
+        job.setUpdatedAt(OffsetDateTime.now());
+        write(job);
+    }
+
+    /** Job RUNNING deste nó, ou null. */
+    private AutomationJob owned(Long jobId) {
+        AutomationJob job = jobs.get(jobId);
+        if (job == null || job.getStatus() != JobStatus.RUNNING
+                || !properties.getNodeId().equals(job.getLockedBy())) return null;
+        return job;
+    }
+
+    /** Troca o status mantendo {@code byTypeStatus}; scheduledAt e id (a chave) não mudam. */
+    private void moveTo(AutomationJob job, JobStatus status) {
+        Map<JobStatus, NavigableSet<AutomationJob>> byStatus = byTypeStatus.get(job.getType());
+        byStatus.get(job.getStatus()).remove(job);
+        job.setStatus(status);
+        byStatus.get(status).add(job);
+    }
+
+    private void register(AutomationJob job) {
+        jobs.put(job.getId(), job);
+        byUuid.put(job.getUuid(), job);
+        bySchedule.add(job);
+        byTypeStatus.get(job.getType()).get(job.getStatus()).add(job);
+        if (job.getIdempotencyKey() != null) byIdempotencyKey.put(job.getIdempotencyKey(), job);
+        for (long parentId : parentsOf.getOrDefault(job.getId(), NO_PARENTS)) {
+            childrenOf.computeIfAbsent(parentId, p -> new ArrayList<>()).add(job.getId());
+        }
+    }
+
+    /** Coloca um job QUEUED na fila do tipo (nextAttemptAt já ajustado). */
+    private void index(AutomationJob job) {
+        if (job.getStatus() != JobStatus.QUEUED) return;
+        TypeQueue queue = queues.get(job.getType());
+        queue.delayed.add(job);
+        queue.promote(OffsetDateTime.now());
+    }
+
+    private void unqueue(AutomationJob job) {
+        TypeQueue queue = queues.get(job.getType());
+        if (!queue.delayed.remove(job)) {
+            queue.ready.remove(job);
+            queue.readyFifo.remove(job);
+        }
+    }
+
+    private void forget(AutomationJob job) {
+        jobs.remove(job.getId());
+        byUuid.remove(job.getUuid());
+        bySchedule.remove(job);
+        byTypeStatus.get(job.getType()).get(job.getStatus()).remove(job);
+        if (job.getIdempotencyKey() != null) byIdempotencyKey.remove(job.getIdempotencyKey(), job);
+        parentsOf.remove(job.getId());
+        childrenOf.remove(job.getId());
+    }
+
+    /** Registro do journal na reaplicação: o último snapshot de cada id vale. */
+    private void apply(JobJournal.Entry entry) {
+        if (entry.kind() == JobJournal.PROGRESS) {
+            AutomationJob job = jobs.get(entry.jobId());
+            if (job == null) return;
+            job.setProgressProcessed(entry.processed());
+            job.setProgressTotal(entry.total());
+            job.setProgressUpdatedAt(entry.at());
+            return;
+        }
+        AutomationJob job = entry.job();
+        AutomationJob previous = jobs.get(job.getId());
+        if (previous == null) {
+            if (entry.parents().length > 0) parentsOf.put(job.getId(), entry.parents());
+            register(job);
+            return;
+        }
+        // mesmo job, estado mais novo: troca a instância sem mexer nos vínculos
+        jobs.put(job.getId(), job);
+        byUuid.put(job.getUuid(), job);
+        bySchedule.remove(previous);
+        bySchedule.add(job);
+        byTypeStatus.get(previous.getType()).get(previous.getStatus()).remove(previous);
+        byTypeStatus.get(job.getType()).get(job.getStatus()).add(job);
+        if (previous.getIdempotencyKey() != null) byIdempotencyKey.remove(previous.getIdempotencyKey(), previous);
+        if (job.getIdempotencyKey() != null) byIdempotencyKey.put(job.getIdempotencyKey(), job);
+    }
+
+    private void write(AutomationJob job) {
+        append(JobJournal.encodeJob(job, parentsOf.getOrDefault(job.getId(), NO_PARENTS)));
+    }
+
+    private void append(byte[] record) {
+        if (journal.append(record)) return;
+        compact();
+        if (!journal.append(record)) {
+            throw new IllegalStateException("Registro maior que o journal de jobs (" + record.length + " bytes)");
+        }
+    }
+
+    /**
+     * Reescreve o journal só com o snapshot atual de cada job, descartando os
+     * finalizados além da retenção. O novo mapeamento tem o dobro do espaço
+     * ocupado, no mínimo {@code segment-size}.
+     */
+    private void compact() {
+        JobRetentionProperties retention = properties.getRetention();
+        OffsetDateTime now = OffsetDateTime.now();
+        List<AutomationJob> expired = new ArrayList<>();
+        for (AutomationJob job : jobs.values()) {
+            if (retention.isEnabled() && job.getFinishedAt() != null
+                    && job.getStatus() != JobStatus.QUEUED && job.getStatus() != JobStatus.RUNNING
+                    && job.getFinishedAt().isBefore(now.minus(retention.archiveAfterFor(job.getType())))) {
+                expired.add(job);
+            }
+        }
+        expired.forEach(this::forget);
+
+        List<byte[]> records = new ArrayList<>(jobs.size());
+        long bytes = 0;
+        for (AutomationJob job : jobs.values()) {
+            byte[] record = JobJournal.encodeJob(job, parentsOf.getOrDefault(job.getId(), NO_PARENTS));
+            records.add(record);
+            bytes += record.length + 8;
+        }
+        try {
+            journal.rewrite(records, Math.max(local.getSegmentSize().toBytes(), bytes * 2));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao compactar o journal de jobs", e);
+        }
+        log.info("Journal de jobs compactado: {} jobs ({} KB), {} finalizados descartados pela retenção",
+                records.size(), bytes / 1024, expired.size());
+    }
+
+    /** Cópia entregue para fora do lock; as instâncias internas só mudam sob ele. */
+    private static AutomationJob copy(AutomationJob src) {
+        AutomationJob job = new AutomationJob();
+        job.setId(src.getId());
+        job.setUuid(src.getUuid());
+        job.setType(src.getType());
+        job.setStatus(src.getStatus());
+        job.setPayload(src.getPayload());
+        job.setErrorMessage(src.getErrorMessage());
+        job.setIdempotencyKey(src.getIdempotencyKey());
+        job.setLockedBy(src.getLockedBy());
+        job.setLeaseExpiresAt(src.getLeaseExpiresAt());
+        job.setScheduledAt(src.getScheduledAt());
+        job.setPriority(src.getPriority());
+        job.setNextAttemptAt(src.getNextAttemptAt());
+        job.setPendingDependencies(src.getPendingDependencies());
+        job.setAttempts(src.getAttempts());
+        job.setCancelRequested(src.isCancelRequested());
+        job.setProgressProcessed(src.getProgressProcessed());
+        job.setProgressTotal(src.getProgressTotal());
+        job.setProgressUpdatedAt(src.getProgressUpdatedAt());
+        job.setCheckpointRow(src.getCheckpointRow());
+        job.setStartedAt(src.getStartedAt());
+        job.setFinishedAt(src.getFinishedAt());
+        job.setCreatedAt(src.getCreatedAt());
+        job.setUpdatedAt(src.getUpdatedAt());
+        return job;
+    }
+}
@@ -0,0 +1,91 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.config.RecurringJobProperties;
+import com.adi.docflow.model.RecurringJob;
+import com.adi.docflow.repository.RecurringJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Dispara os jobs recorrentes. A cada refresh as definições que vencem dentro
+ * do horizonte são carregadas do banco para um {@link TimingWheel}; a cada tick
+ * as vencidas são materializadas via {@link RecurringJobService#fire}, que
+ * garante uma só criação por execução mesmo com todos os nós rodando isto.
+ */
+@Component
+public class RecurringJobScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringJobScheduler.class);
+
+    private record Planned(Long definitionId, OffsetDateTime dueAt) {}
+
+    private final RecurringJobRepository repository;
+    private final RecurringJobService service;
+    private final RecurringJobProperties config;
+
+    private final TimingWheel<Planned> wheel;
+    // execuções já colocadas na roda, para o refresh não duplicar
+    private final Set<Planned> planned = new HashSet<>();
+
+    public RecurringJobScheduler(RecurringJobRepository repository,
+                                 RecurringJobService service,
+                                 AutomationJobProperties properties) {
+        this.repository = repository;
+        this.service = service;
+        this.config = properties.getRecurring();
+        this.wheel = new TimingWheel<>(config.getTickMs(), config.getWheelSize(), System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.recurring.refresh-interval-ms:30000}", initialDelay = 5000L)
+    public void refresh() {
+        if (!config.isEnabled()) return;
+        try {
+            // horizonte de dois refreshes: uma falha de leitura não deixa execução para trás
+            OffsetDateTime until = OffsetDateTime.now().plusNanos(config.getRefreshIntervalMs() * 2_000_000L);
+            List<RecurringJob> due = repository.findDueUntil(until);
+            synchronized (this) {
+                for (RecurringJob def : due) {
+                    Planned p = new Planned(def.getId(), def.getNextRunAt());
+                    if (planned.add(p)) {
+                        wheel.schedule(p, def.getNextRunAt().toInstant().toEpochMilli());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Falha ao carregar jobs recorrentes: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.jobs.recurring.tick-ms:1000}")
+    public void tick() {
+        if (!config.isEnabled()) return;
+        List<Planned> due;
+        synchronized (this) {
+            due = wheel.advance(System.currentTimeMillis());
+            due.forEach(planned::remove);
+        }
+        for (Planned p : due) {
+            try {
+                if (service.fire(p.definitionId(), p.dueAt())) {
+                    log.debug("Job recorrente {} materializado para {}", p.definitionId(), p.dueAt());
+                }
+            } catch (Exception e) {
+                log.error("Falha ao materializar job recorrente {} ({}): {}",
+                        p.definitionId(), p.dueAt(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Definição criada/alterada pela API: entra na roda sem esperar o próximo refresh. */
+    public void reload() {
+        refresh();
+    }
+}
@@ -0,0 +1,121 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.model.RecurringJob;
+import com.adi.docflow.repository.RecurringJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import jakarta.transaction.Transactional;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class RecurringJobService {
+
+    private final RecurringJobRepository repository;
+    private final AutomationJobService jobService;
+    private final ObjectMapper objectMapper;
+
+    public RecurringJobService(RecurringJobRepository repository,
+                               AutomationJobService jobService,
+                               ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.jobService = jobService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Materializa a execução {@code dueAt} da definição, uma única vez no cluster:
+     * o UPDATE condicional em next_run_at e o INSERT do job estão na mesma
+     * transação, e só o nó que avançou a definição cria o job. Execuções
+     * perdidas (nó parado) rodam uma vez só; a seguinte é calculada a partir de agora.
+     * @return true se este nó criou o job
+     */
+    @Transactional
+    public boolean fire(Long definitionId, OffsetDateTime dueAt) {
+        Optional<RecurringJob> found = repository.findById(definitionId);
+        if (found.isEmpty()) return false;
+        RecurringJob def = found.get();
+        if (!def.isEnabled() || !dueAt.isEqual(def.getNextRunAt())) return false;
+
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime base = dueAt.isAfter(now) ? dueAt : now;
+        if (repository.advance(def.getId(), def.getNextRunAt(), nextRun(def, base), now) != 1) return false;
+
+        jobService.create(def.getType(), render(def, dueAt), dueAt, def.getPriority());
+        return true;
+    }
+
+    /** Próximo disparo do cron estritamente depois de {@code after}, no fuso da definição. */
+    public OffsetDateTime nextRun(RecurringJob def, OffsetDateTime after) {
+        ZoneId zone = ZoneId.of(def.getZone());
+        ZonedDateTime next = CronExpression.parse(def.getCron()).next(after.atZoneSameInstant(zone));
+        if (next == null) {
+            throw new IllegalArgumentException("Cron sem próxima execução: " + def.getCron());
+        }
+        return next.toOffsetDateTime().withOffsetSameInstant(ZoneOffset.UTC);
+    }
+
+    /** @throws IllegalArgumentException se o payload template não for JSON válido */
+    @Transactional
+    public RecurringJob save(RecurringJob def) {
+        OffsetDateTime now = OffsetDateTime.now();
+        render(def, now);
+        def.setNextRunAt(nextRun(def, now));
+        if (def.getCreatedAt() == null) def.setCreatedAt(now);
+        def.setUpdatedAt(now);
+        return repository.save(def);
+    }
+
+    /**
+     * Monta o payload a partir do template (JSON livre, como o dos jobs avulsos).
+     * Os placeholders só valem dentro de strings do JSON e são trocados na
+     * árvore do Jackson, que escapa os valores ao serializar: um nome com aspas
+     * ou barra invertida não quebra nem altera a estrutura do payload.
+     */
+    String render(RecurringJob def, OffsetDateTime dueAt) {
+        String template = def.getPayloadTemplate();
+        if (template == null) return null;
+        JsonNode tree;
+        try {
+            tree = objectMapper.readTree(template);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payload template não é JSON válido: " + e.getOriginalMessage());
+        }
+        ZonedDateTime local = dueAt.atZoneSameInstant(ZoneId.of(def.getZone()));
+        Map<String, String> values = Map.of(
+                "{{name}}", def.getName(),
+                "{{scheduledAt}}", dueAt.toString(),
+                "{{date}}", local.format(DateTimeFormatter.ISO_LOCAL_DATE));
+        try {
+            return objectMapper.writeValueAsString(substitute(tree, values));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static JsonNode substitute(JsonNode node, Map<String, String> values) {
+        if (node.isTextual()) {
+            String text = node.textValue();
+            for (Map.Entry<String, String> e : values.entrySet()) text = text.replace(e.getKey(), e.getValue());
+            return TextNode.valueOf(text);
+        }
+        if (node instanceof ObjectNode object) {
+            object.fields().forEachRemaining(f -> f.setValue(substitute(f.getValue(), values)));
+        } else if (node instanceof ArrayNode array) {
+            for (int i = 0; i < array.size(); i++) array.set(i, substitute(array.get(i), values));
+        }
+        return node;
+    }
+}
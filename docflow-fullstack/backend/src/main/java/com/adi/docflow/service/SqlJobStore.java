@@ -0,0 +1,546 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.job.BatchSubmission;
+import com.adi.docflow.job.CancelResult;
+import com.adi.docflow.job.JobCancelRequestedEvent;
+import com.adi.docflow.job.JobCompletion;
+import com.adi.docflow.job.JobCursor;
+import com.adi.docflow.job.JobEnqueuedEvent;
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobSubmission;
+import com.adi.docflow.job.JobType;
+import com.adi.docflow.job.NewJob;
+import com.adi.docflow.model.AutomationJob;
+import com.adi.docflow.repository.AutomationJobRepository;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.transaction.Transactional;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Fila em app.automation_job: claim atômico com READPAST, leases e
+ * finalizações set-based, seguro com várias réplicas. Padrão de {@code app.jobs.store}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.jobs", name = "store", havingValue = "sql", matchIfMissing = true)
+class SqlJobStore implements JobStore {
+
+    // SQL Server aceita até 2100 parâmetros por comando; 5 por linha
+    private static final int COMPLETION_ROWS_PER_STATEMENT = 400;
+    private static final int LEASE_IDS_PER_STATEMENT = 2000;
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO app.automation_job
+            (uuid, type, status, payload, idempotency_key, priority, attempts, pending_dependencies,
+             scheduled_at, next_attempt_at, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?, SYSDATETIMEOFFSET(), SYSDATETIMEOFFSET())
+        """;
+
+    private final AutomationJobRepository repository;
+    private final AutomationJobProperties properties;
+    private final ApplicationEventPublisher events;
+    private final JdbcTemplate jdbc;
+    private final JobDependencies dependencies;
+
+    SqlJobStore(AutomationJobRepository repository,
+                AutomationJobProperties properties,
+                ApplicationEventPublisher events,
+                JdbcTemplate jdbc,
+                JobDependencies dependencies) {
+        this.repository = repository;
+        this.properties = properties;
+        this.events = events;
+        this.jdbc = jdbc;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Uma transação: trava a idempotency key (range lock, ver lockIdempotencyKeys)
+     * e os pais antes do INSERT, de modo que um pai não termina nem uma chave
+     * é reusada entre a contagem e a gravação do vínculo em app.automation_job_dependency.
+     */
+    @Override
+    @Transactional
+    public JobSubmission submit(NewJob request) {
+        // gravado via entidade: o offset precisa ser UTC, o DATETIME2 descarta o offset e guarda a hora local
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        if (request.idempotencyKey() != null) {
+            IdempotentHit hit = lockIdempotencyKeys(List.of(request.idempotencyKey()), now)
+                    .get(request.idempotencyKey());
+            if (hit != null) {
+                return new JobSubmission(repository.findById(hit.id()).orElseThrow(), true);
+            }
+        }
+
+        List<Long> parentIds = new ArrayList<>();
+        int pending = countPendingParents(request.dependsOn(), dependencies.lockParents(request.dependsOn()), parentIds);
+
+        AutomationJob job = new AutomationJob();
+        job.setUuid(UUID.randomUUID().toString());
+        job.setType(request.type());
+        job.setStatus(pending > 0 ? JobStatus.BLOCKED : JobStatus.QUEUED);
+        job.setPendingDependencies(pending);
+        job.setPayload(request.payload());
+        job.setIdempotencyKey(request.idempotencyKey());
+        job.setScheduledAt(request.scheduledAt() != null
+                ? request.scheduledAt().withOffsetSameInstant(ZoneOffset.UTC) : now);
+        job.setNextAttemptAt(job.getScheduledAt());
+        job.setAttempts(0);
+        job.setPriority(request.priority() != null ? request.priority() : AutomationJob.DEFAULT_PRIORITY);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        AutomationJob saved = repository.saveAndFlush(job);
+        dependencies.link(parentIds.stream().map(id -> new JobDependencies.Link(saved.getUuid(), id)).toList());
+        if (saved.getStatus() == JobStatus.QUEUED) {
+            events.publishEvent(new JobEnqueuedEvent(saved.getUuid(), saved.getType(), saved.getScheduledAt()));
+        }
+        return new JobSubmission(saved, false);
+    }
+
+    /**
+     * Enfileira vários jobs numa única transação, consumindo {@code jobs} em
+     * blocos de {@value #INSERT_BATCH_SIZE}: cada bloco resolve pais e chaves
+     * numa leitura e vira um JDBC batch (sem passar pelo contexto de
+     * persistência). Só o bloco corrente fica em memória, então o iterador pode
+     * ler direto do corpo da requisição; uma exceção dele desfaz o lote todo.
+     * O dispatcher é acordado uma vez por tipo. Chave repetida dentro do
+     * próprio lote aponta para o primeiro item com ela.
+     */
+    @Override
+    @Transactional
+    public BatchSubmission createAll(Iterator<NewJob> jobs) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<String> uuids = new ArrayList<>();
+        int duplicates = 0;
+        Map<JobType, JobEnqueuedEvent> firstDueByType = new EnumMap<>(JobType.class);
+        // chave -> UUID já existente (banco, dentro da janela) ou criado antes neste lote
+        Map<String, String> uuidByKey = new HashMap<>();
+        List<NewJob> chunk = new ArrayList<>(INSERT_BATCH_SIZE);
+
+        while (jobs.hasNext()) {
+            chunk.clear();
+            while (chunk.size() < INSERT_BATCH_SIZE && jobs.hasNext()) chunk.add(jobs.next());
+            duplicates += insertChunk(chunk, now, uuidByKey, uuids, firstDueByType);
+        }
+
+        // o listener só acorda o dispatcher; um evento por tipo basta
+        firstDueByType.values().forEach(events::publishEvent);
+        return new BatchSubmission(uuids, duplicates);
+    }
+
+    /** Grava um bloco do createAll; devolve quantos itens eram duplicados. */
+    private int insertChunk(List<NewJob> chunk, OffsetDateTime now, Map<String, String> uuidByKey,
+                            List<String> uuids, Map<JobType, JobEnqueuedEvent> firstDueByType) {
+        int duplicates = 0;
+        List<Object[]> rows = new ArrayList<>(chunk.size());
+        List<JobDependencies.Link> links = new ArrayList<>();
+
+        Set<String> chunkParents = new HashSet<>();
+        chunk.forEach(job -> chunkParents.addAll(job.dependsOn()));
+        Map<String, JobDependencies.Parent> parents = chunkParents.isEmpty()
+                ? Map.of() : dependencies.lockParents(chunkParents);
+
+        Set<String> keys = new HashSet<>();
+        chunk.forEach(job -> {
+            if (job.idempotencyKey() != null && !uuidByKey.containsKey(job.idempotencyKey())) keys.add(job.idempotencyKey());
+        });
+        if (!keys.isEmpty()) {
+            lockIdempotencyKeys(keys, now).forEach((key, hit) -> uuidByKey.put(key, hit.uuid()));
+        }
+
+        for (NewJob job : chunk) {
+            String existing = job.idempotencyKey() == null ? null : uuidByKey.get(job.idempotencyKey());
+            if (existing != null) {
+                uuids.add(existing);
+                duplicates++;
+                continue;
+            }
+            String uuid = UUID.randomUUID().toString();
+            if (job.idempotencyKey() != null) uuidByKey.put(job.idempotencyKey(), uuid);
+            OffsetDateTime scheduledAt = job.scheduledAt() != null ? job.scheduledAt() : now;
+            LocalDateTime scheduledUtc = toUtc(scheduledAt);
+            List<Long> parentIds = new ArrayList<>();
+            int pending = countPendingParents(job.dependsOn(), parents, parentIds);
+            parentIds.forEach(id -> links.add(new JobDependencies.Link(uuid, id)));
+            JobStatus status = pending > 0 ? JobStatus.BLOCKED : JobStatus.QUEUED;
+            rows.add(new Object[]{
+                    uuid, job.type().name(), status.name(), job.payload(), job.idempotencyKey(),
+                    job.priority() != null ? job.priority() : AutomationJob.DEFAULT_PRIORITY,
+                    pending, scheduledUtc, scheduledUtc});
+            uuids.add(uuid);
+            if (status == JobStatus.QUEUED) {
+                firstDueByType.merge(job.type(), new JobEnqueuedEvent(uuid, job.type(), scheduledAt),
+                        (a, b) -> a.scheduledAt().isAfter(b.scheduledAt()) ? b : a);
+            }
+        }
+        if (!rows.isEmpty()) jdbc.batchUpdate(INSERT_SQL, rows);
+        for (int from = 0; from < links.size(); from += INSERT_BATCH_SIZE) {
+            dependencies.link(links.subList(from, Math.min(from + INSERT_BATCH_SIZE, links.size())));
+        }
+        return duplicates;
+    }
+
+    /** Job existente com a idempotency key, ainda dentro da janela. */
+    private record IdempotentHit(Long id, String uuid) {}
+
+    /**
+     * Lê as chaves com UPDLOCK + HOLDLOCK: o range lock no índice único filtrado
+     * faz um submit concorrente com a mesma chave esperar este commit e então
+     * enxergar o job criado aqui. Chaves de jobs fora da janela são liberadas
+     * (idempotency_key = NULL) para que o novo insert não viole o índice.
+     */
+    private Map<String, IdempotentHit> lockIdempotencyKeys(Collection<String> keys, OffsetDateTime now) {
+        OffsetDateTime windowStart = now.minus(properties.getIdempotencyWindow());
+        Map<String, IdempotentHit> hits = new HashMap<>();
+        List<Long> expired = new ArrayList<>();
+        List<String> list = new ArrayList<>(keys);
+        for (int from = 0; from < list.size(); from += LEASE_IDS_PER_STATEMENT) {
+            List<String> chunk = list.subList(from, Math.min(from + LEASE_IDS_PER_STATEMENT, list.size()));
+            String sql = "SELECT id, uuid, idempotency_key, created_at FROM app.automation_job WITH (UPDLOCK, HOLDLOCK)"
+                    + " WHERE idempotency_key IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            jdbc.query(sql, rs -> {
+                OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
+                if (createdAt.isBefore(windowStart)) {
+                    expired.add(rs.getLong("id"));
+                } else {
+                    hits.put(rs.getString("idempotency_key"), new IdempotentHit(rs.getLong("id"), rs.getString("uuid")));
+                }
+            }, chunk.toArray());
+        }
+        for (int from = 0; from < expired.size(); from += LEASE_IDS_PER_STATEMENT) {
+            List<Long> chunk = expired.subList(from, Math.min(from + LEASE_IDS_PER_STATEMENT, expired.size()));
+            jdbc.update("UPDATE app.automation_job SET idempotency_key = NULL WHERE id IN ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")", chunk.toArray());
+        }
+        return hits;
+    }
+
+    @Override
+    public Optional<AutomationJob> findByUuid(String uuid) {
+        return repository.findByUuid(uuid);
+    }
+
+    @Override
+    public List<AutomationJob> findByUuids(Collection<String> uuids) {
+        return repository.findByUuidIn(uuids);
+    }
+
+    /** Um único GROUP BY (seek em ix_job_claim pelo status). */
+    @Override
+    public Map<JobType, Map<JobStatus, Long>> countByTypeAndStatus(Collection<JobStatus> statuses) {
+        Map<JobType, Map<JobStatus, Long>> counts = new EnumMap<>(JobType.class);
+        for (Object[] row : repository.countByTypeAndStatus(statuses)) {
+            counts.computeIfAbsent((JobType) row[0], t -> new EnumMap<>(JobStatus.class))
+                    .put((JobStatus) row[1], ((Number) row[2]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Lista jobs do mais recente para o mais antigo por (scheduled_at, id),
+     * continuando depois de {@code after}. Cada combinação de type e status tem
+     * seu índice com o filtro na frente de (scheduled_at, id) — ix_job_scheduled,
+     * ix_job_scheduled_type, ix_job_scheduled_status e ix_job_scheduled_all —, então
+     * cada página é um seek seguido de no máximo {@code limit + 1} linhas, qualquer
+     * que seja a profundidade. Todos os filtros são opcionais; {@code to} é exclusivo.
+     * @return até {@code limit + 1} jobs; o excedente indica que há próxima página
+     */
+    @Override
+    public List<AutomationJob> search(JobType type, JobStatus status, OffsetDateTime from, OffsetDateTime to,
+                                      JobCursor after, int limit) {
+        Specification<AutomationJob> spec = (root, query, cb) -> {
+            List<Predicate> preds = new ArrayList<>();
+            if (type != null) preds.add(cb.equal(root.get("type"), type));
+            if (status != null) preds.add(cb.equal(root.get("status"), status));
+            if (from != null) preds.add(cb.greaterThanOrEqualTo(root.get("scheduledAt"), from));
+            if (to != null) preds.add(cb.lessThan(root.get("scheduledAt"), to));
+            if (after != null) {
+                preds.add(cb.or(
+                        cb.lessThan(root.get("scheduledAt"), after.scheduledAt()),
+                        cb.and(cb.equal(root.get("scheduledAt"), after.scheduledAt()),
+                               cb.lessThan(root.get("id"), after.id()))));
+            }
+            return cb.and(preds.toArray(new Predicate[0]));
+        };
+        Sort sort = Sort.by(Sort.Order.desc("scheduledAt"), Sort.Order.desc("id"));
+        return repository.findBy(spec, q -> q.sortBy(sort).limit(limit + 1).all());
+    }
+
+    /**
+     * Valida os pais e devolve quantos ainda não terminaram; {@code parentIds}
+     * recebe os ids a vincular.
+     */
+    private static int countPendingParents(Collection<String> dependsOn,
+                                           Map<String, JobDependencies.Parent> parents,
+                                           List<Long> parentIds) {
+        int pending = 0;
+        for (String uuid : new LinkedHashSet<>(dependsOn)) {
+            JobDependencies.Parent parent = parents.get(uuid);
+            if (parent == null) {
+                throw new IllegalArgumentException("Dependência não encontrada: " + uuid);
+            }
+            if (JobDependencies.FAILED_TERMINAL.contains(parent.status())) {
+                throw new IllegalStateException("Dependência " + uuid + " já terminou com status " + parent.status());
+            }
+            if (parent.status() != JobStatus.SUCCESS) pending++;
+            parentIds.add(parent.id());
+        }
+        return pending;
+    }
+
+    /**
+     * Dois UPDATEs condicionais pelo status, sem leitura prévia: o que cancela
+     * direto só vale para QUEUED/BLOCKED, então não disputa com o claim. O
+     * pedido a um job RUNNING de outra réplica chega ao dono pela coluna
+     * cancel_requested, lida no heartbeat.
+     */
+    @Override
+    @Transactional
+    public CancelResult cancel(String uuid) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        if (repository.cancelQueued(uuid, now) == 1) {
+            repository.findByUuid(uuid).ifPresent(job -> dependencies.cancelDescendants(List.of(job.getId())));
+            return CancelResult.CANCELLED;
+        }
+        if (repository.requestCancel(uuid, now) == 1) {
+            repository.findByUuid(uuid).ifPresent(job ->
+                    events.publishEvent(new JobCancelRequestedEvent(job.getId(), uuid)));
+            return CancelResult.CANCEL_REQUESTED;
+        }
+        return repository.findByUuid(uuid).isPresent() ? CancelResult.ALREADY_FINISHED : CancelResult.NOT_FOUND;
+    }
+
+    /** UPDATE filtrado por locked_by; zero linhas significa lease perdida. */
+    @Override
+    @Transactional
+    public boolean updateProgress(Long jobId, long processed, Long total) {
+        return repository.updateProgress(jobId, processed, total, properties.getNodeId(),
+                OffsetDateTime.now(ZoneOffset.UTC)) > 0;
+    }
+
+    /**
+     * UPDATE condicionado ao dono: entra na transação de quem chama (o chunk
+     * da importação), que é desfeita inteira se a lease foi perdida.
+     */
+    @Override
+    @Transactional
+    public void saveCheckpoint(Long jobId, long checkpointRow) {
+        int updated = jdbc.update("""
+                UPDATE app.automation_job SET checkpoint_row = ?
+                WHERE id = ? AND status = 'RUNNING' AND locked_by = ?
+                """, checkpointRow, jobId, properties.getNodeId());
+        if (updated == 0) {
+            throw new IllegalStateException("Job " + jobId + " não está mais em execução neste nó");
+        }
+    }
+
+    /** Em blocos de {@value #LEASE_IDS_PER_STATEMENT} ids (limite de parâmetros do SQL Server). */
+    @Override
+    public List<Long> findCancelRequested(Collection<Long> jobIds) {
+        if (jobIds.isEmpty()) return List.of();
+        List<Long> ids = new ArrayList<>(jobIds);
+        List<Long> requested = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += LEASE_IDS_PER_STATEMENT) {
+            requested.addAll(repository.findCancelRequested(
+                    ids.subList(from, Math.min(from + LEASE_IDS_PER_STATEMENT, ids.size()))));
+        }
+        return requested;
+    }
+
+    /** Um MIN(next_attempt_at) por tipo, cada um um seek em ix_job_claim. */
+    @Override
+    public OffsetDateTime nextAttemptAt(Collection<JobType> types) {
+        OffsetDateTime next = null;
+        for (JobType type : types) {
+            OffsetDateTime candidate = repository.findNextAttemptAt(type);
+            if (candidate != null && (next == null || candidate.isBefore(next))) next = candidate;
+        }
+        return next;
+    }
+
+    /**
+     * UPDATE ... OUTPUT sobre um TOP com UPDLOCK + READPAST: réplicas
+     * concorrentes pulam as linhas já travadas em vez de esperar, e cada job
+     * sai para um único nó.
+     */
+    @Override
+    @Transactional
+    public List<AutomationJob> claimPending(JobType type, int max, boolean fifo) {
+        OffsetDateTime now = OffsetDateTime.now();
+        LocalDateTime nowUtc = toUtc(now);
+        LocalDateTime leaseUntil = toUtc(now.plus(properties.getLeaseDuration()));
+        return fifo
+                ? repository.claimDueFifo(type.name(), max, properties.getNodeId(), nowUtc, leaseUntil)
+                : repository.claimDueByPriority(type.name(), max, properties.getNodeId(), nowUtc, leaseUntil);
+    }
+
+    /**
+     * Renova, em blocos set-based, a lease dos jobs em execução neste nó. O
+     * OUTPUT devolve quais linhas ainda eram deste nó; as que faltam foram
+     * recolhidas pelo reaper (e talvez já reivindicadas por outra réplica).
+     */
+    @Override
+    @Transactional
+    public Set<Long> extendLeases(Collection<Long> jobIds) {
+        LocalDateTime leaseUntil = toUtc(OffsetDateTime.now().plus(properties.getLeaseDuration()));
+        List<Long> ids = new ArrayList<>(jobIds);
+        Set<Long> renewed = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += LEASE_IDS_PER_STATEMENT) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LEASE_IDS_PER_STATEMENT, ids.size()));
+            List<Object> args = new ArrayList<>(chunk.size() + 2);
+            args.add(leaseUntil);
+            args.addAll(chunk);
+            args.add(properties.getNodeId());
+            jdbc.query("UPDATE app.automation_job SET lease_expires_at = ? OUTPUT inserted.id"
+                            + " WHERE id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")"
+                            + " AND status = 'RUNNING' AND locked_by = ?",
+                    rs -> { renewed.add(rs.getLong(1)); }, args.toArray());
+        }
+        return renewed;
+    }
+
+    /**
+     * Devolve à fila (ou manda para DEAD_LETTER, se esgotou as tentativas do tipo)
+     * todo job RUNNING cuja lease venceu, num único UPDATE. Cobre o caso de a JVM
+     * dona ter morrido no meio de {@code processor.process(job)}. Jobs com
+     * cancelamento pedido vão direto para CANCELLED; dependentes de jobs que
+     * terminaram aqui sem sucesso são cancelados.
+     * @return quantidade de jobs recuperados
+     */
+    @Override
+    @Transactional
+    public int reapExpiredLeases() {
+        List<Long> failed = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("""
+            UPDATE j
+               SET j.status = CASE WHEN j.cancel_requested = 1 THEN 'CANCELLED'
+                                   WHEN j.attempts >= p.max_attempts THEN 'DEAD_LETTER'
+                                   ELSE 'QUEUED' END,
+                   j.finished_at = CASE WHEN j.cancel_requested = 1 OR j.attempts >= p.max_attempts
+                                        THEN ? ELSE NULL END,
+                   j.error_message = 'Lease expirada: o nó ' + ISNULL(j.locked_by, '?') + ' parou de responder',
+                   j.next_attempt_at = ?,
+                   j.locked_by = NULL,
+                   j.lease_expires_at = NULL,
+                   j.updated_at = SYSDATETIMEOFFSET()
+            OUTPUT inserted.id, inserted.status
+            FROM app.automation_job j
+            JOIN (VALUES\s""");
+        LocalDateTime now = toUtc(OffsetDateTime.now());
+        List<Object> args = new ArrayList<>();
+        args.add(now);
+        args.add(now);
+        JobType[] types = JobType.values();
+        for (int i = 0; i < types.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?)");
+            args.add(types[i].name());
+            args.add(properties.retryFor(types[i]).getMaxAttempts());
+        }
+        sql.append("""
+            ) AS p(type, max_attempts) ON j.type = p.type
+            WHERE j.status = 'RUNNING' AND j.lease_expires_at < ?
+            """);
+        args.add(now);
+        int[] reaped = {0};
+        jdbc.query(sql.toString(), rs -> {
+            reaped[0]++;
+            if (!"QUEUED".equals(rs.getString("status"))) failed.add(rs.getLong("id"));
+        }, args.toArray());
+        if (!failed.isEmpty()) dependencies.cancelDescendants(failed);
+        return reaped[0];
+    }
+
+    /**
+     * Grava um lote de finalizações num único UPDATE set-based por bloco
+     * (join com uma lista VALUES), em vez de um merge por job.
+     * Retries voltam para QUEUED com next_attempt_at e sem dono, exceto se o
+     * cancelamento foi pedido antes de o heartbeat avisar o worker.
+     * Só altera jobs ainda RUNNING e reivindicados por este nó. Na mesma
+     * transação, os dependentes dos que terminaram são liberados ou cancelados.
+     * @return quantidade de linhas atualizadas
+     */
+    @Override
+    @Transactional
+    public int completeAll(List<JobCompletion> completions) {
+        List<Long> succeeded = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        int[] updated = {0};
+        for (int from = 0; from < completions.size(); from += COMPLETION_ROWS_PER_STATEMENT) {
+            List<JobCompletion> chunk = completions.subList(from,
+                    Math.min(from + COMPLETION_ROWS_PER_STATEMENT, completions.size()));
+
+            StringBuilder sql = new StringBuilder("""
+                UPDATE j
+                   SET j.status = CASE WHEN v.status = 'QUEUED' AND j.cancel_requested = 1
+                                       THEN 'CANCELLED' ELSE v.status END,
+                       j.error_message = v.error_message,
+                       j.finished_at = CASE WHEN v.status = 'QUEUED' AND j.cancel_requested = 1
+                                            THEN SYSUTCDATETIME() ELSE v.finished_at END,
+                       j.lease_expires_at = NULL,
+                       j.next_attempt_at = COALESCE(v.next_attempt_at, j.next_attempt_at),
+                       j.locked_by = CASE WHEN v.status = 'QUEUED' AND j.cancel_requested = 0
+                                          THEN NULL ELSE j.locked_by END,
+                       j.updated_at = SYSDATETIMEOFFSET()
+                OUTPUT inserted.id, inserted.status
+                FROM app.automation_job j
+                JOIN (VALUES\s""");
+            List<Object> args = new ArrayList<>(chunk.size() * 5 + 1);
+            for (int i = 0; i < chunk.size(); i++) {
+                JobCompletion c = chunk.get(i);
+                sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?)");
+                args.add(c.jobId());
+                args.add(c.status().name());
+                args.add(c.errorMessage());
+                args.add(toUtc(c.finishedAt()));
+                args.add(toUtc(c.nextAttemptAt()));
+            }
+            sql.append("""
+                ) AS v(id, status, error_message, finished_at, next_attempt_at) ON j.id = v.id
+                WHERE j.status = 'RUNNING' AND j.locked_by = ?
+                """);
+            args.add(properties.getNodeId());
+
+            jdbc.query(sql.toString(), rs -> {
+                JobStatus status = JobStatus.valueOf(rs.getString("status"));
+                if (status == JobStatus.SUCCESS) succeeded.add(rs.getLong("id"));
+                else if (JobDependencies.FAILED_TERMINAL.contains(status)) failed.add(rs.getLong("id"));
+                else updated[0]++;
+            }, args.toArray());
+        }
+        if (!succeeded.isEmpty()) {
+            for (JobType type : dependencies.release(succeeded)) {
+                events.publishEvent(new JobEnqueuedEvent(null, type, OffsetDateTime.now()));
+            }
+        }
+        if (!failed.isEmpty()) dependencies.cancelDescendants(failed);
+        return updated[0] + succeeded.size() + failed.size();
+    }
+
+    // colunas DATETIME2 guardam UTC (hibernate.jdbc.time_zone)
+    private static LocalDateTime toUtc(OffsetDateTime value) {
+        return value == null ? null : LocalDateTime.ofInstant(value.toInstant(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,60 @@
+package com.adi.docflow.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Timing wheel com hash: {@code size} slots de {@code tickMs} cada. Um item
+ * vai para o slot do seu tick e guarda quantas voltas completas faltam, então
+ * agendar e avançar custam O(1) por item, sem ordenar nada. Itens além de uma
+ * volta simplesmente esperam as voltas restantes.
+ * Não é thread-safe; o RecurringJobScheduler sincroniza o acesso.
+ */
+class TimingWheel<T> {
+
+    private record Entry<T>(T item, long rounds) {}
+
+    private final long tickMs;
+    private final List<List<Entry<T>>> slots;
+    private long currentTick;
+
+    TimingWheel(long tickMs, int size, long startMillis) {
+        this.tickMs = tickMs;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) slots.add(new ArrayList<>());
+        this.currentTick = startMillis / tickMs;
+    }
+
+    /** Agenda o item; instantes no passado caem no próximo tick. */
+    void schedule(T item, long dueMillis) {
+        long tick = Math.max(currentTick + 1, dueMillis / tickMs);
+        long ticksAhead = tick - currentTick;
+        long rounds = (ticksAhead - 1) / slots.size();
+        slots.get((int) (tick % slots.size())).add(new Entry<>(item, rounds));
+    }
+
+    /** Avança até {@code nowMillis} e devolve os itens vencidos, em ordem de tick. */
+    List<T> advance(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        long target = nowMillis / tickMs;
+        while (currentTick < target) {
+            currentTick++;
+            List<Entry<T>> slot = slots.get((int) (currentTick % slots.size()));
+            for (Iterator<Entry<T>> it = slot.iterator(); it.hasNext(); ) {
+                Entry<T> e = it.next();
+                if (e.rounds() == 0) {
+                    due.add(e.item());
+                    it.remove();
+                }
+            }
+            // as voltas restantes só diminuem quando o slot é visitado
+            slot.replaceAll(e -> new Entry<>(e.item(), e.rounds() - 1));
+        }
+        return due;
+    }
+
+    void clear() {
+        slots.forEach(List::clear);
+    }
+}
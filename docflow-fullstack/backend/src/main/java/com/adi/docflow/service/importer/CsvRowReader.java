@@ -0,0 +1,110 @@
+package com.adi.docflow.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV em streaming (RFC 4180: aspas, aspas dobradas e quebras de linha dentro
+ * de campos). O separador é ',' ou ';' (padrão do Excel em pt-BR), detectado
+ * na primeira linha; BOM UTF-8 é ignorado.
+ */
+public class CsvRowReader implements RowReader {
+
+    private final Reader in;
+    private char delimiter;
+    private boolean delimiterKnown;
+    private int pushedBack = -2;
+
+    public CsvRowReader(Reader in) {
+        this.in = in instanceof BufferedReader ? in : new BufferedReader(in);
+    }
+
+    public CsvRowReader(Reader in, char delimiter) {
+        this(in);
+        this.delimiter = delimiter;
+        this.delimiterKnown = true;
+    }
+
+    public static CsvRowReader open(Path file) throws IOException {
+        return new CsvRowReader(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        int c = read();
+        if (c == 0xFEFF) c = read();
+        if (c == -1) return null;
+
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (c == -1) break;
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        cell.append('"');
+                    } else {
+                        quoted = false;
+                        c = n;
+                        continue;
+                    }
+                } else {
+                    cell.append(ch);
+                }
+            } else if (ch == '"' && cell.isEmpty()) {
+                quoted = true;
+            } else if (ch == '\r' || ch == '\n') {
+                if (ch == '\r') {
+                    int n = read();
+                    if (n != '\n') unread(n);
+                }
+                break;
+            } else if (!delimiterKnown && (ch == ',' || ch == ';')) {
+                // primeira linha: o separador é o primeiro ',' ou ';' fora de aspas
+                delimiter = ch;
+                delimiterKnown = true;
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (delimiterKnown && ch == delimiter) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(ch);
+            }
+            c = read();
+        }
+        cells.add(cell.toString());
+        if (!delimiterKnown) {
+            delimiter = ',';
+            delimiterKnown = true;
+        }
+        return cells;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
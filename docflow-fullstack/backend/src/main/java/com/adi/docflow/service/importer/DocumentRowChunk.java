@@ -0,0 +1,71 @@
+package com.adi.docflow.service.importer;
+
+import com.adi.docflow.service.DocumentImportWriter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Chunk em montagem de uma importação de documentos, comum ao job
+ * IMPORT_DOCUMENTS e ao upload: converte as linhas com o
+ * {@link DocumentRowParser}, guarda o número de cada uma e, no
+ * {@link #drain()}, descarta as de projeto inexistente. Toda linha recusada
+ * chega em {@link Rejections} com o número da linha no arquivo.
+ */
+public final class DocumentRowChunk {
+
+    /** Destino das linhas recusadas: número da linha, conteúdo e motivo. */
+    @FunctionalInterface
+    public interface Rejections {
+        void reject(long rowNo, List<String> content, String message);
+    }
+
+    private final DocumentRowParser parser;
+    private final Function<Collection<Long>, Set<Long>> existingProjects;
+    private final Rejections rejections;
+    private final List<DocumentImportWriter.Row> rows;
+    // por instância: linhas repetidas no chunk são iguais como record, mas têm números distintos
+    private final Map<DocumentImportWriter.Row, Long> rowNumbers = new IdentityHashMap<>();
+
+    public DocumentRowChunk(DocumentRowParser parser, Function<Collection<Long>, Set<Long>> existingProjects,
+                            int capacity, Rejections rejections) {
+        this.parser = parser;
+        this.existingProjects = existingProjects;
+        this.rejections = rejections;
+        this.rows = new ArrayList<>(capacity);
+    }
+
+    /** Converte a linha {@code rowNo}; inválidas vão para {@link Rejections} com as células originais. */
+    public void add(long rowNo, List<String> cells) {
+        DocumentImportWriter.Row row = parser.parse(cells, message -> rejections.reject(rowNo, cells, message));
+        if (row != null) {
+            rows.add(row);
+            rowNumbers.put(row, rowNo);
+        }
+    }
+
+    /** Linhas válidas acumuladas desde o último {@link #drain()}. */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Esvazia o chunk.
+     * @return as linhas cujo projeto existe, na ordem do arquivo
+     */
+    public List<DocumentImportWriter.Row> drain() {
+        List<DocumentImportWriter.Row> valid = rows.isEmpty() ? List.of()
+                : parser.retainExistingProjects(rows, existingProjects, (r, message) -> rejections.reject(
+                        rowNumbers.get(r),
+                        List.of(String.valueOf(r.projectId()), r.code(), r.title(), String.valueOf(r.revision())),
+                        message));
+        rows.clear();
+        rowNumbers.clear();
+        return valid;
+    }
+}
@@ -0,0 +1,131 @@
+package com.adi.docflow.service.importer;
+
+import com.adi.docflow.service.DocumentImportWriter;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Regras de uma linha do registro de documentos, comuns ao job
+ * IMPORT_DOCUMENTS e ao upload em POST /api/v1/documents/import: colunas pelo
+ * cabeçalho, validação e cache dos projetos já consultados.
+ * Colunas reconhecidas: projectId, code, title, revision (também em
+ * português: projeto, codigo, titulo/nome, revisao). Havendo mais de uma
+ * coluna com o mesmo papel (ex.: "Título" e "Nome"), vale a primeira.
+ */
+public final class DocumentRowParser {
+
+    // tamanhos de app.document.code / app.document.name
+    private static final int MAX_CODE = 40;
+    private static final int MAX_TITLE = 180;
+
+    private final Long defaultProject;
+    private final Set<Long> knownProjects = new HashSet<>();
+    private final Set<Long> missingProjects = new HashSet<>();
+    private int projectCol = -1, codeCol = -1, titleCol = -1, revisionCol = -1;
+
+    /** @param defaultProject projeto das linhas sem a coluna de projeto (pode ser nulo) */
+    public DocumentRowParser(List<String> header, Long defaultProject) {
+        this.defaultProject = defaultProject;
+        for (int i = 0; i < header.size(); i++) {
+            switch (normalize(header.get(i))) {
+                case "projectid", "project", "projeto", "idprojeto" -> { if (projectCol < 0) projectCol = i; }
+                case "code", "codigo", "documentcode" -> { if (codeCol < 0) codeCol = i; }
+                case "title", "name", "titulo", "nome" -> { if (titleCol < 0) titleCol = i; }
+                case "revision", "rev", "revisao" -> { if (revisionCol < 0) revisionCol = i; }
+                default -> { }
+            }
+        }
+        if (codeCol < 0 || titleCol < 0) {
+            throw new IllegalArgumentException("Cabeçalho sem as colunas obrigatórias code e title: " + header);
+        }
+        if (projectCol < 0 && defaultProject == null) {
+            throw new IllegalArgumentException("Sem coluna de projeto no arquivo e sem projectId informado");
+        }
+    }
+
+    /**
+     * Converte as células numa linha a gravar.
+     * @return null para linha em branco ou inválida (esta com o motivo em {@code onInvalid})
+     */
+    public DocumentImportWriter.Row parse(List<String> cells, Consumer<String> onInvalid) {
+        String code = cell(cells, codeCol);
+        String title = cell(cells, titleCol);
+        String projectStr = cell(cells, projectCol);
+        String revisionStr = cell(cells, revisionCol);
+        if (code.isEmpty() && title.isEmpty() && projectStr.isEmpty()) return null; // linha em branco
+
+        Long projectId = defaultProject;
+        try {
+            if (!projectStr.isEmpty()) projectId = new BigDecimal(projectStr).longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            return reject(onInvalid, "projectId inválido: " + projectStr);
+        }
+        if (projectId == null) return reject(onInvalid, "projectId é obrigatório");
+        if (code.isEmpty()) return reject(onInvalid, "code é obrigatório");
+        if (title.isEmpty()) return reject(onInvalid, "title é obrigatório");
+        if (code.length() > MAX_CODE) return reject(onInvalid, "code com mais de " + MAX_CODE + " caracteres");
+        if (title.length() > MAX_TITLE) title = title.substring(0, MAX_TITLE);
+        int revision = 1;
+        try {
+            if (!revisionStr.isEmpty()) revision = new BigDecimal(revisionStr).intValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            return reject(onInvalid, "revision inválida: " + revisionStr);
+        }
+        return new DocumentImportWriter.Row(projectId, code.toUpperCase(Locale.ROOT), title, revision);
+    }
+
+    /**
+     * Linhas do chunk cujo projeto existe; as demais vão para {@code onMissing}.
+     * Cada projeto é consultado em {@code lookup} uma única vez por importação.
+     */
+    public List<DocumentImportWriter.Row> retainExistingProjects(
+            List<DocumentImportWriter.Row> chunk,
+            Function<Collection<Long>, Set<Long>> lookup,
+            BiConsumer<DocumentImportWriter.Row, String> onMissing) {
+        Set<Long> unknown = new HashSet<>();
+        for (DocumentImportWriter.Row r : chunk) {
+            if (!knownProjects.contains(r.projectId()) && !missingProjects.contains(r.projectId())) {
+                unknown.add(r.projectId());
+            }
+        }
+        if (!unknown.isEmpty()) {
+            Set<Long> found = lookup.apply(unknown);
+            knownProjects.addAll(found);
+            unknown.removeAll(found);
+            missingProjects.addAll(unknown);
+        }
+        List<DocumentImportWriter.Row> valid = new ArrayList<>(chunk.size());
+        for (DocumentImportWriter.Row r : chunk) {
+            if (knownProjects.contains(r.projectId())) valid.add(r);
+            else onMissing.accept(r, "projectId " + r.projectId() + " não existe");
+        }
+        return valid;
+    }
+
+    private static DocumentImportWriter.Row reject(Consumer<String> onInvalid, String message) {
+        onInvalid.accept(message);
+        return null;
+    }
+
+    private static String cell(List<String> cells, int col) {
+        if (col < 0 || col >= cells.size() || cells.get(col) == null) return "";
+        return cells.get(col).trim();
+    }
+
+    // "Código" / "project_id" / "Project ID" -> "codigo" / "projectid" / "projectid"
+    private static String normalize(String header) {
+        String s = Normalizer.normalize(header == null ? "" : header, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        return s.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+}
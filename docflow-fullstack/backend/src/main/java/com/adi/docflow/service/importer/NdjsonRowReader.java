@@ -0,0 +1,67 @@
+package com.adi.docflow.service.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NDJSON em streaming (um objeto JSON por linha) visto como planilha: a
+ * primeira chamada de {@link #next()} devolve o cabeçalho {@code columns} e as
+ * seguintes, os valores desses campos em cada linha. Linha em branco vira
+ * linha vazia, para a numeração seguir a do arquivo.
+ */
+public class NdjsonRowReader implements RowReader {
+
+    /** Linha que não é um objeto JSON; já consumida, a leitura pode continuar. */
+    public static final class InvalidLineException extends IOException {
+        InvalidLineException(String message) {
+            super(message);
+        }
+    }
+
+    private final BufferedReader in;
+    private final ObjectMapper objectMapper;
+    private final List<String> columns;
+    private boolean headerSent;
+
+    public NdjsonRowReader(Reader in, ObjectMapper objectMapper, List<String> columns) {
+        this.in = in instanceof BufferedReader b ? b : new BufferedReader(in);
+        this.objectMapper = objectMapper;
+        this.columns = columns;
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        if (!headerSent) {
+            headerSent = true;
+            return columns;
+        }
+        String line = in.readLine();
+        if (line == null) return null;
+        if (line.isBlank()) return List.of();
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new InvalidLineException("JSON inválido (" + e.getOriginalMessage() + ")");
+        }
+        if (node == null || !node.isObject()) throw new InvalidLineException("linha não é um objeto JSON");
+        List<String> cells = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            JsonNode value = node.get(column);
+            cells.add(value == null || value.isNull() ? "" : value.asText());
+        }
+        return cells;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
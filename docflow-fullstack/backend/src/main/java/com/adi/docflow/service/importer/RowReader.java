@@ -0,0 +1,30 @@
+package com.adi.docflow.service.importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Leitura sequencial de uma planilha, uma linha por vez: nenhuma implementação
+ * carrega o arquivo inteiro, então o consumo de memória não depende do número de linhas.
+ */
+public interface RowReader extends AutoCloseable {
+
+    /** Próxima linha (células como texto, vazias como ""), ou null no fim do arquivo. */
+    List<String> next() throws IOException;
+
+    /** Linhas de dados previstas (sem o cabeçalho), ou -1 se o formato não informa. */
+    default long estimatedRows() { return -1; }
+
+    @Override
+    void close() throws IOException;
+
+    /** Abre pelo sufixo do arquivo: .csv/.txt ou .xlsx. */
+    static RowReader open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".xlsx")) return new XlsxRowReader(file);
+        if (name.endsWith(".csv") || name.endsWith(".txt")) return CsvRowReader.open(file);
+        throw new IllegalArgumentException("Formato não suportado (use .csv ou .xlsx): " + file.getFileName());
+    }
+}
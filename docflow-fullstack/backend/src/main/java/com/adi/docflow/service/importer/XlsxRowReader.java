@@ -0,0 +1,204 @@
+package com.adi.docflow.service.importer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Primeira aba de um .xlsx lida com StAX direto do zip, sem Apache POI e sem
+ * montar a planilha em memória. Só a tabela de shared strings fica carregada
+ * (textos distintos do arquivo), as linhas são lidas uma a uma.
+ */
+public class XlsxRowReader implements RowReader {
+
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final XMLInputFactory XML = XMLInputFactory.newFactory();
+    static {
+        XML.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final ZipFile zip;
+    private final List<String> sharedStrings;
+    private final InputStream sheetIn;
+    private final XMLStreamReader sheet;
+    private long estimatedRows = -1;
+
+    public XlsxRowReader(Path file) throws IOException {
+        this.zip = new ZipFile(file.toFile());
+        try {
+            this.sharedStrings = readSharedStrings();
+            ZipEntry entry = zip.getEntry(firstSheetPath());
+            if (entry == null) throw new IOException("Planilha sem abas: " + file.getFileName());
+            this.sheetIn = zip.getInputStream(entry);
+            this.sheet = XML.createXMLStreamReader(sheetIn);
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            zip.close();
+            throw e instanceof IOException io ? io : new IOException("XLSX inválido: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long estimatedRows() {
+        return estimatedRows;
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                int ev = sheet.next();
+                if (ev != XMLStreamConstants.START_ELEMENT) continue;
+                String name = sheet.getLocalName();
+                if ("dimension".equals(name)) {
+                    estimatedRows = rowsOf(sheet.getAttributeValue(null, "ref"));
+                } else if ("row".equals(name)) {
+                    return readRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("XLSX inválido: " + e.getMessage(), e);
+        }
+    }
+
+    private List<String> readRow() throws XMLStreamException {
+        List<String> cells = new ArrayList<>();
+        while (sheet.hasNext()) {
+            int ev = sheet.next();
+            if (ev == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) break;
+            if (ev != XMLStreamConstants.START_ELEMENT || !"c".equals(sheet.getLocalName())) continue;
+
+            // células vazias não aparecem no XML: a posição vem da referência (ex.: "C12")
+            int col = columnOf(sheet.getAttributeValue(null, "r"), cells.size());
+            while (cells.size() < col) cells.add("");
+            cells.add(readCell(sheet.getAttributeValue(null, "t")));
+        }
+        return cells;
+    }
+
+    private String readCell(String type) throws XMLStreamException {
+        StringBuilder value = new StringBuilder();
+        while (sheet.hasNext()) {
+            int ev = sheet.next();
+            if (ev == XMLStreamConstants.END_ELEMENT && "c".equals(sheet.getLocalName())) break;
+            if (ev == XMLStreamConstants.START_ELEMENT
+                    && ("v".equals(sheet.getLocalName()) || "t".equals(sheet.getLocalName()))) {
+                value.append(sheet.getElementText());
+            }
+        }
+        String v = value.toString();
+        if ("s".equals(type) && !v.isEmpty()) {
+            int idx = Integer.parseInt(v.trim());
+            return idx < sharedStrings.size() ? sharedStrings.get(idx) : "";
+        }
+        if ("b".equals(type)) return "1".equals(v) ? "TRUE" : "FALSE";
+        return v;
+    }
+
+    private List<String> readSharedStrings() throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry("xl/sharedStrings.xml");
+        if (entry == null) return strings;
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader r = XML.createXMLStreamReader(in);
+            StringBuilder current = null;
+            while (r.hasNext()) {
+                int ev = r.next();
+                if (ev == XMLStreamConstants.START_ELEMENT) {
+                    if ("si".equals(r.getLocalName())) current = new StringBuilder();
+                    // texto fonético (rPh) não faz parte do valor
+                    else if ("rPh".equals(r.getLocalName())) skip(r, "rPh");
+                    else if ("t".equals(r.getLocalName()) && current != null) current.append(r.getElementText());
+                } else if (ev == XMLStreamConstants.END_ELEMENT && "si".equals(r.getLocalName()) && current != null) {
+                    strings.add(current.toString());
+                    current = null;
+                }
+            }
+            r.close();
+        }
+        return strings;
+    }
+
+    /** Caminho da primeira aba segundo workbook.xml e suas relações; sheet1.xml se não resolver. */
+    private String firstSheetPath() throws IOException, XMLStreamException {
+        String relId = null;
+        ZipEntry workbook = zip.getEntry("xl/workbook.xml");
+        if (workbook != null) {
+            try (InputStream in = zip.getInputStream(workbook)) {
+                XMLStreamReader r = XML.createXMLStreamReader(in);
+                while (r.hasNext() && relId == null) {
+                    if (r.next() == XMLStreamConstants.START_ELEMENT && "sheet".equals(r.getLocalName())) {
+                        relId = r.getAttributeValue(REL_NS, "id");
+                    }
+                }
+                r.close();
+            }
+        }
+        ZipEntry rels = zip.getEntry("xl/_rels/workbook.xml.rels");
+        if (relId != null && rels != null) {
+            Map<String, String> targets = new HashMap<>();
+            try (InputStream in = zip.getInputStream(rels)) {
+                XMLStreamReader r = XML.createXMLStreamReader(in);
+                while (r.hasNext()) {
+                    if (r.next() == XMLStreamConstants.START_ELEMENT && "Relationship".equals(r.getLocalName())) {
+                        targets.put(r.getAttributeValue(null, "Id"), r.getAttributeValue(null, "Target"));
+                    }
+                }
+                r.close();
+            }
+            String target = targets.get(relId);
+            if (target != null) return target.startsWith("/") ? target.substring(1) : "xl/" + target;
+        }
+        return "xl/worksheets/sheet1.xml";
+    }
+
+    private static void skip(XMLStreamReader r, String element) throws XMLStreamException {
+        while (r.hasNext()) {
+            if (r.next() == XMLStreamConstants.END_ELEMENT && element.equals(r.getLocalName())) return;
+        }
+    }
+
+    // "C12" -> 2 (0-based); sem referência, a célula segue a anterior
+    private static int columnOf(String ref, int fallback) {
+        if (ref == null) return fallback;
+        int col = 0;
+        for (int i = 0; i < ref.length() && Character.isLetter(ref.charAt(i)); i++) {
+            col = col * 26 + (Character.toUpperCase(ref.charAt(i)) - 'A' + 1);
+        }
+        return col == 0 ? fallback : col - 1;
+    }
+
+    // "A1:D200001" -> 200000 linhas de dados
+    private static long rowsOf(String ref) {
+        if (ref == null || !ref.contains(":")) return -1;
+        String last = ref.substring(ref.indexOf(':') + 1).replaceAll("[A-Za-z$]", "");
+        try {
+            return Math.max(Long.parseLong(last) - 1, 0);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException ignored) {
+            // o zip abaixo é fechado de qualquer forma
+        } finally {
+            try { sheetIn.close(); } finally { zip.close(); }
+        }
+    }
+}
@@ -1,12 +1,53 @@
 package com.adi.docflow.service.processor;
 
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.config.DocumentImportProperties;
 import com.adi.docflow.job.JobType;
 import com.adi.docflow.model.AutomationJob;
+import com.adi.docflow.service.DocumentImportWriter;
+import com.adi.docflow.service.importer.DocumentRowChunk;
+import com.adi.docflow.service.importer.DocumentRowParser;
+import com.adi.docflow.service.importer.RowReader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Importa o registro de documentos de um arquivo local (.csv ou .xlsx).
+ * <p>
+ * Payload: {@code {"path": "cliente/lista.xlsx", "projectId": 12}}, com o
+ * caminho relativo a {@code app.jobs.document-import.base-dir} e
+ * {@code projectId} usado quando a planilha não tem a coluna de projeto.
+ * Colunas e validação das linhas em {@link DocumentRowParser}.
+ * <p>
+ * O arquivo é lido em streaming e gravado em chunks, cada um na sua transação
+ * junto com o checkpoint do job; uma nova tentativa pula as linhas até o
+ * checkpoint. Linhas inválidas e documentos já existentes são ignorados.
+ */
 @Component
 public class ImportDocumentsProcessor implements JobProcessor {
 
+    private static final Logger log = LoggerFactory.getLogger(ImportDocumentsProcessor.class);
+
+    private final DocumentImportWriter writer;
+    private final DocumentImportProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public ImportDocumentsProcessor(DocumentImportWriter writer,
+                                    AutomationJobProperties properties,
+                                    ObjectMapper objectMapper) {
+        this.writer = writer;
+        this.properties = properties.getDocumentImport();
+        this.objectMapper = objectMapper;
+    }
+
     @Override
     public JobType getType() {
         return JobType.IMPORT_DOCUMENTS;
@@ -14,7 +55,105 @@ public class ImportDocumentsProcessor implements JobProcessor {
 
     @Override
     public void process(AutomationJob job) throws Exception {
-        // TODO: plugar integração (ex.: Box/SharePoint/cliente) usando o payload.
-        Thread.sleep(500);
+        process(job, new JobContext() {
+            @Override public void reportProgress(long processed, long total) { }
+            @Override public boolean isStopRequested() { return false; }
+        });
+    }
+
+    @Override
+    public void process(AutomationJob job, JobContext context) throws Exception {
+        JsonNode payload = objectMapper.readTree(job.getPayload() == null ? "{}" : job.getPayload());
+        Path file = resolve(payload.path("path").asText(null));
+        Long defaultProject = payload.hasNonNull("projectId") ? payload.get("projectId").asLong() : null;
+        long checkpoint = job.getCheckpointRow() == null ? 0 : job.getCheckpointRow();
+        int chunkSize = Math.max(properties.getChunkSize(), 1);
+
+        Import run = new Import(job);
+        try (RowReader reader = RowReader.open(file)) {
+            List<String> header = reader.next();
+            if (header == null) {
+                log.info("Job {}: arquivo {} vazio", job.getUuid(), file.getFileName());
+                return;
+            }
+            DocumentRowChunk chunk = new DocumentRowChunk(new DocumentRowParser(header, defaultProject),
+                    writer::existingProjects, chunkSize, (rowNo, content, message) -> run.reject(rowNo, message));
+            long total = reader.estimatedRows();
+            if (checkpoint > 0) {
+                log.info("Job {}: retomando {} após a linha {}", job.getUuid(), file.getFileName(), checkpoint);
+            }
+
+            long rowNo = 0;
+            List<String> cells;
+            while ((cells = reader.next()) != null) {
+                rowNo++;
+                if (context.isStopRequested()) {
+                    throw new InterruptedException("Importação interrompida na linha " + rowNo);
+                }
+                if (rowNo <= checkpoint) {
+                    if (rowNo % chunkSize == 0) context.reportProgress(rowNo, total);
+                    continue;
+                }
+                chunk.add(rowNo, cells);
+                if (rowNo - checkpoint >= chunkSize) {
+                    checkpoint = run.flush(chunk, rowNo);
+                    context.reportProgress(rowNo, total);
+                }
+            }
+            if (rowNo > checkpoint) run.flush(chunk, rowNo);
+            context.reportProgress(rowNo, rowNo);
+            log.info("Job {}: importação de {} concluída; {} linhas, {} documentos criados, {} já existentes, {} inválidas",
+                    job.getUuid(), file.getFileName(), rowNo, run.inserted, run.existing, run.invalid);
+        }
+    }
+
+    /** Resolve o caminho do payload dentro do diretório base, recusando qualquer saída dele. */
+    private Path resolve(String path) throws IOException {
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("Payload sem 'path' do arquivo a importar");
+        }
+        Path base = properties.getBaseDir().toAbsolutePath().normalize();
+        Path file = base.resolve(path).normalize();
+        if (!file.startsWith(base)) {
+            throw new IllegalArgumentException("Arquivo fora do diretório de importação: " + path);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Arquivo não encontrado: " + path);
+        }
+        // links simbólicos não podem apontar para fora do diretório base
+        if (!file.toRealPath().startsWith(base.toRealPath())) {
+            throw new IllegalArgumentException("Arquivo fora do diretório de importação: " + path);
+        }
+        return file;
+    }
+
+    /** Contadores de uma execução e log das linhas recusadas. */
+    private final class Import {
+
+        private final AutomationJob job;
+        private long inserted, existing, invalid;
+
+        Import(AutomationJob job) {
+            this.job = job;
+        }
+
+        /** Grava as linhas válidas do chunk e devolve o novo checkpoint. */
+        long flush(DocumentRowChunk chunk, long rowNo) {
+            List<DocumentImportWriter.Row> valid = chunk.drain();
+            int written = writer.writeChunk(job.getId(), valid, rowNo);
+            inserted += written;
+            existing += valid.size() - written;
+            return rowNo;
+        }
+
+        void reject(long rowNo, String message) {
+            invalid++;
+            if (invalid <= properties.getMaxLoggedErrors()) {
+                log.warn("Job {}: linha {} ignorada: {}", job.getUuid(), rowNo, message);
+            } else if (invalid == properties.getMaxLoggedErrors() + 1) {
+                log.warn("Job {}: limite de erros detalhados atingido; demais linhas inválidas só serão contadas",
+                        job.getUuid());
+            }
+        }
     }
 }
@@ -0,0 +1,18 @@
+package com.adi.docflow.service.processor;
+
+/**
+ * Canal do processor com o runner durante a execução de um job.
+ */
+public interface JobContext {
+
+    /**
+     * Informa o progresso ({@code total} pode ser -1 se desconhecido). Chamadas
+     * frequentes são baratas: o runner só grava no banco a cada
+     * {@code app.jobs.progress-flush-items} itens ou
+     * {@code app.jobs.progress-flush-interval}, o que vier primeiro.
+     */
+    void reportProgress(long processed, long total);
+
+    /** Cancelamento ou timeout pedido; processors longos devem checar entre itens e parar. */
+    boolean isStopRequested();
+}
@@ -5,5 +5,11 @@ import com.adi.docflow.job.JobType;
 
 public interface JobProcessor {
     JobType getType();
+
     void process(AutomationJob job) throws Exception;
+
+    /** Processors que reportam progresso sobrescrevem esta variante; o runner sempre chama ela. */
+    default void process(AutomationJob job, JobContext context) throws Exception {
+        process(job);
+    }
 }
@@ -0,0 +1,364 @@
+package com.adi.docflow.service.search;
+
+import com.adi.docflow.config.DocumentSearchProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Índice textual embarcado (Lucene) sobre código, título, descrição, espécie e
+ * nome do projeto dos documentos. Substitui o {@code LIKE '%q%'} das listagens
+ * (varredura da tabela inteira) por uma busca no índice que devolve só os ids;
+ * os demais filtros, a ordenação e a paginação continuam no banco, via
+ * {@code id IN (...)}.
+ * <p>
+ * Cada termo da busca casa por prefixo de palavra em qualquer campo, sem
+ * acento e sem caixa; a busca inteira também casa com qualquer trecho do
+ * código (como o LIKE: "BC-12" acha "ABC-123"). Diferente do LIKE, título e
+ * nome do projeto casam só por início de palavra ("lanta" não acha "Planta"),
+ * e espécie e descrição também entram na busca.
+ * <p>
+ * Se a busca casa com mais de {@code app.search.max-hits} documentos,
+ * {@link #search} devolve vazio e a listagem usa o LIKE: um {@code IN (...)}
+ * cortado erraria o total, as páginas e a exportação. Escritas de
+ * documento publicam {@link DocumentsChangedEvent} e o índice relê essas linhas
+ * depois do commit. Na subida o índice é reconstruído a partir de
+ * {@code app.document} em segundo plano; até terminar, {@link #search} devolve
+ * vazio e as listagens usam o LIKE.
+ */
+@Component
+public class DocumentSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentSearchIndex.class);
+
+    // IN (...) no SQL Server: 2100 parâmetros, menos folga para os demais filtros
+    static final int MAX_HITS_LIMIT = 2000;
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final int IDS_PER_STATEMENT = 1000;
+
+    private static final String ID = "id";
+    private static final String CODE_KEYWORD = "code_kw";
+    // campo -> peso
+    private static final Map<String, Float> TEXT_FIELDS = new LinkedHashMap<>();
+    static {
+        TEXT_FIELDS.put("code", 3f);
+        TEXT_FIELDS.put("title", 2f);
+        TEXT_FIELDS.put("project", 1.5f);
+        TEXT_FIELDS.put("species", 1f);
+        TEXT_FIELDS.put("description", 1f);
+    }
+
+    // colunas na ordem de TEXT_FIELDS, depois do id
+    private static final String SELECT_SQL = """
+        SELECT d.id, d.code, d.name, p.name, d.species, d.description
+        FROM app.document d
+        LEFT JOIN app.project p ON p.id = d.project_id
+        """;
+
+    private final DocumentSearchProperties properties;
+    private final JdbcTemplate jdbc;
+    private final Analyzer analyzer = new DocumentAnalyzer();
+
+    private FSDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searchers;
+    private volatile boolean ready;
+
+    // ids a (re)indexar: alterados durante a reconstrução ou cuja indexação falhou
+    private final Object pendingLock = new Object();
+    private Set<Long> pending = new HashSet<>();
+    private boolean rebuilding;
+
+    public DocumentSearchIndex(DocumentSearchProperties properties, JdbcTemplate jdbc) {
+        this.properties = properties;
+        this.jdbc = jdbc;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!properties.isEnabled()) return;
+        Files.createDirectories(properties.getIndexDir());
+        directory = FSDirectory.open(properties.getIndexDir());
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searchers = new SearcherManager(writer, null);
+        boolean empty = writer.getDocStats().numDocs == 0;
+        if (!properties.isRebuildOnStartup() && !empty) ready = true;
+    }
+
+    /** Reconstrução em segundo plano, depois das migrações e sem atrasar a subida. */
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        if (writer == null || ready) return;
+        Thread thread = new Thread(this::rebuild, "search-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (writer == null) return;
+        searchers.close();
+        synchronized (pendingLock) {
+            // reconstrução pela metade não vai para o disco: a próxima subida refaz
+            if (rebuilding) writer.rollback();
+            else writer.close();
+        }
+        directory.close();
+    }
+
+    // ============================== BUSCA ==============================
+
+    /**
+     * Ids de todos os documentos que casam com {@code q}, em ordem de relevância.
+     * @return vazio se o índice está desligado, ainda não está pronto ou se há
+     *         mais de {@code app.search.max-hits} resultados (o chamador usa o LIKE)
+     */
+    public Optional<List<Long>> search(String q) {
+        if (!ready || q == null || q.isBlank()) return Optional.empty();
+        try {
+            Query query = parse(q.trim());
+            IndexSearcher searcher = searchers.acquire();
+            try {
+                int limit = Math.min(Math.max(properties.getMaxHits(), 1), MAX_HITS_LIMIT);
+                TopDocs top = searcher.search(query, limit + 1);
+                if (top.scoreDocs.length > limit) return Optional.empty();
+                StoredFields stored = searcher.storedFields();
+                List<Long> ids = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc hit : top.scoreDocs) {
+                    ids.add(Long.parseLong(stored.document(hit.doc, Set.of(ID)).get(ID)));
+                }
+                return Optional.of(ids);
+            } finally {
+                searchers.release(searcher);
+            }
+        } catch (IOException e) {
+            log.warn("Busca no índice falhou, usando o banco: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // todo termo precisa casar (prefixo, em algum campo); ou a busca inteira é um trecho do código
+    private Query parse(String q) throws IOException {
+        BooleanQuery.Builder allTerms = new BooleanQuery.Builder();
+        int terms = 0;
+        try (TokenStream tokens = analyzer.tokenStream("q", q)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken() && terms < MAX_QUERY_TERMS) {
+                BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+                for (Map.Entry<String, Float> field : TEXT_FIELDS.entrySet()) {
+                    Query prefix = new PrefixQuery(new Term(field.getKey(), term.toString()));
+                    anyField.add(new BoostQuery(prefix, field.getValue()), BooleanClause.Occur.SHOULD);
+                }
+                allTerms.add(anyField.build(), BooleanClause.Occur.MUST);
+                terms++;
+            }
+            tokens.end();
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        if (terms > 0) query.add(allTerms.build(), BooleanClause.Occur.SHOULD);
+        Query wholeCode = new PrefixQuery(new Term(CODE_KEYWORD, analyzer.normalize(CODE_KEYWORD, q)));
+        query.add(new BoostQuery(wholeCode, 4f), BooleanClause.Occur.SHOULD);
+        return query.build();
+    }
+
+    // ============================== ATUALIZAÇÃO ==============================
+
+    /** Relê do banco os documentos alterados, depois do commit da escrita. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentsChanged(DocumentsChangedEvent event) {
+        if (writer == null || event.ids().isEmpty()) return;
+        synchronized (pendingLock) {
+            if (rebuilding) {
+                pending.addAll(event.ids());
+                return;
+            }
+        }
+        reindex(event.ids());
+    }
+
+    /** Reaplica pendências e grava o índice em disco (entre commits a busca já vê as mudanças). */
+    @Scheduled(fixedDelayString = "${app.search.commit-interval-ms:5000}", initialDelay = 5000L)
+    void flush() {
+        if (writer == null) return;
+        Set<Long> retry;
+        synchronized (pendingLock) {
+            if (rebuilding || pending.isEmpty()) retry = Set.of();
+            else {
+                retry = pending;
+                pending = new HashSet<>();
+            }
+        }
+        if (!retry.isEmpty()) reindex(retry);
+        try {
+            synchronized (pendingLock) {
+                if (!rebuilding && writer.hasUncommittedChanges()) writer.commit();
+            }
+        } catch (IOException e) {
+            log.warn("Commit do índice de busca falhou: {}", e.getMessage());
+        }
+    }
+
+    private void reindex(Collection<Long> ids) {
+        try {
+            Set<Long> missing = new HashSet<>(ids);
+            List<Long> list = new ArrayList<>(missing);
+            for (int from = 0; from < list.size(); from += IDS_PER_STATEMENT) {
+                List<Long> chunk = list.subList(from, Math.min(from + IDS_PER_STATEMENT, list.size()));
+                jdbc.query(SELECT_SQL + " WHERE d.id IN ("
+                                + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                        rs -> {
+                            missing.remove(rs.getLong(1));
+                            update(rs);
+                        }, chunk.toArray());
+            }
+            // apagados no banco saem do índice
+            for (Long id : missing) writer.deleteDocuments(new Term(ID, String.valueOf(id)));
+            searchers.maybeRefreshBlocking();
+        } catch (RuntimeException | IOException e) {
+            log.warn("Indexação de {} documento(s) falhou, nova tentativa no próximo flush: {}", ids.size(), e.getMessage());
+            synchronized (pendingLock) {
+                pending.addAll(ids);
+            }
+        }
+    }
+
+    /**
+     * Apaga o índice e relê {@code app.document} inteira num cursor forward-only.
+     * As alterações que chegam nesse meio tempo ficam pendentes e são
+     * reaplicadas no fim, por cima das linhas lidas antes delas.
+     */
+    void rebuild() {
+        synchronized (pendingLock) {
+            rebuilding = true;
+            ready = false;
+        }
+        long start = System.nanoTime();
+        long[] count = {0};
+        try {
+            writer.deleteAll();
+            jdbc.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(properties.getRebuildFetchSize());
+                return ps;
+            }, rs -> {
+                try {
+                    writer.addDocument(toDocument(rs));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+            Set<Long> changed;
+            synchronized (pendingLock) {
+                writer.commit();
+                rebuilding = false;
+                changed = pending;
+                pending = new HashSet<>();
+            }
+            if (!changed.isEmpty()) reindex(changed);
+            searchers.maybeRefreshBlocking();
+            ready = true;
+            log.info("Índice de busca reconstruído: {} documentos em {} ms",
+                    count[0], (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException | IOException e) {
+            synchronized (pendingLock) {
+                rebuilding = false;
+            }
+            log.error("Reconstrução do índice de busca falhou após {} documentos; buscas seguem no banco", count[0], e);
+        }
+    }
+
+    private void update(ResultSet rs) throws SQLException {
+        try {
+            writer.updateDocument(new Term(ID, String.valueOf(rs.getLong(1))), toDocument(rs));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Document toDocument(ResultSet rs) throws SQLException {
+        Document doc = new Document();
+        doc.add(new StringField(ID, String.valueOf(rs.getLong(1)), Field.Store.YES));
+        int column = 2;
+        for (String field : TEXT_FIELDS.keySet()) {
+            String value = rs.getString(column++);
+            if (value != null && !value.isBlank()) doc.add(new TextField(field, value, Field.Store.NO));
+        }
+        String code = rs.getString(2);
+        if (code != null) {
+            // todos os sufixos: prefixo de um sufixo = trecho do código (code tem até 40 caracteres)
+            String normalized = analyzer.normalize(CODE_KEYWORD, code.trim()).utf8ToString();
+            for (int i = 0; i < normalized.length(); i++) {
+                if (Character.isLowSurrogate(normalized.charAt(i))) continue;
+                doc.add(new StringField(CODE_KEYWORD, normalized.substring(i), Field.Store.NO));
+            }
+        }
+        return doc;
+    }
+
+    /** Palavras (StandardTokenizer) sem caixa e sem acento: "Elétrica" casa com "eletr". */
+    private static final class DocumentAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer source = new StandardTokenizer();
+            return new TokenStreamComponents(source, new ASCIIFoldingFilter(new LowerCaseFilter(source)));
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.adi.docflow.service.search;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Documentos criados ou alterados; publicado dentro da transação da escrita e
+ * aplicado ao índice de busca depois do commit.
+ */
+public record DocumentsChangedEvent(Collection<Long> ids) {
+
+    public static DocumentsChangedEvent of(Long id) {
+        return new DocumentsChangedEvent(List.of(id));
+    }
+}
@@ -6,6 +6,7 @@ import com.adi.docflow.model.Request;
 import com.adi.docflow.model.RequestDocument;
 import com.adi.docflow.model.RequestStatus;
 
+import com.adi.docflow.repository.DocumentListRepository;
 import com.adi.docflow.repository.DocumentRepository;
 import com.adi.docflow.repository.ProjectRepository;
 import com.adi.docflow.repository.ProjectLookupRepository;
@@ -15,16 +16,36 @@ import com.adi.docflow.repository.RequestDocumentRepository;
 import com.adi.docflow.repository.RequestRepository;
 
 import com.adi.docflow.service.DocumentService;
+import com.adi.docflow.service.DocumentUploadImporter;
+import com.adi.docflow.service.search.DocumentSearchIndex;
+import com.adi.docflow.service.search.DocumentsChangedEvent;
 import com.adi.docflow.web.dto.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.*;
@@ -36,6 +57,13 @@ import static org.springframework.http.HttpStatus.*;
 @RequestMapping("/api/v1")
 public class DocumentController {
 
+    // linhas por ida ao banco no cursor da exportação
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final String NDJSON = "application/x-ndjson";
+    private static final List<String> EXPORT_COLUMNS = List.of(
+            "id", "code", "title", "revision", "format", "currentLocation", "status",
+            "updatedAt", "projectId", "projectName", "uploadHash");
+
     private final DocumentRepository docRepo;
     private final ProjectRepository projectRepo;
     private final ProjectLookupRepository projectLookupRepo;
@@ -44,6 +72,10 @@ public class DocumentController {
     private final DocumentService documentService;
     private final RequestDocumentRepository reqDocRepo;
     private final RequestRepository requestRepo;
+    private final DocumentSearchIndex searchIndex;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+    private final DocumentUploadImporter uploadImporter;
 
     public DocumentController(
             DocumentRepository docRepo,
@@ -53,7 +85,11 @@ public class DocumentController {
             DocTypeLookupRepository docTypeLookupRepo,
             DocumentService documentService,
             RequestDocumentRepository reqDocRepo,
-            RequestRepository requestRepo
+            RequestRepository requestRepo,
+            DocumentSearchIndex searchIndex,
+            ApplicationEventPublisher events,
+            ObjectMapper objectMapper,
+            DocumentUploadImporter uploadImporter
     ) {
         this.docRepo = docRepo;
         this.projectRepo = projectRepo;
@@ -63,6 +99,10 @@ public class DocumentController {
         this.documentService = documentService;
         this.reqDocRepo = reqDocRepo;
         this.requestRepo = requestRepo;
+        this.searchIndex = searchIndex;
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.uploadImporter = uploadImporter;
     }
 
     // ============================ LISTAGEM ============================
@@ -82,7 +122,7 @@ public class DocumentController {
     ) {
         Pageable pageable = buildPageable(page, size, sort);
         Specification<Document> spec = buildSpec(projectId, clientId, disciplineId, documentTypeId, status, location, q);
-        return docRepo.findAll(spec, pageable).map(this::toListItem);
+        return docRepo.findListItems(spec, pageable);
     }
 
     @GetMapping("/projects/{projectId}/documents")
@@ -101,7 +141,108 @@ public class DocumentController {
     ) {
         Pageable pageable = buildPageable(page, size, sort);
         Specification<Document> spec = buildSpec(projectId, clientId, disciplineId, documentTypeId, status, location, q);
-        return docRepo.findAll(spec, pageable).map(this::toListItem);
+        return docRepo.findListItems(spec, pageable);
+    }
+
+    // ====================== LISTAGEM POR CURSOR (scroll infinito) ======================
+    // Mesmos filtros e sort das listagens acima, mas sem COUNT nem OFFSET: cada página
+    // continua do cursor (última chave de ordenação + id), em tempo constante.
+    @GetMapping("/documents/scroll")
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public CursorPage<DocumentListItemDTO> scrollDocuments(
+            @RequestParam(value = "projectId", required = false) Long projectId,
+            @RequestParam(value = "clientId", required = false) Long clientId,
+            @RequestParam(value = "disciplineId", required = false) Long disciplineId,
+            @RequestParam(value = "documentTypeId", required = false) Long documentTypeId,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") Integer size,
+            @RequestParam(value = "sort", defaultValue = "updatedAt,desc") String sort
+    ) {
+        Specification<Document> spec = buildSpec(projectId, clientId, disciplineId, documentTypeId, status, location, q);
+        return scroll(spec, cursor, size, sort);
+    }
+
+    @GetMapping("/projects/{projectId}/documents/scroll")
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public CursorPage<DocumentListItemDTO> scrollByProject(
+            @PathVariable Long projectId,
+            @RequestParam(value = "clientId", required = false) Long clientId,
+            @RequestParam(value = "disciplineId", required = false) Long disciplineId,
+            @RequestParam(value = "documentTypeId", required = false) Long documentTypeId,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") Integer size,
+            @RequestParam(value = "sort", defaultValue = "updatedAt,desc") String sort
+    ) {
+        Specification<Document> spec = buildSpec(projectId, clientId, disciplineId, documentTypeId, status, location, q);
+        return scroll(spec, cursor, size, sort);
+    }
+
+    // ============================ EXPORTAÇÃO ============================
+    /**
+     * Cadastro completo, com os mesmos filtros da listagem, em CSV (UTF-8 com BOM,
+     * separador vírgula) ou NDJSON. As linhas saem de um cursor forward-only direto
+     * para a resposta: a memória fica constante qualquer que seja o tamanho.
+     */
+    @GetMapping("/documents/export")
+    public ResponseEntity<StreamingResponseBody> exportDocuments(
+            @RequestParam(value = "projectId", required = false) Long projectId,
+            @RequestParam(value = "clientId", required = false) Long clientId,
+            @RequestParam(value = "disciplineId", required = false) Long disciplineId,
+            @RequestParam(value = "documentTypeId", required = false) Long documentTypeId,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "sort", defaultValue = "id,asc") String sort
+    ) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(BAD_REQUEST, "format deve ser csv ou ndjson");
+        }
+        Specification<Document> spec = buildSpec(projectId, clientId, disciplineId, documentTypeId, status, location, q);
+        Sort sortObj = KeysetCursor.withTiebreaker(parseSortMulti(sort));
+        try {
+            // o corpo roda depois do status 200; campo inválido tem que falhar aqui
+            for (Sort.Order order : sortObj) PropertyPath.from(order.getProperty(), Document.class);
+        } catch (PropertyReferenceException e) {
+            throw new ResponseStatusException(BAD_REQUEST, e.getMessage());
+        }
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            if (csv) {
+                writer.write('\uFEFF'); // Excel reconhece o UTF-8; o importador de CSV ignora o BOM
+                writer.write(String.join(",", EXPORT_COLUMNS));
+                writer.write("\r\n");
+            }
+            try {
+                docRepo.forEachListItem(spec, sortObj, EXPORT_FETCH_SIZE, item -> {
+                    try {
+                        if (csv) writeCsvRow(writer, item);
+                        else {
+                            writer.write(objectMapper.writeValueAsString(item));
+                            writer.write('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // cliente desconectou
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"documents." + (csv ? "csv" : "ndjson") + "\"")
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 
     // ============================== DETALHE (ID) ==============================
@@ -333,6 +474,7 @@ public class DocumentController {
 
         doc.setUpdatedAt(Instant.now());
         docRepo.save(doc);
+        events.publishEvent(DocumentsChangedEvent.of(doc.getId()));
 
         // ---- se a hash mudou -> atualizar Requests WAITING_CLIENT -> WAITING_ADM ----
         String newHash = doc.getUploadHash();
@@ -409,6 +551,7 @@ public class DocumentController {
 
         if (!toPersist.isEmpty()) {
             docRepo.saveAll(toPersist);
+            events.publishEvent(new DocumentsChangedEvent(toPersist.stream().map(Document::getId).toList()));
 
             Set<Long> touched = toPersist.stream()
                     .map(doc -> doc.getProject().getId())
@@ -429,9 +572,58 @@ public class DocumentController {
         return ResponseEntity.ok(report);
     }
 
+    /**
+     * Upload do registro (multipart, campo {@code file}) em CSV ou NDJSON, lido em
+     * streaming e gravado em chunks com batch JDBC. {@code projectId} vale para as
+     * linhas sem a coluna de projeto; {@code format} é deduzido da extensão ou do
+     * content type quando omitido. As linhas inválidas ficam no CSV de
+     * {@code errorReport}.
+     */
+    @PostMapping(value = "/documents/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<DocumentUploadReportDTO> importUpload(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "projectId", required = false) Long projectId,
+            @RequestParam(value = "format", required = false) String format
+    ) throws IOException {
+        if (file.isEmpty()) throw new ResponseStatusException(BAD_REQUEST, "arquivo vazio");
+        boolean ndjson;
+        if (format != null && !format.isBlank()) {
+            ndjson = "ndjson".equalsIgnoreCase(format);
+            if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+                throw new ResponseStatusException(BAD_REQUEST, "format deve ser csv ou ndjson");
+            }
+        } else {
+            String name = Optional.ofNullable(file.getOriginalFilename()).orElse("").toLowerCase(Locale.ROOT);
+            ndjson = name.endsWith(".ndjson") || name.endsWith(".jsonl") || NDJSON.equals(file.getContentType());
+        }
+
+        DocumentUploadImporter.Result result;
+        try (var in = file.getInputStream()) {
+            result = uploadImporter.importFile(in, ndjson, projectId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(BAD_REQUEST, e.getMessage());
+        }
+        String report = result.reportId() == null ? null : "/api/v1/documents/import/reports/" + result.reportId();
+        return ResponseEntity.ok(new DocumentUploadReportDTO(
+                result.rows(), result.created(), result.existing(), result.invalid(), report));
+    }
+
+    @GetMapping("/documents/import/reports/{reportId}")
+    public ResponseEntity<Resource> importReport(@PathVariable String reportId) {
+        Path file = uploadImporter.report(reportId)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Relatório não encontrado ou expirado"));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-errors-" + reportId + ".csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(new FileSystemResource(file));
+    }
+
     // ============================== HELPERS ==============================
     private Specification<Document> buildSpec(Long projectId, Long clientId, Long disciplineId,
                                               Long documentTypeId, String status, String location, String q) {
+        // q: ids vindos do índice textual; índice desligado, ainda reconstruindo ou com mais de
+        // max-hits resultados -> LIKE no banco
+        List<Long> hits = searchIndex.search(q).orElse(null);
         return (root, query, cb) -> {
             List<jakarta.persistence.criteria.Predicate> preds = new ArrayList<>();
 
@@ -443,7 +635,9 @@ public class DocumentController {
                 preds.add(cb.equal(cb.lower(root.get("status")), status.toLowerCase()));
             if (location != null && !location.isBlank())
                 preds.add(cb.equal(cb.lower(root.get("currentLocation")), location.toLowerCase()));
-            if (q != null && !q.isBlank()) {
+            if (hits != null) {
+                preds.add(hits.isEmpty() ? cb.disjunction() : root.get("id").in(hits));
+            } else if (q != null && !q.isBlank()) {
                 String like = "%" + q.toLowerCase().trim() + "%";
                 preds.add(cb.or(
                         cb.like(cb.lower(root.get("code")), like),
@@ -455,6 +649,49 @@ public class DocumentController {
         };
     }
 
+    /** Uma página por keyset: busca size + 1 linhas para saber se há próxima, sem COUNT. */
+    private CursorPage<DocumentListItemDTO> scroll(Specification<Document> spec, String cursor,
+                                                   Integer size, String sort) {
+        int s = (size == null || size < 1) ? 20 : Math.min(size, 200);
+        Sort sortObj = KeysetCursor.withTiebreaker(parseSortMulti(sort));
+        List<DocumentListRepository.DocumentListRow> rows;
+        try {
+            if (cursor != null && !cursor.isBlank()) {
+                spec = spec.and(KeysetCursor.decode(cursor, sortObj).toSpecification());
+            }
+            rows = docRepo.findListRows(spec, sortObj, s + 1);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(BAD_REQUEST, e.getMessage());
+        }
+        String next = null;
+        if (rows.size() > s) {
+            rows = rows.subList(0, s);
+            next = KeysetCursor.after(rows.get(s - 1).sortKeys(), sortObj).encode();
+        }
+        return new CursorPage<>(rows.stream().map(DocumentListRepository.DocumentListRow::item).toList(), next);
+    }
+
+    // RFC 4180: aspas só quando o valor tem separador, aspas ou quebra de linha
+    private static void writeCsvRow(Writer writer, DocumentListItemDTO item) throws IOException {
+        Object[] values = {
+                item.id(), item.code(), item.title(), item.revision(), item.format(), item.currentLocation(),
+                item.status(), item.updatedAt(), item.projectId(), item.projectName(), item.uploadHash()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            if (values[i] == null) continue;
+            String v = values[i].toString();
+            if (v.indexOf(',') >= 0 || v.indexOf('"') >= 0 || v.indexOf('\n') >= 0 || v.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(v.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(v);
+            }
+        }
+        writer.write("\r\n");
+    }
+
     private Pageable buildPageable(Integer page, Integer size, String sort) {
         int p = (page == null || page < 0) ? 0 : page;
         int s = (size == null || size < 1) ? 20 : size;
@@ -478,16 +715,6 @@ public class DocumentController {
         return Sort.by(orders);
     }
 
-    private DocumentListItemDTO toListItem(Document d) {
-        Long projId = (d.getProject() != null ? d.getProject().getId() : null);
-        String projName = (d.getProject() != null ? d.getProject().getName() : null);
-        return new DocumentListItemDTO(
-                d.getId(), d.getCode(), d.getTitle(), d.getRevision(),
-                d.getFormat(), d.getCurrentLocation(), d.getStatus(),
-                d.getUpdatedAt(), projId, projName, d.getUploadHash()
-        );
-    }
-
     /** Converte qualquer tipo temporal comum para String ISO-8601 (ou null). */
     private String toIsoString(Object temporal) {
         if (temporal == null) return null;
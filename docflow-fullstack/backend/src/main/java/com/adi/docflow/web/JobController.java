@@ -1,32 +1,143 @@
 package com.adi.docflow.web;
 
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.job.BatchSubmission;
+import com.adi.docflow.job.CancelResult;
+import com.adi.docflow.job.JobCursor;
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobSubmission;
+import com.adi.docflow.job.JobType;
+import com.adi.docflow.job.NewJob;
 import com.adi.docflow.model.AutomationJob;
 import com.adi.docflow.service.AutomationJobService;
+import com.adi.docflow.service.JobEventBroadcaster;
 import com.adi.docflow.web.dto.CreateJobRequest;
+import com.adi.docflow.web.dto.CreateJobsResponse;
+import com.adi.docflow.web.dto.CursorPage;
 import com.adi.docflow.web.dto.JobResponse;
-import jakarta.validation.Valid;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/jobs")
 public class JobController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_LIST_LIMIT = 200;
+
     private final AutomationJobService service;
+    private final JobEventBroadcaster broadcaster;
+    private final AutomationJobProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
-    public JobController(AutomationJobService service) {
+    public JobController(AutomationJobService service,
+                         JobEventBroadcaster broadcaster,
+                         AutomationJobProperties properties,
+                         ObjectMapper objectMapper,
+                         Validator validator) {
         this.service = service;
+        this.broadcaster = broadcaster;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
 
+    /**
+     * Cria o job (201). Com idempotency key (campo ou header Idempotency-Key)
+     * já usada dentro da janela, devolve o job original com 200.
+     */
     @PostMapping
-    public ResponseEntity<JobResponse> create(@Valid @RequestBody CreateJobRequest req) {
-        AutomationJob job = service.create(req.getType(), req.getPayload(), req.getScheduledAt());
+    public ResponseEntity<JobResponse> create(@RequestBody CreateJobRequest req,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String keyHeader) {
+        // validado uma vez só, depois de a chave do header entrar no request
+        if (req != null && req.getIdempotencyKey() == null && keyHeader != null) {
+            req.setIdempotencyKey(keyHeader);
+        }
+        NewJob job = toNewJob(req, null);
+        JobSubmission submission;
+        try {
+            submission = service.submit(job);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+        AutomationJob saved = submission.job();
+        if (submission.duplicate()) return ResponseEntity.ok(JobResponse.from(saved));
         return ResponseEntity
-                .created(URI.create("/api/v1/jobs/" + job.getUuid()))
-                .body(JobResponse.from(job));
+                .created(URI.create("/api/v1/jobs/" + saved.getUuid()))
+                .body(JobResponse.from(saved));
+    }
+
+    // ============================== LOTE ==============================
+
+    /**
+     * Enfileira um lote de jobs, tudo ou nada: array JSON ou um CreateJobRequest
+     * por linha (NDJSON). O corpo é lido em streaming e gravado em blocos dentro
+     * de uma transação, então a memória não cresce com o lote (só a lista de
+     * UUIDs da resposta); o limite {@code app.jobs.max-batch-submit} continua
+     * valendo por causa dela e da duração da transação.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<CreateJobsResponse> createBatch(InputStream body) throws IOException {
+        try (MappingIterator<CreateJobRequest> items =
+                     objectMapper.readerFor(CreateJobRequest.class).readValues(body)) {
+            return enqueue(readJobs(items));
+        }
+    }
+
+    /**
+     * Lista jobs, mais recentes primeiro, com paginação por cursor (keyset em
+     * scheduled_at, id). {@code from}/{@code to} filtram scheduledAt ({@code to} exclusivo);
+     * a próxima página vem de {@code cursor = nextCursor} com os mesmos filtros.
+     */
+    @GetMapping
+    public CursorPage<JobResponse> list(
+            @RequestParam(value = "type", required = false) JobType type,
+            @RequestParam(value = "status", required = false) JobStatus status,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") Integer limit
+    ) {
+        int size = (limit == null || limit < 1) ? 50 : Math.min(limit, MAX_LIST_LIMIT);
+        JobCursor after;
+        try {
+            after = (cursor == null || cursor.isBlank()) ? null : JobCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        List<AutomationJob> rows = service.search(type, status, from, to, after, size);
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            AutomationJob last = rows.get(size - 1);
+            next = new JobCursor(last.getScheduledAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(rows.stream().map(JobResponse::from).toList(), next);
     }
 
     @GetMapping("{uuid}")
@@ -35,4 +146,118 @@ public class JobController {
         return job.map(value -> ResponseEntity.ok(JobResponse.from(value)))
                   .orElseGet(() -> ResponseEntity.notFound().build());
     }
+
+    /**
+     * Stream SSE do job: evento "progress" a cada avanço e "finished" com o
+     * estado final, quando o stream é fechado. Substitui o polling do GET.
+     */
+    @GetMapping(value = "{uuid}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String uuid) {
+        AutomationJob job = service.getByUuid(uuid)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job não encontrado"));
+        SseEmitter emitter = new SseEmitter(properties.getSseTimeout().toMillis());
+        broadcaster.subscribe(job, emitter);
+        return emitter;
+    }
+
+    /**
+     * Cancela o job: 200 se estava na fila (já CANCELLED), 202 se está em execução
+     * (o worker será interrompido), 409 se já terminou.
+     */
+    @DeleteMapping("{uuid}")
+    public ResponseEntity<JobResponse> cancel(@PathVariable String uuid) {
+        CancelResult result = service.cancel(uuid);
+        return switch (result) {
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+            case ALREADY_FINISHED -> throw new ResponseStatusException(HttpStatus.CONFLICT, "Job já finalizado");
+            case CANCELLED, CANCEL_REQUESTED -> {
+                AutomationJob job = service.getByUuid(uuid).orElseThrow();
+                yield ResponseEntity.status(result == CancelResult.CANCELLED ? HttpStatus.OK : HttpStatus.ACCEPTED)
+                        .body(JobResponse.from(job));
+            }
+        };
+    }
+
+    // ============================== HELPERS ==============================
+
+    private ResponseEntity<CreateJobsResponse> enqueue(Iterator<NewJob> jobs) {
+        BatchSubmission result;
+        try {
+            result = service.createAll(jobs);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+        List<String> uuids = result.uuids();
+        if (uuids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nenhum job no lote");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new CreateJobsResponse(uuids.size() - result.duplicates(), result.duplicates(), uuids));
+    }
+
+    /**
+     * Converte os itens do corpo à medida que o createAll os consome. Erros de
+     * JSON, validação ou limite saem como ResponseStatusException de dentro da
+     * transação e desfazem o que já foi gravado.
+     */
+    private Iterator<NewJob> readJobs(MappingIterator<CreateJobRequest> items) {
+        return new Iterator<>() {
+            private int idx;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return items.hasNextValue();
+                } catch (IOException e) {
+                    throw invalidJson(e);
+                }
+            }
+
+            @Override
+            public NewJob next() {
+                CreateJobRequest req;
+                try {
+                    req = items.nextValue();
+                } catch (IOException e) {
+                    throw invalidJson(e);
+                }
+                checkBatchSize(idx + 1);
+                return toNewJob(req, "Item " + idx++);
+            }
+        };
+    }
+
+    private static RuntimeException invalidJson(IOException e) {
+        if (e instanceof JsonProcessingException json) {
+            String where = json.getLocation() != null ? "Linha " + json.getLocation().getLineNr() + ": " : "";
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    where + "JSON inválido (" + json.getOriginalMessage() + ")");
+        }
+        return new UncheckedIOException(e);
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > properties.getMaxBatchSubmit()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Máximo de " + properties.getMaxBatchSubmit() + " jobs por lote");
+        }
+    }
+
+    // valida com as anotações de CreateJobRequest; item ("Item 3") prefixa o erro nos lotes
+    private NewJob toNewJob(CreateJobRequest req, String item) {
+        String prefix = item == null ? "" : item + ": ";
+        if (req == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, prefix + "corpo vazio");
+        }
+        Set<ConstraintViolation<CreateJobRequest>> violations = validator.validate(req);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<CreateJobRequest> v = violations.iterator().next();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    prefix + v.getPropertyPath() + " " + v.getMessage());
+        }
+        return new NewJob(req.getType(), req.getPayload(), req.getScheduledAt(), req.getPriority(),
+                req.getDependsOn(), req.getIdempotencyKey());
+    }
 }
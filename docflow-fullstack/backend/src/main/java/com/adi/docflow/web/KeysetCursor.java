@@ -0,0 +1,177 @@
+package com.adi.docflow.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cursor de paginação por keyset para qualquer ordenação de {@code parseSortMulti}:
+ * guarda os valores das chaves de ordenação (mais o id, sempre como desempate)
+ * da última linha entregue e vira um predicado "depois desta linha" na mesma
+ * ordem. Vai para o cliente como token opaco (JSON em base64url).
+ * <p>
+ * NULLs seguem a ordem do SQL Server: primeiro no ASC, por último no DESC.
+ */
+final class KeysetCursor {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Sort sort;
+    private final List<String> values;
+
+    private KeysetCursor(Sort sort, List<String> values) {
+        this.sort = sort;
+        this.values = values;
+    }
+
+    /** A ordenação pedida com o id no fim (mesma direção da última chave), se ainda não estiver. */
+    static Sort withTiebreaker(Sort sort) {
+        if (sort.getOrderFor("id") != null) return sort;
+        Sort.Direction dir = Sort.Direction.ASC;
+        for (Sort.Order order : sort) dir = order.getDirection();
+        return sort.and(Sort.by(dir, "id"));
+    }
+
+    /** Cursor apontando para a última linha da página, pelos valores das chaves na ordem de {@code sort}. */
+    static KeysetCursor after(List<Object> sortKeys, Sort sort) {
+        List<String> values = new ArrayList<>(sortKeys.size());
+        for (Object value : sortKeys) values.add(value == null ? null : value.toString());
+        return new KeysetCursor(sort, values);
+    }
+
+    String encode() {
+        try {
+            List<String> fields = sort.stream().map(Sort.Order::getProperty).toList();
+            byte[] json = JSON.writeValueAsBytes(Map.of("f", fields, "v", values));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException se o token é inválido ou foi gerado
+     *         para outra ordenação
+     */
+    static KeysetCursor decode(String token, Sort sort) {
+        Map<?, ?> raw;
+        try {
+            raw = JSON.readValue(Base64.getUrlDecoder().decode(token), Map.class);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (raw == null) throw new IllegalArgumentException("Cursor inválido");
+        List<String> fields = sort.stream().map(Sort.Order::getProperty).toList();
+        if (!fields.equals(raw.get("f")) || !(raw.get("v") instanceof List<?> list) || list.size() != fields.size()) {
+            throw new IllegalArgumentException("Cursor não corresponde à ordenação pedida");
+        }
+        List<String> values = new ArrayList<>(list.size());
+        for (Object value : list) {
+            if (value != null && !(value instanceof String)) throw new IllegalArgumentException("Cursor inválido");
+            values.add((String) value);
+        }
+        return new KeysetCursor(sort, values);
+    }
+
+    /**
+     * Linhas depois do cursor: OR, para cada chave i, de (chaves anteriores
+     * iguais E chave i depois do valor). Com um índice na mesma ordem, é um seek.
+     * Um valor que não converte para o tipo da coluna (token adulterado) vira
+     * 400 quando a consulta é montada.
+     */
+    <T> Specification<T> toSpecification() {
+        return (root, query, cb) -> {
+            List<Sort.Order> orders = sort.toList();
+            List<Predicate> branches = new ArrayList<>();
+            List<Predicate> equalSoFar = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                Sort.Order order = orders.get(i);
+                Path<Object> path = path(root, order.getProperty());
+                Comparable<Object> value = convert(values.get(i), path.getJavaType());
+
+                List<Predicate> branch = new ArrayList<>(equalSoFar);
+                branch.add(after(cb, path, value, order.isAscending()));
+                branches.add(cb.and(branch.toArray(new Predicate[0])));
+                equalSoFar.add(value == null ? cb.isNull(path) : cb.equal(path, value));
+            }
+            return cb.or(branches.toArray(new Predicate[0]));
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Path<Object> path, Comparable<Object> value, boolean asc) {
+        Expression<Comparable> expr = (Expression) path;
+        if (asc) {
+            return value == null ? cb.isNotNull(path) : cb.greaterThan(expr, (Comparable) value);
+        }
+        return value == null ? cb.disjunction() : cb.or(cb.lessThan(expr, (Comparable) value), cb.isNull(path));
+    }
+
+    // "project.name" -> left join em project (o mesmo tipo de join que o Sort usa)
+    @SuppressWarnings("unchecked")
+    private static Path<Object> path(Root<?> root, String property) {
+        String[] parts = property.split("\\.");
+        From<?, ?> from = root;
+        for (int i = 0; i < parts.length - 1; i++) {
+            From<?, ?> current = from;
+            String attribute = parts[i];
+            from = current.getJoins().stream()
+                    .filter(j -> j.getAttribute().getName().equals(attribute) && j.getJoinType() == JoinType.LEFT)
+                    .map(j -> (Join<?, ?>) j)
+                    .findFirst()
+                    .orElseGet(() -> current.join(attribute, JoinType.LEFT));
+        }
+        return from.get(parts[parts.length - 1]);
+    }
+
+    // roda dentro do repositório, que traduziria um IllegalArgumentException
+    // para InvalidDataAccessApiUsageException (500); daí o ResponseStatusException
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable<Object> convert(String value, Class<?> type) {
+        if (value == null) return null;
+        Object converted;
+        try {
+            if (type == String.class) converted = value;
+            else if (type == Long.class || type == long.class) converted = Long.valueOf(value);
+            else if (type == Integer.class || type == int.class) converted = Integer.valueOf(value);
+            else if (type == Instant.class) converted = Instant.parse(value);
+            else if (type == LocalDate.class) converted = LocalDate.parse(value);
+            else if (type == LocalDateTime.class) converted = LocalDateTime.parse(value);
+            else if (type == OffsetDateTime.class) converted = OffsetDateTime.parse(value);
+            else if (type == BigDecimal.class) converted = new BigDecimal(value);
+            else if (type == Boolean.class || type == boolean.class) converted = Boolean.valueOf(value);
+            else if (type.isEnum()) converted = Enum.valueOf((Class<Enum>) type, value);
+            else converted = null;
+        } catch (DateTimeException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+        if (converted == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Ordenação por " + type.getSimpleName() + " não suporta cursor");
+        }
+        return (Comparable<Object>) converted;
+    }
+}
@@ -0,0 +1,114 @@
+package com.adi.docflow.web;
+
+import com.adi.docflow.model.AutomationJob;
+import com.adi.docflow.model.RecurringJob;
+import com.adi.docflow.repository.RecurringJobRepository;
+import com.adi.docflow.service.RecurringJobScheduler;
+import com.adi.docflow.service.RecurringJobService;
+import com.adi.docflow.web.dto.RecurringJobDTO;
+import com.adi.docflow.web.dto.RecurringJobRequest;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/recurring-jobs")
+public class RecurringJobController {
+
+    private final RecurringJobRepository repository;
+    private final RecurringJobService service;
+    private final RecurringJobScheduler scheduler;
+
+    public RecurringJobController(RecurringJobRepository repository,
+                                  RecurringJobService service,
+                                  RecurringJobScheduler scheduler) {
+        this.repository = repository;
+        this.service = service;
+        this.scheduler = scheduler;
+    }
+
+    @GetMapping
+    public List<RecurringJobDTO> list() {
+        return repository.findAll(Sort.by("name")).stream().map(RecurringJobDTO::from).toList();
+    }
+
+    @GetMapping("{id}")
+    public RecurringJobDTO get(@PathVariable Long id) {
+        return RecurringJobDTO.from(find(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<RecurringJobDTO> create(@Valid @RequestBody RecurringJobRequest req) {
+        if (repository.existsByName(req.getName().trim())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Já existe job recorrente com esse nome");
+        }
+        RecurringJob saved = save(apply(new RecurringJob(), req));
+        scheduler.reload();
+        return ResponseEntity
+                .created(URI.create("/api/v1/recurring-jobs/" + saved.getId()))
+                .body(RecurringJobDTO.from(saved));
+    }
+
+    /** Substitui a definição; o próximo disparo é recalculado a partir de agora. */
+    @PutMapping("{id}")
+    public RecurringJobDTO update(@PathVariable Long id, @Valid @RequestBody RecurringJobRequest req) {
+        RecurringJob def = find(id);
+        String name = req.getName().trim();
+        if (!name.equals(def.getName()) && repository.existsByName(name)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Já existe job recorrente com esse nome");
+        }
+        RecurringJob saved = save(apply(def, req));
+        scheduler.reload();
+        return RecurringJobDTO.from(saved);
+    }
+
+    @DeleteMapping("{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        repository.delete(find(id));
+        return ResponseEntity.noContent().build();
+    }
+
+    // ============================== HELPERS ==============================
+
+    private RecurringJob find(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job recorrente não encontrado"));
+    }
+
+    private RecurringJob save(RecurringJob def) {
+        try {
+            return service.save(def);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static RecurringJob apply(RecurringJob def, RecurringJobRequest req) {
+        if (!CronExpression.isValidExpression(req.getCron())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expressão cron inválida: " + req.getCron());
+        }
+        String zone = req.getZone() == null || req.getZone().isBlank() ? "UTC" : req.getZone().trim();
+        try {
+            ZoneId.of(zone);
+        } catch (DateTimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fuso inválido: " + zone);
+        }
+        def.setName(req.getName().trim());
+        def.setCron(req.getCron().trim());
+        def.setZone(zone);
+        def.setType(req.getType());
+        def.setPayloadTemplate(req.getPayloadTemplate());
+        def.setPriority(req.getPriority() != null ? req.getPriority() : AutomationJob.DEFAULT_PRIORITY);
+        def.setEnabled(req.getEnabled() == null || req.getEnabled());
+        return def;
+    }
+}
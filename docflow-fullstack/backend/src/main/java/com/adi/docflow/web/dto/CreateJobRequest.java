@@ -1,9 +1,13 @@
 package com.adi.docflow.web.dto;
 
 import com.adi.docflow.job.JobType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 public class CreateJobRequest {
 
@@ -16,6 +20,18 @@ public class CreateJobRequest {
     // opcional: data futura para agendamento; se nulo, executa ASAP
     private OffsetDateTime scheduledAt;
 
+    // opcional: faixa de prioridade 0..9 (maior primeiro); se nulo, 5
+    // ex.: e-mail de redefinição de senha = 9, import em massa = 1
+    @Min(0) @Max(9)
+    private Integer priority;
+
+    // opcional: UUIDs de jobs que precisam terminar em SUCCESS antes deste rodar
+    private List<String> dependsOn;
+
+    // opcional: repetir a mesma chave dentro da janela devolve o job já criado
+    @Size(max = 100)
+    private String idempotencyKey;
+
     public JobType getType() { return type; }
     public void setType(JobType type) { this.type = type; }
 
@@ -24,4 +40,13 @@ public class CreateJobRequest {
 
     public OffsetDateTime getScheduledAt() { return scheduledAt; }
     public void setScheduledAt(OffsetDateTime scheduledAt) { this.scheduledAt = scheduledAt; }
+
+    public Integer getPriority() { return priority; }
+    public void setPriority(Integer priority) { this.priority = priority; }
+
+    public List<String> getDependsOn() { return dependsOn; }
+    public void setDependsOn(List<String> dependsOn) { this.dependsOn = dependsOn; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
 }
@@ -0,0 +1,9 @@
+package com.adi.docflow.web.dto;
+
+import java.util.List;
+
+public record CreateJobsResponse(
+        int created,
+        int duplicates,      // itens cuja idempotency key já existia (uuid do job original)
+        List<String> uuids   // na mesma ordem dos itens recebidos
+) {}
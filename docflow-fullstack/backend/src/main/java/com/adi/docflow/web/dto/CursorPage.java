@@ -0,0 +1,12 @@
+package com.adi.docflow.web.dto;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem por keyset. {@code nextCursor} é nulo na última
+ * página; senão, é repassado como {@code cursor} para buscar a seguinte.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor
+) {}
@@ -0,0 +1,9 @@
+package com.adi.docflow.web.dto;
+
+public record DocumentUploadReportDTO(
+        long rows,          // linhas de dados lidas
+        long created,
+        long existing,      // (projeto, código, revisão) já cadastrados; ignorados
+        long invalid,
+        String errorReport  // URL do CSV com as linhas inválidas; nulo se não houve
+) {}
@@ -11,8 +11,16 @@ public class JobResponse {
     private String uuid;
     private JobType type;
     private JobStatus status;
+    private int priority;
+    private String idempotencyKey;
     private String errorMessage;
     private OffsetDateTime scheduledAt;
+    private int attempts;
+    private int pendingDependencies;
+    private boolean cancelRequested;
+    private Long progressProcessed;
+    private Long progressTotal;
+    private OffsetDateTime nextAttemptAt;
     private OffsetDateTime startedAt;
     private OffsetDateTime finishedAt;
     private OffsetDateTime createdAt;
@@ -23,8 +31,16 @@ public class JobResponse {
         r.uuid = j.getUuid();
         r.type = j.getType();
         r.status = j.getStatus();
+        r.priority = j.getPriority();
+        r.idempotencyKey = j.getIdempotencyKey();
         r.errorMessage = j.getErrorMessage();
         r.scheduledAt = j.getScheduledAt();
+        r.attempts = j.getAttempts();
+        r.pendingDependencies = j.getPendingDependencies();
+        r.cancelRequested = j.isCancelRequested();
+        r.progressProcessed = j.getProgressProcessed();
+        r.progressTotal = j.getProgressTotal();
+        r.nextAttemptAt = j.getNextAttemptAt();
         r.startedAt = j.getStartedAt();
         r.finishedAt = j.getFinishedAt();
         r.createdAt = j.getCreatedAt();
@@ -36,8 +52,16 @@ public class JobResponse {
     public String getUuid() { return uuid; }
     public JobType getType() { return type; }
     public JobStatus getStatus() { return status; }
+    public int getPriority() { return priority; }
+    public String getIdempotencyKey() { return idempotencyKey; }
     public String getErrorMessage() { return errorMessage; }
     public OffsetDateTime getScheduledAt() { return scheduledAt; }
+    public int getAttempts() { return attempts; }
+    public int getPendingDependencies() { return pendingDependencies; }
+    public boolean isCancelRequested() { return cancelRequested; }
+    public Long getProgressProcessed() { return progressProcessed; }
+    public Long getProgressTotal() { return progressTotal; }
+    public OffsetDateTime getNextAttemptAt() { return nextAttemptAt; }
     public OffsetDateTime getStartedAt() { return startedAt; }
     public OffsetDateTime getFinishedAt() { return finishedAt; }
     public OffsetDateTime getCreatedAt() { return createdAt; }
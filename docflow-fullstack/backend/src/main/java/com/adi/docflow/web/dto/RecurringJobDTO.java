@@ -0,0 +1,24 @@
+package com.adi.docflow.web.dto;
+
+import com.adi.docflow.job.JobType;
+import com.adi.docflow.model.RecurringJob;
+
+import java.time.OffsetDateTime;
+
+public record RecurringJobDTO(
+        Long id,
+        String name,
+        String cron,
+        String zone,
+        JobType type,
+        String payloadTemplate,
+        int priority,
+        boolean enabled,
+        OffsetDateTime nextRunAt,
+        OffsetDateTime lastRunAt
+) {
+    public static RecurringJobDTO from(RecurringJob r) {
+        return new RecurringJobDTO(r.getId(), r.getName(), r.getCron(), r.getZone(), r.getType(),
+                r.getPayloadTemplate(), r.getPriority(), r.isEnabled(), r.getNextRunAt(), r.getLastRunAt());
+    }
+}
@@ -0,0 +1,53 @@
+package com.adi.docflow.web.dto;
+
+import com.adi.docflow.job.JobType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class RecurringJobRequest {
+
+    @NotBlank @Size(max = 120)
+    private String name;
+
+    // cron do Spring, 6 campos (ex.: "0 0 7 * * MON-FRI")
+    @NotBlank @Size(max = 120)
+    private String cron;
+
+    // opcional: fuso do cron; se nulo, UTC
+    private String zone;
+
+    @NotNull
+    private JobType type;
+
+    // JSON com placeholders {{name}}, {{scheduledAt}}, {{date}}, só dentro de strings
+    private String payloadTemplate;
+
+    @Min(0) @Max(9)
+    private Integer priority;
+
+    private Boolean enabled;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getCron() { return cron; }
+    public void setCron(String cron) { this.cron = cron; }
+
+    public String getZone() { return zone; }
+    public void setZone(String zone) { this.zone = zone; }
+
+    public JobType getType() { return type; }
+    public void setType(JobType type) { this.type = type; }
+
+    public String getPayloadTemplate() { return payloadTemplate; }
+    public void setPayloadTemplate(String payloadTemplate) { this.payloadTemplate = payloadTemplate; }
+
+    public Integer getPriority() { return priority; }
+    public void setPriority(Integer priority) { this.priority = priority; }
+
+    public Boolean getEnabled() { return enabled; }
+    public void setEnabled(Boolean enabled) { this.enabled = enabled; }
+}
@@ -0,0 +1,7 @@
+-- V12: dono (nó) que reivindicou o job, para rodar o runner em várias réplicas
+
+IF COL_LENGTH('app.automation_job', 'locked_by') IS NULL
+BEGIN
+    ALTER TABLE app.automation_job ADD locked_by NVARCHAR(100) NULL;
+END
+GO
@@ -0,0 +1,35 @@
+-- V13: tentativas, próxima tentativa e índice de claim que cobre os retries
+
+IF COL_LENGTH('app.automation_job', 'attempts') IS NULL
+BEGIN
+    ALTER TABLE app.automation_job ADD attempts INT NOT NULL
+        CONSTRAINT DF_automation_job_attempts DEFAULT (0);
+END
+GO
+
+IF COL_LENGTH('app.automation_job', 'next_attempt_at') IS NULL
+BEGIN
+    ALTER TABLE app.automation_job ADD next_attempt_at DATETIME2 NULL;
+END
+GO
+
+-- jobs existentes: a primeira tentativa vence no próprio scheduled_at
+UPDATE app.automation_job SET next_attempt_at = scheduled_at WHERE next_attempt_at IS NULL;
+GO
+
+ALTER TABLE app.automation_job ALTER COLUMN next_attempt_at DATETIME2 NOT NULL;
+GO
+
+-- o claim filtra por status + type e ordena por next_attempt_at; jobs reenfileirados
+-- para retry entram no mesmo intervalo do índice, sem varrer a tabela
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_job_claim' AND object_id = OBJECT_ID('app.automation_job'))
+BEGIN
+    CREATE INDEX ix_job_claim ON app.automation_job (status, type, next_attempt_at);
+END
+GO
+
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_job_status_sched' AND object_id = OBJECT_ID('app.automation_job'))
+BEGIN
+    DROP INDEX ix_job_status_sched ON app.automation_job;
+END
+GO
@@ -0,0 +1,22 @@
+-- V14: lease dos jobs em execução (renovada por heartbeat) para o reaper recuperar jobs órfãos
+
+IF COL_LENGTH('app.automation_job', 'lease_expires_at') IS NULL
+BEGIN
+    ALTER TABLE app.automation_job ADD lease_expires_at DATETIME2 NULL;
+END
+GO
+
+-- jobs que ficaram RUNNING antes do lease existir já nascem vencidos
+UPDATE app.automation_job
+   SET lease_expires_at = SYSUTCDATETIME()
+ WHERE status = 'RUNNING' AND lease_expires_at IS NULL;
+GO
+
+-- o reaper só olha para jobs RUNNING com lease vencida
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_job_lease' AND object_id = OBJECT_ID('app.automation_job'))
+BEGIN
+    CREATE INDEX ix_job_lease ON app.automation_job (lease_expires_at)
+        INCLUDE (type, attempts)
+        WHERE status = 'RUNNING';
+END
+GO
@@ -0,0 +1,18 @@
+-- V15: prioridade (faixas 0..9, maior primeiro) e índice de claim por prioridade
+
+IF COL_LENGTH('app.automation_job', 'priority') IS NULL
+BEGIN
+    ALTER TABLE app.automation_job ADD priority TINYINT NOT NULL
+        CONSTRAINT DF_automation_job_priority DEFAULT (5);
+END
+GO
+
+-- claim normal: faixas mais altas primeiro, FIFO dentro da faixa.
+-- ix_job_claim (status, type, next_attempt_at) continua servindo as rodadas FIFO
+-- de proteção contra starvation e o cálculo da próxima tentativa.
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_job_claim_priority' AND object_id = OBJECT_ID('app.automation_job'))
+BEGIN
+    CREATE INDEX ix_job_claim_priority
+        ON app.automation_job (status, type, priority DESC, next_attempt_at);
+END
+GO
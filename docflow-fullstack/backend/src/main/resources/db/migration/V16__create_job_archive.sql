@@ -0,0 +1,47 @@
+-- V16: arquivo de jobs finalizados e índice para a rotina de retenção
+
+IF OBJECT_ID('app.automation_job_archive', 'U') IS NULL
+BEGIN
+    -- mesma forma da tabela quente, sem IDENTITY, FKs ou triggers
+    -- (requisito do DELETE ... OUTPUT INTO). Coluna nova em app.automation_job
+    -- precisa entrar aqui (ALTER numa migration nova) e em JobArchiver.ARCHIVED_COLUMNS.
+    CREATE TABLE app.automation_job_archive (
+        id BIGINT NOT NULL PRIMARY KEY,
+        uuid VARCHAR(36) NOT NULL,
+        type VARCHAR(40) NOT NULL,
+        status VARCHAR(20) NOT NULL,
+        priority TINYINT NOT NULL,
+        attempts INT NOT NULL,
+        payload NVARCHAR(MAX) NULL,
+        error_message NVARCHAR(MAX) NULL,
+        locked_by NVARCHAR(100) NULL,
+        lease_expires_at DATETIME2 NULL,
+        cancel_requested BIT NOT NULL CONSTRAINT DF_automation_job_archive_cancel_requested DEFAULT (0),
+        progress_processed BIGINT NULL,
+        progress_total BIGINT NULL,
+        progress_updated_at DATETIME2 NULL,
+        pending_dependencies INT NOT NULL CONSTRAINT DF_automation_job_archive_pending_deps DEFAULT (0),
+        -- sem índice único: a mesma chave pode aparecer em jobs arquivados de janelas diferentes
+        idempotency_key NVARCHAR(100) NULL,
+        checkpoint_row BIGINT NULL,
+        scheduled_at DATETIME2 NOT NULL,
+        next_attempt_at DATETIME2 NOT NULL,
+        started_at DATETIME2 NULL,
+        finished_at DATETIME2 NULL,
+        created_at datetimeoffset(6) NOT NULL,
+        updated_at datetimeoffset(6) NOT NULL,
+        archived_at DATETIME2 NOT NULL
+    );
+    CREATE INDEX ix_job_archive_uuid ON app.automation_job_archive (uuid);
+    CREATE INDEX ix_job_archive_archived ON app.automation_job_archive (archived_at);
+END
+GO
+
+-- a retenção busca por tipo + finished_at; só jobs finalizados têm finished_at
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_job_finished' AND object_id = OBJECT_ID('app.automation_job'))
+BEGIN
+    CREATE INDEX ix_job_finished ON app.automation_job (type, finished_at)
+        INCLUDE (status)
+        WHERE finished_at IS NOT NULL;
+END
+GO
@@ -0,0 +1,8 @@
+-- V17: pedido de cancelamento de job em execução (interrupção cooperativa pelo nó dono)
+
+IF COL_LENGTH('app.automation_job', 'cancel_requested') IS NULL
+BEGIN
+    ALTER TABLE app.automation_job ADD cancel_requested BIT NOT NULL
+        CONSTRAINT DF_automation_job_cancel_requested DEFAULT (0);
+END
+GO
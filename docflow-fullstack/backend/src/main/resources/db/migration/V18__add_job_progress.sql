@@ -0,0 +1,19 @@
+-- V18: progresso reportado pelos processors (processados/total), gravado com throttle
+
+IF COL_LENGTH('app.automation_job', 'progress_processed') IS NULL
+BEGIN
+    ALTER TABLE app.automation_job ADD progress_processed BIGINT NULL;
+END
+GO
+
+IF COL_LENGTH('app.automation_job', 'progress_total') IS NULL
+BEGIN
+    ALTER TABLE app.automation_job ADD progress_total BIGINT NULL;
+END
+GO
+
+IF COL_LENGTH('app.automation_job', 'progress_updated_at') IS NULL
+BEGIN
+    ALTER TABLE app.automation_job ADD progress_updated_at DATETIME2 NULL;
+END
+GO
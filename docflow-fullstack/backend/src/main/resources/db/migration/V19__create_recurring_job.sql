@@ -0,0 +1,23 @@
+-- V19: definições de jobs recorrentes (cron) materializados em app.automation_job
+
+IF OBJECT_ID('app.recurring_job', 'U') IS NULL
+BEGIN
+    CREATE TABLE app.recurring_job (
+        id BIGINT IDENTITY(1,1) NOT NULL PRIMARY KEY,
+        name NVARCHAR(120) NOT NULL,
+        cron VARCHAR(120) NOT NULL,
+        zone VARCHAR(64) NOT NULL CONSTRAINT DF_recurring_job_zone DEFAULT ('UTC'),
+        type VARCHAR(40) NOT NULL,
+        payload_template NVARCHAR(MAX) NULL,
+        priority TINYINT NOT NULL CONSTRAINT DF_recurring_job_priority DEFAULT (5),
+        enabled BIT NOT NULL CONSTRAINT DF_recurring_job_enabled DEFAULT (1),
+        -- próxima execução; o UPDATE condicional neste campo garante uma só materialização por execução
+        next_run_at DATETIME2 NOT NULL,
+        last_run_at DATETIME2 NULL,
+        created_at datetimeoffset(6) NOT NULL CONSTRAINT DF_recurring_job_created_at DEFAULT (SYSDATETIMEOFFSET()),
+        updated_at datetimeoffset(6) NOT NULL CONSTRAINT DF_recurring_job_updated_at DEFAULT (SYSDATETIMEOFFSET()),
+        CONSTRAINT UQ_recurring_job_name UNIQUE (name)
+    );
+    CREATE INDEX ix_recurring_due ON app.recurring_job (enabled, next_run_at);
+END
+GO
@@ -0,0 +1,21 @@
+-- V20: dependências entre jobs (DAG). O filho fica BLOCKED até todos os pais terminarem em SUCCESS.
+
+IF COL_LENGTH('app.automation_job', 'pending_dependencies') IS NULL
+BEGIN
+    ALTER TABLE app.automation_job ADD pending_dependencies INT NOT NULL
+        CONSTRAINT DF_automation_job_pending_deps DEFAULT (0);
+END
+GO
+
+-- sem FK para automation_job: a retenção move pais e filhos para o arquivo em momentos diferentes
+IF OBJECT_ID('app.automation_job_dependency', 'U') IS NULL
+BEGIN
+    CREATE TABLE app.automation_job_dependency (
+        job_id BIGINT NOT NULL,          -- filho
+        depends_on_id BIGINT NOT NULL,   -- pai
+        CONSTRAINT PK_automation_job_dependency PRIMARY KEY (job_id, depends_on_id)
+    );
+    -- a liberação parte dos pais que acabaram de terminar
+    CREATE INDEX ix_job_dependency_parent ON app.automation_job_dependency (depends_on_id) INCLUDE (job_id);
+END
+GO
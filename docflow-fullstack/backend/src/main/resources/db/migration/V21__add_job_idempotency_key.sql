@@ -0,0 +1,16 @@
+-- V21: idempotency key opcional na criação de jobs
+
+IF COL_LENGTH('app.automation_job', 'idempotency_key') IS NULL
+BEGIN
+    ALTER TABLE app.automation_job ADD idempotency_key NVARCHAR(100) NULL;
+END
+GO
+
+-- único só entre as linhas com chave; fora da janela a chave antiga é limpa antes do novo insert
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ux_job_idempotency_key' AND object_id = OBJECT_ID('app.automation_job'))
+BEGIN
+    CREATE UNIQUE INDEX ux_job_idempotency_key ON app.automation_job (idempotency_key)
+        INCLUDE (uuid, created_at)
+        WHERE idempotency_key IS NOT NULL;
+END
+GO
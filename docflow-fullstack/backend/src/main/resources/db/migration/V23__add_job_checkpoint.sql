@@ -0,0 +1,7 @@
+-- V23: checkpoint do job (última linha gravada); uma nova tentativa continua dali
+
+IF COL_LENGTH('app.automation_job', 'checkpoint_row') IS NULL
+BEGIN
+    ALTER TABLE app.automation_job ADD checkpoint_row BIGINT NULL;
+END
+GO
@@ -0,0 +1,17 @@
+-- V24: índice da ordenação padrão das listagens de documentos (updatedAt,desc + id)
+-- usado pela paginação por cursor (/documents/scroll): cada página é um seek, sem OFFSET nem COUNT
+
+IF COL_LENGTH('app.document', 'updated_at') IS NOT NULL
+   AND NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_document_updated_at' AND object_id = OBJECT_ID('app.document'))
+BEGIN
+    CREATE INDEX ix_document_updated_at ON app.document (updated_at, id);
+END
+GO
+
+-- listagem por projeto na mesma ordem
+IF COL_LENGTH('app.document', 'updated_at') IS NOT NULL
+   AND NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_document_project_updated_at' AND object_id = OBJECT_ID('app.document'))
+BEGIN
+    CREATE INDEX ix_document_project_updated_at ON app.document (project_id, updated_at, id);
+END
+GO
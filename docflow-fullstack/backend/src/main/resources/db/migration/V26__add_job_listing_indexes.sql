@@ -0,0 +1,31 @@
+-- V26: índices da listagem GET /api/v1/jobs (keyset em scheduled_at DESC, id DESC).
+-- Um por combinação de filtro, cada um com o filtro de igualdade na frente da chave:
+-- toda página é um seek no intervalo do filtro, sem sort nem predicado residual.
+
+-- type e status
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_job_scheduled' AND object_id = OBJECT_ID('app.automation_job'))
+BEGIN
+    CREATE INDEX ix_job_scheduled ON app.automation_job (type, status, scheduled_at, id);
+END
+GO
+
+-- só type
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_job_scheduled_type' AND object_id = OBJECT_ID('app.automation_job'))
+BEGIN
+    CREATE INDEX ix_job_scheduled_type ON app.automation_job (type, scheduled_at, id);
+END
+GO
+
+-- só status
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_job_scheduled_status' AND object_id = OBJECT_ID('app.automation_job'))
+BEGIN
+    CREATE INDEX ix_job_scheduled_status ON app.automation_job (status, scheduled_at, id);
+END
+GO
+
+-- sem filtro (tela geral de jobs)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_job_scheduled_all' AND object_id = OBJECT_ID('app.automation_job'))
+BEGIN
+    CREATE INDEX ix_job_scheduled_all ON app.automation_job (scheduled_at, id);
+END
+GO
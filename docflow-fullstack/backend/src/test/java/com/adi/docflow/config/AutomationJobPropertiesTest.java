@@ -0,0 +1,41 @@
+package com.adi.docflow.config;
+
+import com.adi.docflow.job.JobType;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AutomationJobPropertiesTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void padroesSaoValidos() {
+        assertTrue(validator.validate(new AutomationJobProperties()).isEmpty());
+    }
+
+    @Test
+    void retencaoMenorQueAJanelaDeIdempotencia() {
+        AutomationJobProperties properties = new AutomationJobProperties();
+        properties.setIdempotencyWindow(Duration.ofDays(2));
+        properties.getRetention().setArchiveAfter(Duration.ofDays(1));
+
+        assertEquals(1, validator.validate(properties).size());
+    }
+
+    @Test
+    void retencaoPorTipoTambemConta() {
+        AutomationJobProperties properties = new AutomationJobProperties();
+        properties.getRetention().getArchiveAfterByType().put(JobType.EMAIL_NOTIFY, Duration.ofHours(1));
+
+        assertEquals(1, validator.validate(properties).size());
+
+        properties.getRetention().setEnabled(false);
+        assertTrue(validator.validate(properties).isEmpty());
+    }
+}
@@ -0,0 +1,50 @@
+package com.adi.docflow.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobCursorTest {
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void idaEVoltaPreservaInstanteEId() {
+        OffsetDateTime at = OffsetDateTime.parse("2026-05-10T13:45:12.123456789-03:00");
+        JobCursor decoded = JobCursor.decode(new JobCursor(at, 42L).encode());
+
+        assertTrue(at.isEqual(decoded.scheduledAt()));
+        assertEquals(42L, decoded.id());
+    }
+
+    @Test
+    void tokenEUrlSafeESemPadding() {
+        String token = new JobCursor(OffsetDateTime.parse("2026-01-01T00:00:00Z"), Long.MAX_VALUE).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void cursoresAdulteradosSaoRejeitados() {
+        for (String bad : new String[]{
+                "%%%",                              // fora do alfabeto base64url
+                token("1700000000:0"),              // partes faltando
+                token("1700000000:0:1:2"),          // partes sobrando
+                token("abc:0:1"),                   // número inválido
+                token("1700000000:-1:1"),           // nano negativo
+                token("1700000000:1000000000:1"),   // nano não normalizado
+                token("1700000000:0:0"),            // id fora da IDENTITY
+                token("99999999999999999:0:1"),     // fora da faixa de OffsetDateTime
+                ""}) {
+            assertThrows(IllegalArgumentException.class, () -> JobCursor.decode(bad), bad);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.adi.docflow.job;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTest {
+
+    private static RetryPolicy policy(double jitter) {
+        RetryPolicy policy = new RetryPolicy();
+        policy.setInitialBackoff(Duration.ofSeconds(10));
+        policy.setMultiplier(2.0);
+        policy.setMaxBackoff(Duration.ofMinutes(1));
+        policy.setJitter(jitter);
+        return policy;
+    }
+
+    @Test
+    void backoffExponencialSemJitter() {
+        RetryPolicy policy = policy(0);
+
+        assertEquals(Duration.ofSeconds(10), policy.backoff(1));
+        assertEquals(Duration.ofSeconds(20), policy.backoff(2));
+        assertEquals(Duration.ofSeconds(40), policy.backoff(3));
+    }
+
+    @Test
+    void backoffLimitadoAoMaximo() {
+        RetryPolicy policy = policy(0);
+
+        assertEquals(Duration.ofMinutes(1), policy.backoff(4));
+        assertEquals(Duration.ofMinutes(1), policy.backoff(50));
+    }
+
+    @Test
+    void tentativasNaoPositivasUsamOBackoffInicial() {
+        RetryPolicy policy = policy(0);
+
+        assertEquals(Duration.ofSeconds(10), policy.backoff(0));
+        assertEquals(Duration.ofSeconds(10), policy.backoff(-3));
+    }
+
+    @RepeatedTest(200)
+    void jitterFicaDentroDaFaixa() {
+        RetryPolicy policy = policy(0.2);
+
+        long first = policy.backoff(1).toMillis();
+        assertTrue(first >= 8_000 && first <= 12_000, "fora da faixa: " + first);
+
+        // o jitter vale também sobre o teto
+        long capped = policy.backoff(10).toMillis();
+        assertTrue(capped >= 48_000 && capped <= 72_000, "fora da faixa: " + capped);
+    }
+
+    @Test
+    void canRetryAteMaxAttempts() {
+        RetryPolicy policy = new RetryPolicy();
+        policy.setMaxAttempts(3);
+
+        assertTrue(policy.canRetry(0));
+        assertTrue(policy.canRetry(2));
+        assertFalse(policy.canRetry(3));
+        assertFalse(policy.canRetry(4));
+    }
+}
@@ -0,0 +1,90 @@
+package com.adi.docflow.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+
+    private TokenBucket bucket(double permitsPerSecond, int burst) {
+        RateLimit limit = new RateLimit();
+        limit.setPermitsPerSecond(permitsPerSecond);
+        limit.setBurst(burst);
+        return new TokenBucket(limit, now::get);
+    }
+
+    private void advanceMillis(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    void comecaCheioEEntregaNoMaximoOBurst() {
+        TokenBucket bucket = bucket(10, 5);
+
+        assertEquals(5, bucket.take(20));
+        assertEquals(0, bucket.take(1));
+        assertEquals(0.0, bucket.fillRatio(), 1e-9);
+    }
+
+    @Test
+    void recarregaProporcionalAoTempo() {
+        TokenBucket bucket = bucket(10, 5);
+        bucket.take(5);
+
+        advanceMillis(250); // 2,5 tokens
+        assertEquals(2, bucket.take(10));
+
+        advanceMillis(50); // sobra 0,5 + 0,5
+        assertEquals(1, bucket.take(10));
+    }
+
+    @Test
+    void recargaNaoPassaDaCapacidade() {
+        TokenBucket bucket = bucket(10, 5);
+        bucket.take(5);
+
+        advanceMillis(60_000);
+        assertEquals(1.0, bucket.fillRatio(), 1e-9);
+        assertEquals(5, bucket.take(100));
+    }
+
+    @Test
+    void refundDevolveSemEstourarOBalde() {
+        TokenBucket bucket = bucket(10, 5);
+        bucket.take(3);
+
+        bucket.refund(10);
+        assertEquals(5, bucket.take(100));
+
+        bucket.refund(0);
+        bucket.refund(-2);
+        assertEquals(0, bucket.take(1));
+    }
+
+    @Test
+    void tempoAteProximoToken() {
+        TokenBucket bucket = bucket(4, 2);
+        assertEquals(0L, bucket.millisUntilNextToken());
+
+        bucket.take(2);
+        assertEquals(250L, bucket.millisUntilNextToken());
+
+        advanceMillis(100);
+        assertEquals(150L, bucket.millisUntilNextToken());
+
+        advanceMillis(150);
+        assertEquals(0L, bucket.millisUntilNextToken());
+    }
+
+    @Test
+    void rejeitaLimitesNaoPositivos() {
+        assertThrows(IllegalArgumentException.class, () -> bucket(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> bucket(10, 0));
+    }
+}
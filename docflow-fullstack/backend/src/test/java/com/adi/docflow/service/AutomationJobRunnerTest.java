@@ -0,0 +1,414 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.config.SchedulingConfig;
+import com.adi.docflow.job.BatchSubmission;
+import com.adi.docflow.job.CancelResult;
+import com.adi.docflow.job.JobCancelRequestedEvent;
+import com.adi.docflow.job.JobCompletion;
+import com.adi.docflow.job.JobCursor;
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobSubmission;
+import com.adi.docflow.job.JobType;
+import com.adi.docflow.job.NewJob;
+import com.adi.docflow.job.RetryPolicy;
+import com.adi.docflow.model.AutomationJob;
+import com.adi.docflow.service.processor.JobContext;
+import com.adi.docflow.service.processor.JobProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runner contra um JobStore em memória e processors de teste: despacho por
+ * tipo, roteamento de falhas e as três formas de interromper um worker.
+ * Cada teste termina com {@code runner.stop()}, que espera os workers e
+ * grava as finalizações pendentes.
+ */
+class AutomationJobRunnerTest {
+
+    private final AutomationJobProperties properties = new AutomationJobProperties();
+    private final FakeStore store = new FakeStore();
+    private AutomationJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        properties.setShutdownTimeoutSeconds(5);
+        properties.setCompletionFlushSize(1);
+        properties.setFifoClaimEvery(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (runner != null) runner.stop();
+    }
+
+    private AutomationJobRunner runner(JobProcessor... processors) {
+        AutomationJobService service = new AutomationJobService(store);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        runner = new AutomationJobRunner(service, new JobCompletionBuffer(service, properties, registry),
+                properties, SchedulingConfig.forMode(AutomationJobProperties.ExecutionMode.PLATFORM),
+                new JobMetrics(store, registry), new JobEventBroadcaster(store), registry, List.of(processors));
+        return runner;
+    }
+
+    @Test
+    void cadaTipoReivindicaSoAsVagasDoSeuPool() throws Exception {
+        properties.getConcurrency().put(JobType.IMPORT_DOCUMENTS, 1);
+        properties.getConcurrency().put(JobType.EMAIL_NOTIFY, 2);
+        CountDownLatch importStarted = new CountDownLatch(1);
+        CountDownLatch releaseImport = new CountDownLatch(1);
+        Map<Long, String> threads = new ConcurrentHashMap<>();
+        runner(
+                processor(JobType.IMPORT_DOCUMENTS, (job, ctx) -> {
+                    threads.put(job.getId(), Thread.currentThread().getName());
+                    importStarted.countDown();
+                    releaseImport.await();
+                }),
+                processor(JobType.EMAIL_NOTIFY, (job, ctx) ->
+                        threads.put(job.getId(), Thread.currentThread().getName())));
+        long slow = store.enqueue(JobType.IMPORT_DOCUMENTS, 0);
+        long queued = store.enqueue(JobType.IMPORT_DOCUMENTS, 0);
+        long mail1 = store.enqueue(JobType.EMAIL_NOTIFY, 0);
+        long mail2 = store.enqueue(JobType.EMAIL_NOTIFY, 0);
+
+        assertEquals(3, runner.dequeueAndRun());
+        assertTrue(importStarted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, store.claimRequests.get(JobType.IMPORT_DOCUMENTS).get(0));
+        assertEquals(2, store.claimRequests.get(JobType.EMAIL_NOTIFY).get(0));
+
+        // o import lento ocupa a única vaga do tipo, mas os e-mails terminam
+        store.awaitCompletions(2);
+        assertEquals(Set.of(mail1, mail2), store.completedIds());
+        assertEquals(0, runner.dequeueAndRun());
+        assertEquals(List.of(1), store.claimRequests.get(JobType.IMPORT_DOCUMENTS));
+
+        // a vaga liberada reivindica o segundo import
+        releaseImport.countDown();
+        store.awaitCompletions(3);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runner.dequeueAndRun() == 0 && System.nanoTime() < deadline) Thread.sleep(5);
+        runner.stop();
+
+        assertEquals(JobStatus.SUCCESS, store.completion(slow).status());
+        assertEquals(JobStatus.SUCCESS, store.completion(queued).status());
+        assertTrue(threads.get(slow).startsWith("job-import_documents-"), threads.get(slow));
+        assertTrue(threads.get(mail1).startsWith("job-email_notify-"), threads.get(mail1));
+    }
+
+    @Test
+    void tipoSemProcessorFalhaSemExecutar() {
+        runner(processor(JobType.EMAIL_NOTIFY, (job, ctx) -> { }));
+        long orphan = store.enqueue(JobType.IMPORT_DOCUMENTS, 0);
+
+        runner.dequeueAndRun();
+        runner.stop();
+
+        JobCompletion completion = store.completion(orphan);
+        assertEquals(JobStatus.FAILED, completion.status());
+        assertTrue(completion.errorMessage().contains("IMPORT_DOCUMENTS"), completion.errorMessage());
+    }
+
+    @Test
+    void falhaComTentativasRestantesVoltaParaAFilaComBackoff() {
+        RetryPolicy policy = new RetryPolicy();
+        policy.setMaxAttempts(3);
+        policy.setInitialBackoff(Duration.ofMinutes(1));
+        policy.setJitter(0);
+        properties.getRetry().put(JobType.EMAIL_NOTIFY, policy);
+        runner(processor(JobType.EMAIL_NOTIFY, (job, ctx) -> { throw new IllegalStateException("smtp fora"); }));
+        long retried = store.enqueue(JobType.EMAIL_NOTIFY, 0);   // claim conta a 1ª tentativa
+        long exhausted = store.enqueue(JobType.EMAIL_NOTIFY, 2); // claim conta a 3ª
+
+        OffsetDateTime before = OffsetDateTime.now();
+        runner.dequeueAndRun();
+        runner.stop();
+
+        JobCompletion retry = store.completion(retried);
+        assertEquals(JobStatus.QUEUED, retry.status());
+        assertEquals("smtp fora", retry.errorMessage());
+        assertNull(retry.finishedAt());
+        assertTrue(!retry.nextAttemptAt().isBefore(before.plus(policy.backoff(1))), retry.toString());
+
+        JobCompletion dead = store.completion(exhausted);
+        assertEquals(JobStatus.DEAD_LETTER, dead.status());
+        assertEquals("smtp fora", dead.errorMessage());
+        assertNull(dead.nextAttemptAt());
+    }
+
+    @Test
+    void leasePerdidaInterrompeOWorkerSemFinalizar() throws Exception {
+        long lost = store.enqueue(JobType.EMAIL_NOTIFY, 0);
+        long kept = store.enqueue(JobType.EMAIL_NOTIFY, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        List<Throwable> seen = new CopyOnWriteArrayList<>();
+        runner(processor(JobType.EMAIL_NOTIFY, blockUntilInterrupted(lost, started, seen)));
+
+        runner.dequeueAndRun();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        store.lostLeases.add(lost);
+        runner.heartbeat();
+        store.awaitInterrupted(seen, 1);
+
+        assertEquals(1, seen.size());
+        runner.stop();
+
+        // a finalização seria de outro nó: nada é gravado para o job perdido
+        assertNull(store.completion(lost));
+        assertEquals(JobStatus.SUCCESS, store.completion(kept).status());
+    }
+
+    @Test
+    void progressoRecusadoTambemContaComoLeasePerdida() {
+        AtomicLong processedAfterLoss = new AtomicLong();
+        runner(processor(JobType.EMAIL_NOTIFY, (job, ctx) -> {
+            store.lostLeases.add(job.getId());
+            ctx.reportProgress(1, 10); // primeiro relatório é gravado na hora
+            if (ctx.isStopRequested()) return;
+            processedAfterLoss.incrementAndGet();
+        }));
+        long id = store.enqueue(JobType.EMAIL_NOTIFY, 0);
+
+        runner.dequeueAndRun();
+        runner.stop();
+
+        assertEquals(0, processedAfterLoss.get());
+        assertNull(store.completion(id));
+    }
+
+    @Test
+    void watchdogInterrompeJobQuePassouDoTimeout() throws Exception {
+        properties.getTimeout().put(JobType.EMAIL_NOTIFY, Duration.ofMillis(1));
+        long id = store.enqueue(JobType.EMAIL_NOTIFY, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        List<Throwable> seen = new CopyOnWriteArrayList<>();
+        runner(processor(JobType.EMAIL_NOTIFY, blockUntilInterrupted(id, started, seen)));
+
+        runner.dequeueAndRun();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(5);
+        runner.watchdog();
+        store.awaitInterrupted(seen, 1);
+        runner.stop();
+
+        // timeout não volta para retry, mesmo com tentativas restantes
+        JobCompletion completion = store.completion(id);
+        assertEquals(JobStatus.FAILED, completion.status());
+        assertTrue(completion.errorMessage().startsWith("Timeout de PT0.001S"), completion.errorMessage());
+    }
+
+    @Test
+    void watchdogIgnoraJobDentroDoPrazo() throws Exception {
+        properties.getTimeout().put(JobType.EMAIL_NOTIFY, Duration.ofMinutes(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        runner(processor(JobType.EMAIL_NOTIFY, (job, ctx) -> {
+            started.countDown();
+            finish.await();
+        }));
+        long id = store.enqueue(JobType.EMAIL_NOTIFY, 0);
+
+        runner.dequeueAndRun();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        runner.watchdog();
+        finish.countDown();
+        runner.stop();
+
+        assertEquals(JobStatus.SUCCESS, store.completion(id).status());
+    }
+
+    @Test
+    void cancelamentoNesteNoInterrompeNaHora() throws Exception {
+        long id = store.enqueue(JobType.EMAIL_NOTIFY, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        List<Throwable> seen = new CopyOnWriteArrayList<>();
+        runner(processor(JobType.EMAIL_NOTIFY, blockUntilInterrupted(id, started, seen)));
+
+        runner.dequeueAndRun();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        runner.onCancelRequested(new JobCancelRequestedEvent(id, "uuid-" + id));
+        store.awaitInterrupted(seen, 1);
+        runner.stop();
+
+        assertEquals(JobStatus.CANCELLED, store.completion(id).status());
+    }
+
+    @Test
+    void cancelamentoPedidoEmOutraReplicaChegaPeloHeartbeat() throws Exception {
+        long id = store.enqueue(JobType.EMAIL_NOTIFY, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        List<Throwable> seen = new CopyOnWriteArrayList<>();
+        runner(processor(JobType.EMAIL_NOTIFY, blockUntilInterrupted(id, started, seen)));
+
+        runner.dequeueAndRun();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        store.cancelRequested.add(id);
+        runner.heartbeat();
+        store.awaitInterrupted(seen, 1);
+        runner.stop();
+
+        assertEquals(JobStatus.CANCELLED, store.completion(id).status());
+    }
+
+    // ============================ apoio ============================
+
+    @FunctionalInterface
+    private interface Body {
+        void run(AutomationJob job, JobContext context) throws Exception;
+    }
+
+    private static JobProcessor processor(JobType type, Body body) {
+        return new JobProcessor() {
+            @Override public JobType getType() { return type; }
+            @Override public void process(AutomationJob job) { throw new UnsupportedOperationException(); }
+            @Override public void process(AutomationJob job, JobContext context) throws Exception {
+                body.run(job, context);
+            }
+        };
+    }
+
+    /** O job {@code blockId} dorme até ser interrompido; os demais terminam na hora. */
+    private static Body blockUntilInterrupted(long blockId, CountDownLatch started, List<Throwable> seen) {
+        return (job, ctx) -> {
+            if (job.getId() != blockId) return;
+            started.countDown();
+            try {
+                Thread.sleep(30_000);
+            } catch (InterruptedException e) {
+                seen.add(e);
+                throw e;
+            }
+        };
+    }
+
+    /** Fila mínima: claim em ordem de chegada, leases e cancelamentos controlados pelo teste. */
+    private static final class FakeStore implements JobStore {
+
+        private final Map<JobType, Deque<AutomationJob>> queued = new EnumMap<>(JobType.class);
+        private final Map<Long, JobCompletion> completions = new ConcurrentHashMap<>();
+        private long nextId = 1;
+
+        final Map<JobType, List<Integer>> claimRequests = new ConcurrentHashMap<>();
+        final Set<Long> lostLeases = ConcurrentHashMap.newKeySet();
+        final Set<Long> cancelRequested = ConcurrentHashMap.newKeySet();
+
+        synchronized long enqueue(JobType type, int attempts) {
+            AutomationJob job = new AutomationJob();
+            job.setId(nextId++);
+            job.setUuid("uuid-" + job.getId());
+            job.setType(type);
+            job.setStatus(JobStatus.QUEUED);
+            job.setAttempts(attempts);
+            queued.computeIfAbsent(type, t -> new ArrayDeque<>()).add(job);
+            return job.getId();
+        }
+
+        JobCompletion completion(long id) {
+            return completions.get(id);
+        }
+
+        Set<Long> completedIds() {
+            return Set.copyOf(completions.keySet());
+        }
+
+        void awaitCompletions(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (completions.size() < count && System.nanoTime() < deadline) Thread.sleep(5);
+            assertEquals(count, completions.size(), "finalizações gravadas: " + completions.keySet());
+        }
+
+        void awaitInterrupted(List<Throwable> seen, int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (seen.size() < count && System.nanoTime() < deadline) Thread.sleep(5);
+            assertTrue(seen.size() >= count, "worker não foi interrompido");
+        }
+
+        @Override
+        public synchronized List<AutomationJob> claimPending(JobType type, int max, boolean fifo) {
+            claimRequests.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>()).add(max);
+            Deque<AutomationJob> queue = queued.getOrDefault(type, new ArrayDeque<>());
+            List<AutomationJob> claimed = new ArrayList<>();
+            while (claimed.size() < max && !queue.isEmpty()) {
+                AutomationJob job = queue.poll();
+                job.setStatus(JobStatus.RUNNING);
+                job.setAttempts(job.getAttempts() + 1);
+                job.setStartedAt(OffsetDateTime.now());
+                claimed.add(job);
+            }
+            return claimed;
+        }
+
+        @Override
+        public Set<Long> extendLeases(Collection<Long> jobIds) {
+            Set<Long> renewed = new HashSet<>(jobIds);
+            renewed.removeAll(lostLeases);
+            return renewed;
+        }
+
+        @Override
+        public List<Long> findCancelRequested(Collection<Long> jobIds) {
+            return jobIds.stream().filter(cancelRequested::contains).toList();
+        }
+
+        @Override
+        public boolean updateProgress(Long jobId, long processed, Long total) {
+            return !lostLeases.contains(jobId);
+        }
+
+        @Override
+        public int completeAll(List<JobCompletion> batch) {
+            batch.forEach(c -> completions.put(c.jobId(), c));
+            return batch.size();
+        }
+
+        @Override
+        public OffsetDateTime nextAttemptAt(Collection<JobType> types) {
+            return null;
+        }
+
+        @Override
+        public Map<JobType, Map<JobStatus, Long>> countByTypeAndStatus(Collection<JobStatus> statuses) {
+            return Map.of();
+        }
+
+        @Override
+        public List<AutomationJob> findByUuids(Collection<String> uuids) {
+            return List.of();
+        }
+
+        @Override public JobSubmission submit(NewJob request) { throw new UnsupportedOperationException(); }
+        @Override public BatchSubmission createAll(Iterator<NewJob> jobs) { throw new UnsupportedOperationException(); }
+        @Override public Optional<AutomationJob> findByUuid(String uuid) { throw new UnsupportedOperationException(); }
+        @Override public List<AutomationJob> search(JobType type, JobStatus status, OffsetDateTime from,
+                                                    OffsetDateTime to, JobCursor after, int limit) {
+            throw new UnsupportedOperationException();
+        }
+        @Override public CancelResult cancel(String uuid) { throw new UnsupportedOperationException(); }
+        @Override public void saveCheckpoint(Long jobId, long checkpointRow) { throw new UnsupportedOperationException(); }
+        @Override public int reapExpiredLeases() { throw new UnsupportedOperationException(); }
+    }
+}
@@ -0,0 +1,170 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.service.DocumentImportWriter.Row;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DocumentUploadImporterTest {
+
+    @TempDir
+    Path reportDir;
+
+    private DocumentUploadImporter importer;
+    private final List<List<Row>> chunks = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        AutomationJobProperties properties = new AutomationJobProperties();
+        properties.getDocumentImport().setReportDir(reportDir);
+        properties.getDocumentImport().setChunkSize(10);
+
+        // só o projeto 1 existe; (projeto, código, revisão) repetido não é regravado, como no NOT EXISTS
+        DocumentImportWriter writer = mock(DocumentImportWriter.class);
+        when(writer.existingProjects(any())).thenAnswer(invocation -> {
+            Set<Long> found = new HashSet<>((Collection<Long>) invocation.getArgument(0));
+            found.retainAll(Set.of(1L));
+            return found;
+        });
+        Set<Row> stored = new HashSet<>();
+        when(writer.writeChunk(anyList())).thenAnswer(invocation -> {
+            List<Row> rows = invocation.getArgument(0);
+            chunks.add(List.copyOf(rows));
+            int inserted = 0;
+            for (Row row : rows) if (stored.add(row)) inserted++;
+            return inserted;
+        });
+        importer = new DocumentUploadImporter(writer, properties, new ObjectMapper());
+    }
+
+    private DocumentUploadImporter.Result importCsv(String csv) throws IOException {
+        return importer.importFile(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), false, null);
+    }
+
+    private List<String> report(DocumentUploadImporter.Result result) throws IOException {
+        Path file = importer.report(result.reportId()).orElseThrow();
+        return Files.readAllLines(file, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void repetidasNoChunkEProjetosInexistentes() throws IOException {
+        DocumentUploadImporter.Result result = importCsv("""
+                projectId,code,title,revision
+                1,A,Alpha,1
+                1,A,Alpha,1
+                2,B,Beta,1
+                2,B,Beta,1
+                1,C,,1
+                x,D,Delta,1
+                1,E,"Echo, fachada",1
+                """);
+
+        assertEquals(7, result.rows());
+        assertEquals(2, result.created());
+        assertEquals(1, result.existing());
+        assertEquals(4, result.invalid());
+        assertEquals(1, chunks.size());
+        assertEquals(List.of("A", "A", "E"), chunks.get(0).stream().map(Row::code).toList());
+
+        // erros de leitura saem na hora; projeto inexistente, no flush do chunk
+        assertEquals(List.of(
+                "﻿row,content,message",
+                "5,\"1,C,,1\",title é obrigatório",
+                "6,\"x,D,Delta,1\",projectId inválido: x",
+                "3,\"2,B,Beta,1\",projectId 2 não existe",
+                "4,\"2,B,Beta,1\",projectId 2 não existe"), report(result));
+    }
+
+    @Test
+    void ndjsonComLinhasEmBrancoEInvalidas() throws IOException {
+        String ndjson = """
+                {"projectId": 1, "code": "A", "title": "Alpha", "revision": 1}
+
+                {"projectId": 1, "code":
+                [1, 2]
+                {"projectId": 1, "code": "B", "title": "Beta"}
+                """;
+        DocumentUploadImporter.Result result =
+                importer.importFile(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), true, null);
+
+        assertEquals(5, result.rows());
+        assertEquals(2, result.created());
+        assertEquals(2, result.invalid());
+        List<String> report = report(result);
+        assertEquals(3, report.size());
+        assertTrue(report.get(1).startsWith("3,,JSON inválido ("), report.get(1));
+        assertEquals("4,,linha não é um objeto JSON", report.get(2));
+    }
+
+    @Test
+    void chunksSeparadosMantemNumeracao() throws IOException {
+        StringBuilder csv = new StringBuilder("code;title\n");
+        for (int i = 1; i <= 25; i++) csv.append("C").append(i).append(";T\n");
+        csv.append("C26;\n");
+        DocumentUploadImporter.Result result = importer.importFile(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), false, 1L);
+
+        assertEquals(26, result.rows());
+        assertEquals(25, result.created());
+        assertEquals(List.of(10, 10, 5), chunks.stream().map(List::size).toList());
+        assertEquals("26,\"C26,\",title é obrigatório", report(result).get(1));
+    }
+
+    @Test
+    void importacaoLimpaNaoDeixaRelatorio() throws IOException {
+        DocumentUploadImporter.Result result = importCsv("projectId,code,title\n1,A,Alpha\n");
+
+        assertNull(result.reportId());
+        assertEquals(1, result.created());
+        assertNoReports();
+    }
+
+    @Test
+    void cabecalhoInvalidoNaoDeixaRelatorio() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> importCsv("projectId,nome\n1,A\n"));
+        assertThrows(IllegalArgumentException.class, () -> importCsv(""));
+        assertNoReports();
+    }
+
+    @Test
+    void relatorioSoPorUuid() throws IOException {
+        DocumentUploadImporter.Result result = importCsv("projectId,code,title\n9,A,Alpha\n");
+
+        assertNotNull(result.reportId());
+        assertTrue(importer.report(result.reportId()).isPresent());
+        assertFalse(importer.report("../" + result.reportId()).isPresent());
+        assertFalse(importer.report("00000000-0000-0000-0000-000000000000").isPresent());
+    }
+
+    private void assertNoReports() throws IOException {
+        try (Stream<Path> files = Files.list(reportDir)) {
+            assertEquals(List.of(), files.toList());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.model.AutomationJob;
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mantém o arquivo de jobs em sincronia com a tabela quente: toda coluna
+ * mapeada em AutomationJob precisa estar em ARCHIVED_COLUMNS e nas migrations
+ * de app.automation_job_archive.
+ */
+class JobArchiverColumnsTest {
+
+    private static final Pattern CREATE_COLUMN = Pattern.compile("^\\s+([a-z_]+)\\s+[A-Za-z]", Pattern.MULTILINE);
+    private static final Pattern ADD_COLUMN = Pattern.compile(
+            "ALTER TABLE app\\.automation_job_archive ADD ([a-z_]+)");
+
+    @Test
+    void archivedColumnsCobremAEntidade() {
+        assertEquals(entityColumns(), new TreeSet<>(JobArchiver.ARCHIVED_COLUMNS));
+    }
+
+    @Test
+    void migrationsDoArquivoTemTodasAsColunas() throws IOException {
+        Set<String> archive = new TreeSet<>();
+        Matcher created = CREATE_COLUMN.matcher(migration("V16__create_job_archive.sql"));
+        while (created.find()) archive.add(created.group(1));
+        // colunas acrescentadas depois, em qualquer migration
+        try (Stream<Path> files = Files.list(migrationDir())) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".sql")).toList()) {
+                Matcher added = ADD_COLUMN.matcher(Files.readString(file));
+                while (added.find()) archive.add(added.group(1));
+            }
+        }
+
+        List<String> missing = new ArrayList<>(JobArchiver.ARCHIVED_COLUMNS);
+        missing.removeAll(archive);
+        assertTrue(missing.isEmpty(), "colunas sem migration no arquivo: " + missing);
+        assertTrue(archive.contains("archived_at"));
+    }
+
+    private static Set<String> entityColumns() {
+        Set<String> columns = new TreeSet<>();
+        for (Field field : AutomationJob.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) continue;
+            Column column = field.getAnnotation(Column.class);
+            if (column == null && field.getAnnotation(Id.class) == null) continue;
+            columns.add(column != null && !column.name().isEmpty() ? column.name() : field.getName());
+        }
+        return columns;
+    }
+
+    private static Path migrationDir() throws IOException {
+        try {
+            return Path.of(JobArchiverColumnsTest.class.getResource("/db/migration").toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static String migration(String name) throws IOException {
+        try (InputStream in = JobArchiverColumnsTest.class.getResourceAsStream("/db/migration/" + name)) {
+            if (in == null) throw new IOException("migration não encontrada: " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.job.JobCompletion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobCompletionBufferTest {
+
+    private final AutomationJobService service = mock(AutomationJobService.class);
+    private final AutomationJobProperties properties = new AutomationJobProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<List<Long>> batches = new ArrayList<>();
+    private JobCompletionBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        properties.setCompletionFlushSize(3);
+        when(service.completeAll(anyList())).thenAnswer(this::record);
+        buffer = new JobCompletionBuffer(service, properties, registry);
+    }
+
+    private int record(InvocationOnMock invocation) {
+        List<JobCompletion> batch = invocation.getArgument(0);
+        batches.add(batch.stream().map(JobCompletion::jobId).toList());
+        return batch.size();
+    }
+
+    private double pending() {
+        return registry.get("docflow.jobs.completion.pending").gauge().value();
+    }
+
+    @Test
+    void gravaAoAtingirOTamanhoDoLote() {
+        buffer.add(JobCompletion.success(1L));
+        buffer.add(JobCompletion.success(2L));
+        assertTrue(batches.isEmpty());
+        assertEquals(2, pending());
+
+        buffer.add(JobCompletion.success(3L));
+
+        assertEquals(List.of(List.of(1L, 2L, 3L)), batches);
+        assertEquals(0, pending());
+    }
+
+    @Test
+    void flushPeriodicoGravaLoteIncompleto() {
+        buffer.add(JobCompletion.success(1L));
+
+        buffer.flush();
+        buffer.flush(); // vazio: não chama o store
+
+        assertEquals(List.of(List.of(1L)), batches);
+    }
+
+    @Test
+    void loteQueFalhaVoltaParaOBufferNaOrdem() {
+        doThrow(new IllegalStateException("deadlock")).doAnswer(this::record).when(service).completeAll(anyList());
+        buffer.add(JobCompletion.success(1L));
+        buffer.add(JobCompletion.failed(2L, "x"));
+        buffer.add(JobCompletion.success(3L)); // dispara o flush que falha
+
+        assertTrue(batches.isEmpty());
+        assertEquals(3, pending());
+        assertEquals(1, registry.get("docflow.jobs.completion.flush.failures").counter().count());
+
+        buffer.flush();
+
+        assertEquals(List.of(List.of(1L, 2L, 3L)), batches);
+        assertEquals(0, pending());
+    }
+
+    @Test
+    void acumuladoEGravadoEmLotesDoTamanhoMaximo() {
+        AtomicBoolean down = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (down.get()) throw new IllegalStateException("fora");
+            return record(invocation);
+        }).when(service).completeAll(anyList());
+        for (long id = 1; id <= 7; id++) buffer.add(JobCompletion.success(id));
+        assertEquals(7, pending());
+
+        down.set(false);
+        buffer.flush();
+
+        assertEquals(List.of(3, 3, 1), batches.stream().map(List::size).toList());
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L, 6L, 7L),
+                batches.stream().flatMap(List::stream).collect(Collectors.toSet()));
+        assertEquals(0, pending());
+    }
+
+    @Test
+    void finalizacoesIgnoradasNaoVoltamParaOBuffer() {
+        doReturn(1).when(service).completeAll(anyList()); // o outro job perdeu a lease
+        buffer.add(JobCompletion.success(1L));
+        buffer.add(JobCompletion.success(2L));
+
+        buffer.flush();
+
+        assertEquals(0, pending());
+        assertEquals(0, registry.get("docflow.jobs.completion.flush.failures").counter().count());
+        assertEquals(2, registry.get("docflow.jobs.completion.flush.size").summary().totalAmount());
+    }
+}
@@ -0,0 +1,133 @@
+package com.adi.docflow.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cancelamento da descendência no store SQL, contra um grafo em memória que
+ * responde ao UPDATE...OUTPUT de cada nível como o banco responderia.
+ */
+class JobDependenciesTest {
+
+    /** automation_job + automation_job_dependency reduzidos ao que o UPDATE lê. */
+    private static final class Graph {
+        final Map<Long, String> status = new HashMap<>();
+        final Map<Long, List<Long>> children = new HashMap<>();
+        final Map<Long, Integer> cancelledTimes = new HashMap<>();
+        int statements;
+
+        void job(long id, String st) { status.put(id, st); }
+
+        void edge(long parent, long child) {
+            children.computeIfAbsent(parent, k -> new ArrayList<>()).add(child);
+        }
+
+        List<Long> cancelChildrenOf(Object[] frontier) {
+            statements++;
+            List<Long> out = new ArrayList<>();
+            for (Object parent : frontier) {
+                for (Long child : children.getOrDefault((Long) parent, List.of())) {
+                    if ("BLOCKED".equals(status.get(child))) {
+                        status.put(child, "CANCELLED");
+                        cancelledTimes.merge(child, 1, Integer::sum);
+                        out.add(child);
+                    }
+                }
+            }
+            return out;
+        }
+
+        JobDependencies dependencies() {
+            JdbcTemplate jdbc = mock(JdbcTemplate.class);
+            when(jdbc.queryForList(anyString(), eq(Long.class), any(Object[].class)))
+                    .thenAnswer(inv -> cancelChildrenOf((Object[]) inv.getRawArguments()[2]));
+            return new JobDependencies(jdbc);
+        }
+    }
+
+    @Test
+    void losangosEncadeadosCancelamCadaJobUmaVezPorNivel() {
+        // 1 -> {a, b} -> junção -> {a, b} -> junção ... : 2^40 caminhos até o fim
+        Graph g = new Graph();
+        g.job(1, "FAILED");
+        long join = 1, next = 2;
+        int levels = 40;
+        for (int i = 0; i < levels; i++) {
+            long a = next++, b = next++, j = next++;
+            g.job(a, "BLOCKED");
+            g.job(b, "BLOCKED");
+            g.job(j, "BLOCKED");
+            g.edge(join, a);
+            g.edge(join, b);
+            g.edge(a, j);
+            g.edge(b, j);
+            join = j;
+        }
+
+        int cancelled = g.dependencies().cancelDescendants(List.of(1L));
+
+        assertEquals(3 * levels, cancelled);
+        assertTrue(g.cancelledTimes.values().stream().allMatch(n -> n == 1));
+        // dois níveis por losango, mais o que volta vazio
+        assertEquals(2 * levels + 1, g.statements);
+    }
+
+    @Test
+    void naoDesceAbaixoDeJobQueJaTerminou() {
+        Graph g = new Graph();
+        g.job(1, "FAILED");
+        g.job(2, "BLOCKED");
+        g.job(3, "SUCCESS");
+        g.job(4, "BLOCKED");  // filho de 3: não é descendência BLOCKED de 1
+        g.job(5, "BLOCKED");
+        g.edge(1, 2);
+        g.edge(1, 3);
+        g.edge(3, 4);
+        g.edge(2, 5);
+
+        int cancelled = g.dependencies().cancelDescendants(List.of(1L));
+
+        assertEquals(2, cancelled);
+        assertEquals("CANCELLED", g.status.get(5L));
+        assertEquals("SUCCESS", g.status.get(3L));
+        assertEquals("BLOCKED", g.status.get(4L));
+    }
+
+    @Test
+    void fronteiraGrandeEDivididaEmBlocos() {
+        Graph g = new Graph();
+        List<Long> failed = new ArrayList<>();
+        for (long id = 1; id <= 4500; id++) {
+            g.job(id, "FAILED");
+            failed.add(id);
+        }
+        g.job(10_000, "BLOCKED");
+        g.edge(4500, 10_000);
+
+        int cancelled = g.dependencies().cancelDescendants(failed);
+
+        assertEquals(1, cancelled);
+        // 3 blocos no primeiro nível, 1 no segundo
+        assertEquals(4, g.statements);
+    }
+
+    @Test
+    void semPaisNaoExecutaNada() {
+        Graph g = new Graph();
+        assertEquals(0, g.dependencies().cancelDescendants(List.of()));
+        assertEquals(0, g.statements);
+    }
+}
@@ -0,0 +1,69 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties.ExecutionMode;
+import com.adi.docflow.config.SchedulingConfig;
+import com.adi.docflow.job.JobType;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Compara os modos de {@code app.jobs.execution-mode} com jobs que passam o
+ * tempo bloqueados (como SMTP ou JDBC), despachados como no runner: reserva
+ * de vagas no JobWorkerPool e submit. Não roda com os testes; para executar:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.adi.docflow.service.JobExecutorBenchmark [jobs] [bloqueio-ms]
+ * </pre>
+ */
+public final class JobExecutorBenchmark {
+
+    private JobExecutorBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int jobs = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long blockMs = args.length > 1 ? Long.parseLong(args[1]) : 20;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        // aquecimento
+        run(ExecutionMode.PLATFORM, 8, 2_000, blockMs);
+        run(ExecutionMode.VIRTUAL, 8, 2_000, blockMs);
+
+        System.out.printf("%-9s %12s %10s %14s %14s%n", "modo", "concorrência", "jobs/s", "pico threads SO", "tempo (ms)");
+        for (int concurrency : new int[] {8, 64, 512, 2048}) {
+            for (ExecutionMode mode : ExecutionMode.values()) {
+                threads.resetPeakThreadCount();
+                long start = System.nanoTime();
+                run(mode, concurrency, jobs, blockMs);
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                System.out.printf("%-9s %12d %10.0f %14d %14d%n", mode, concurrency,
+                        jobs * 1000.0 / Math.max(elapsedMs, 1), threads.getPeakThreadCount(), elapsedMs);
+            }
+        }
+    }
+
+    private static void run(ExecutionMode mode, int concurrency, int jobs, long blockMs) throws InterruptedException {
+        JobWorkerPool pool = new JobWorkerPool(JobType.EMAIL_NOTIFY, concurrency,
+                SchedulingConfig.forMode(mode).create(JobType.EMAIL_NOTIFY, concurrency));
+        CountDownLatch done = new CountDownLatch(jobs);
+        int submitted = 0;
+        while (submitted < jobs) {
+            int slots = pool.reserve(jobs - submitted);
+            for (int i = 0; i < slots; i++, submitted++) {
+                pool.submit(() -> {
+                    try {
+                        Thread.sleep(blockMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.countDown();
+                });
+            }
+            if (slots == 0) Thread.sleep(1);
+        }
+        done.await();
+        pool.shutdown(60);
+    }
+}
@@ -0,0 +1,88 @@
+package com.adi.docflow.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Reescrita do journal: o mapeamento vivo só é trocado depois do novo arquivo gravado. */
+class JobJournalTest {
+
+    private static final OffsetDateTime AT = OffsetDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final long CAPACITY = 4096;
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private JobJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = dir.resolve("jobs.journal");
+        journal = new JobJournal(file, false);
+        journal.replay(CAPACITY, entry -> { });
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    private static byte[] progress(long jobId, long processed) {
+        return JobJournal.encodeProgress(jobId, processed, null, AT);
+    }
+
+    // jobId -> processed de cada registro, em ordem
+    private List<long[]> reread() throws IOException {
+        journal.close();
+        journal = new JobJournal(file, false);
+        List<long[]> entries = new ArrayList<>();
+        journal.replay(CAPACITY, e -> entries.add(new long[]{e.jobId(), e.processed()}));
+        return entries;
+    }
+
+    @Test
+    void rewriteTrocaOConteudoEContinuaAceitandoAppends() throws IOException {
+        journal.append(progress(1, 10));
+        journal.append(progress(2, 20));
+
+        journal.rewrite(List.of(progress(2, 21)), CAPACITY);
+        assertTrue(journal.append(progress(3, 30)));
+
+        List<long[]> entries = reread();
+        assertEquals(2, entries.size());
+        assertEquals(2, entries.get(0)[0]);
+        assertEquals(21, entries.get(0)[1]);
+        assertEquals(3, entries.get(1)[0]);
+        assertFalse(Files.exists(dir.resolve("jobs.journal.tmp")));
+    }
+
+    @Test
+    void rewriteQueFalhaMantemOJournalAtual() throws IOException {
+        journal.append(progress(1, 10));
+
+        // maior que um mapeamento aceita: falha antes de tocar no journal vivo
+        assertThrows(IOException.class, () -> journal.rewrite(List.of(progress(9, 90)), 3L << 30));
+
+        assertTrue(journal.append(progress(2, 20)));
+        List<long[]> entries = reread();
+        assertEquals(2, entries.size());
+        assertEquals(1, entries.get(0)[0]);
+        assertEquals(2, entries.get(1)[0]);
+        assertFalse(Files.exists(dir.resolve("jobs.journal.tmp")));
+    }
+}
@@ -0,0 +1,85 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties.ExecutionMode;
+import com.adi.docflow.config.SchedulingConfig;
+import com.adi.docflow.job.JobType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobWorkerPoolTest {
+
+    private static JobWorkerPool pool(ExecutionMode mode, int concurrency) {
+        return new JobWorkerPool(JobType.EMAIL_NOTIFY, concurrency,
+                SchedulingConfig.forMode(mode).create(JobType.EMAIL_NOTIFY, concurrency));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionMode.class)
+    void vagasLimitadasPelaConcorrencia(ExecutionMode mode) throws Exception {
+        JobWorkerPool pool = pool(mode, 4);
+        CountDownLatch running = new CountDownLatch(4);
+        CountDownLatch finish = new CountDownLatch(1);
+        AtomicInteger virtual = new AtomicInteger();
+
+        assertEquals(4, pool.reserve(10));
+        assertTrue(pool.isFull());
+        assertEquals(0, pool.reserve(1));
+        for (int i = 0; i < 4; i++) {
+            pool.submit(() -> {
+                if (Thread.currentThread().isVirtual()) virtual.incrementAndGet();
+                running.countDown();
+                try {
+                    finish.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertEquals(mode == ExecutionMode.VIRTUAL ? 4 : 0, virtual.get());
+
+        finish.countDown();
+        pool.shutdown(5);
+        assertFalse(pool.isFull());
+        assertEquals(4, pool.reserve(10));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionMode.class)
+    void muitosJobsNuncaPassamDoLimite(ExecutionMode mode) throws Exception {
+        JobWorkerPool pool = pool(mode, 8);
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(500);
+
+        int submitted = 0;
+        while (submitted < 500) {
+            int slots = pool.reserve(500 - submitted);
+            for (int i = 0; i < slots; i++, submitted++) {
+                pool.submit(() -> {
+                    peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    current.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            if (slots == 0) Thread.sleep(1);
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        pool.shutdown(5);
+        assertTrue(peak.get() <= 8, "pico de " + peak.get());
+    }
+}
@@ -0,0 +1,96 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.job.JobCompletion;
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobType;
+import com.adi.docflow.job.NewJob;
+import com.adi.docflow.model.AutomationJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Cancelamento em cascata da descendência BLOCKED no store LOCAL. */
+class LocalJobStoreDependenciesTest {
+
+    @TempDir
+    Path dir;
+
+    private LocalJobStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AutomationJobProperties properties = new AutomationJobProperties();
+        properties.getLocal().setJournalDir(dir);
+        store = new LocalJobStore(properties, event -> { });
+        store.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+    }
+
+    private String submit(String... dependsOn) {
+        return store.submit(new NewJob(JobType.EMAIL_NOTIFY, null, null, null, List.of(dependsOn), null))
+                .job().getUuid();
+    }
+
+    private JobStatus status(String uuid) {
+        return store.findByUuid(uuid).orElseThrow().getStatus();
+    }
+
+    @Test
+    void cadeiaComMaisDeCemNiveis() {
+        String root = submit();
+        List<String> chain = new ArrayList<>();
+        String parent = root;
+        for (int i = 0; i < 150; i++) {
+            parent = submit(parent);
+            chain.add(parent);
+        }
+
+        store.cancel(root);
+
+        for (String uuid : chain) assertEquals(JobStatus.CANCELLED, status(uuid));
+    }
+
+    @Test
+    void losangoCancelaOFilhoUmaVez() {
+        String root = submit();
+        String left = submit(root);
+        String right = submit(root);
+        String bottom = submit(left, right);
+        String below = submit(bottom);
+
+        AutomationJob claimed = store.claimPending(JobType.EMAIL_NOTIFY, 1, true).get(0);
+        assertEquals(root, claimed.getUuid());
+        assertEquals(1, store.completeAll(List.of(JobCompletion.failed(claimed.getId(), "falhou"))));
+
+        for (String uuid : List.of(left, right, bottom, below)) {
+            assertEquals(JobStatus.CANCELLED, status(uuid));
+        }
+    }
+
+    @Test
+    void descendenteQueJaTerminouNaoEAlterado() {
+        String root = submit();
+        String other = submit();
+        String child = submit(root, other);
+
+        // o outro pai falha primeiro: o filho é cancelado por ele
+        store.cancel(other);
+        assertEquals(JobStatus.CANCELLED, status(child));
+        String error = store.findByUuid(child).orElseThrow().getErrorMessage();
+
+        store.cancel(root);
+        assertEquals(error, store.findByUuid(child).orElseThrow().getErrorMessage());
+    }
+}
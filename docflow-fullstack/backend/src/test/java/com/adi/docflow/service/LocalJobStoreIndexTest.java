@@ -0,0 +1,187 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.job.JobCompletion;
+import com.adi.docflow.job.JobCursor;
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobType;
+import com.adi.docflow.job.NewJob;
+import com.adi.docflow.model.AutomationJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Índices (tipo, status) do store LOCAL conferidos contra uma varredura completa. */
+class LocalJobStoreIndexTest {
+
+    private static final OffsetDateTime BASE = OffsetDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @TempDir
+    Path dir;
+
+    private AutomationJobProperties properties;
+    private LocalJobStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new AutomationJobProperties();
+        properties.getLocal().setJournalDir(dir);
+        // mapeamento pequeno: o teste passa por várias compactações (rewrite + unmap)
+        properties.getLocal().setSegmentSize(DataSize.ofKilobytes(16));
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+    }
+
+    private LocalJobStore open() throws Exception {
+        LocalJobStore opened = new LocalJobStore(properties, event -> { });
+        opened.open();
+        return opened;
+    }
+
+    /** 120 jobs em horários repetidos (empates resolvidos pelo id), metade já vencida. */
+    private void populate() {
+        for (int i = 0; i < 120; i++) {
+            JobType type = i % 3 == 0 ? JobType.IMPORT_DOCUMENTS : JobType.EMAIL_NOTIFY;
+            OffsetDateTime at = i % 2 == 0 ? BASE.plusMinutes(i / 4) : OffsetDateTime.now().plusDays(1).plusMinutes(i);
+            store.submit(new NewJob(type, "{}", at, null));
+        }
+        List<AutomationJob> claimed = store.claimPending(JobType.EMAIL_NOTIFY, 25, true);
+        List<JobCompletion> done = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            Long id = claimed.get(i).getId();
+            done.add(i % 3 == 0 ? JobCompletion.success(id) : i % 3 == 1 ? JobCompletion.failed(id, "x") : JobCompletion.cancelled(id));
+        }
+        assertEquals(15, store.completeAll(done));
+        store.claimPending(JobType.IMPORT_DOCUMENTS, 4, false);
+    }
+
+    private List<AutomationJob> all() {
+        return store.search(null, null, null, null, null, 10_000);
+    }
+
+    private static List<Long> ids(List<AutomationJob> jobs) {
+        return jobs.stream().map(AutomationJob::getId).toList();
+    }
+
+    @Test
+    void semFiltroEmOrdemDecrescente() {
+        populate();
+        List<AutomationJob> all = all();
+
+        assertEquals(120, all.size());
+        List<AutomationJob> sorted = new ArrayList<>(all);
+        sorted.sort(Comparator.comparing(AutomationJob::getScheduledAt).thenComparing(AutomationJob::getId).reversed());
+        assertEquals(ids(sorted), ids(all));
+    }
+
+    @Test
+    void filtrosPaginadosBatemComAVarredura() {
+        populate();
+        List<AutomationJob> all = all();
+        OffsetDateTime from = BASE.plusMinutes(3);
+        OffsetDateTime to = BASE.plusMinutes(12);
+
+        List<JobType> types = new ArrayList<>(Arrays.asList(JobType.values()));
+        types.add(null);
+        List<JobStatus> statuses = new ArrayList<>(Arrays.asList(JobStatus.values()));
+        statuses.add(null);
+        for (JobType type : types) {
+            for (JobStatus status : statuses) {
+                for (boolean range : new boolean[]{false, true}) {
+                    List<Long> expected = ids(all.stream()
+                            .filter(j -> type == null || j.getType() == type)
+                            .filter(j -> status == null || j.getStatus() == status)
+                            .filter(j -> !range || (!j.getScheduledAt().isBefore(from) && j.getScheduledAt().isBefore(to)))
+                            .toList());
+                    assertEquals(expected, paged(type, status, range ? from : null, range ? to : null),
+                            type + "/" + status + (range ? " com intervalo" : ""));
+                }
+            }
+        }
+    }
+
+    // percorre todas as páginas de 7 pelo cursor
+    private List<Long> paged(JobType type, JobStatus status, OffsetDateTime from, OffsetDateTime to) {
+        List<Long> seen = new ArrayList<>();
+        JobCursor after = null;
+        while (true) {
+            List<AutomationJob> page = store.search(type, status, from, to, after, 7);
+            List<AutomationJob> shown = page.subList(0, Math.min(7, page.size()));
+            seen.addAll(ids(shown));
+            if (page.size() <= 7) return seen;
+            AutomationJob last = shown.get(shown.size() - 1);
+            after = new JobCursor(last.getScheduledAt(), last.getId());
+        }
+    }
+
+    @Test
+    void contagemBateComAVarredura() {
+        populate();
+        assertEquals(countAll(all()), store.countByTypeAndStatus(EnumSet.allOf(JobStatus.class)));
+
+        Map<JobType, Map<JobStatus, Long>> backlog = store.countByTypeAndStatus(List.of(JobStatus.RUNNING));
+        assertEquals(Map.of(JobType.EMAIL_NOTIFY, Map.of(JobStatus.RUNNING, 10L),
+                JobType.IMPORT_DOCUMENTS, Map.of(JobStatus.RUNNING, 4L)), backlog);
+    }
+
+    private static Map<JobType, Map<JobStatus, Long>> countAll(List<AutomationJob> jobs) {
+        Map<JobType, Map<JobStatus, Long>> counts = new EnumMap<>(JobType.class);
+        for (AutomationJob job : jobs) {
+            counts.computeIfAbsent(job.getType(), t -> new EnumMap<>(JobStatus.class))
+                    .merge(job.getStatus(), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    @Test
+    void reaperSoVeOsRunningVencidos() {
+        properties.setLeaseDuration(Duration.ofMillis(-1));
+        populate();
+
+        assertEquals(14, store.reapExpiredLeases());
+        assertEquals(0, store.reapExpiredLeases());
+        assertTrue(store.countByTypeAndStatus(List.of(JobStatus.RUNNING)).isEmpty());
+    }
+
+    @Test
+    void indicesReconstruidosNaReaplicacao() throws Exception {
+        populate();
+        Map<JobType, Map<JobStatus, Long>> before = countAll(all());
+        store.close();
+
+        store = open();
+
+        // os RUNNING da execução anterior voltam para a fila na subida
+        Map<JobType, Map<JobStatus, Long>> expected = new EnumMap<>(JobType.class);
+        before.forEach((type, byStatus) -> {
+            Map<JobStatus, Long> copy = new EnumMap<>(byStatus);
+            Long running = copy.remove(JobStatus.RUNNING);
+            if (running != null) copy.merge(JobStatus.QUEUED, running, Long::sum);
+            expected.put(type, copy);
+        });
+        assertEquals(expected, store.countByTypeAndStatus(EnumSet.allOf(JobStatus.class)));
+        assertEquals(countAll(all()), store.countByTypeAndStatus(EnumSet.allOf(JobStatus.class)));
+        assertEquals(120, all().size());
+    }
+}
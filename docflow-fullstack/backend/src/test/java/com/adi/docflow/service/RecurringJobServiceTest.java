@@ -0,0 +1,66 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.model.RecurringJob;
+import com.adi.docflow.repository.RecurringJobRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class RecurringJobServiceTest {
+
+    private static final OffsetDateTime DUE = OffsetDateTime.parse("2026-03-01T02:30:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RecurringJobService service = new RecurringJobService(
+            mock(RecurringJobRepository.class), mock(AutomationJobService.class), objectMapper);
+
+    private static RecurringJob def(String name, String template) {
+        RecurringJob def = new RecurringJob();
+        def.setName(name);
+        def.setZone("America/Sao_Paulo");
+        def.setPayloadTemplate(template);
+        return def;
+    }
+
+    @Test
+    void substituiPlaceholdersDentroDeStrings() throws Exception {
+        String payload = service.render(def("relatorio", """
+                {"titulo": "{{name}} de {{date}}", "quando": "{{scheduledAt}}",
+                 "tags": ["{{name}}", 1], "opcoes": {"n": 3}}"""), DUE);
+
+        JsonNode json = objectMapper.readTree(payload);
+        assertEquals("relatorio de 2026-02-28", json.get("titulo").asText()); // data no fuso da definição
+        assertEquals(DUE.toString(), json.get("quando").asText());
+        assertEquals("relatorio", json.get("tags").get(0).asText());
+        assertEquals(1, json.get("tags").get(1).asInt());
+        assertEquals(3, json.get("opcoes").get("n").asInt());
+    }
+
+    @Test
+    void nomeComAspasEBarraNaoQuebraOJson() throws Exception {
+        String name = "diário \"A\"\\B\n\",\"injetado\":\"sim";
+        String payload = service.render(def(name, "{\"titulo\": \"{{name}}\"}"), DUE);
+
+        JsonNode json = objectMapper.readTree(payload);
+        assertEquals(1, json.size());
+        assertEquals(name, json.get("titulo").asText());
+    }
+
+    @Test
+    void templateNuloGeraPayloadNulo() {
+        assertNull(service.render(def("x", null), DUE));
+    }
+
+    @Test
+    void templateInvalidoERejeitado() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.render(def("x", "{\"titulo\": {{name}}}"), DUE));
+    }
+}
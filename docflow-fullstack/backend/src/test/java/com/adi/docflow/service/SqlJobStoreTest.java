@@ -0,0 +1,101 @@
+package com.adi.docflow.service;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.job.JobType;
+import com.adi.docflow.job.NewJob;
+import com.adi.docflow.model.AutomationJob;
+import com.adi.docflow.repository.AutomationJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * As colunas DATETIME2 guardam UTC: com o processo num fuso UTC-3, lease e
+ * agendamento não podem chegar ao banco na hora local.
+ */
+class SqlJobStoreTest {
+
+    private final AutomationJobRepository repository = mock(AutomationJobRepository.class);
+    private final AutomationJobProperties properties = new AutomationJobProperties();
+    private SqlJobStore store;
+    private TimeZone original;
+
+    @BeforeEach
+    void setUp() {
+        original = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+        properties.setLeaseDuration(Duration.ofMinutes(5));
+        store = new SqlJobStore(repository, properties, mock(ApplicationEventPublisher.class),
+                mock(JdbcTemplate.class), mock(JobDependencies.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TimeZone.setDefault(original);
+    }
+
+    @Test
+    void claimGravaLeaseEmUtc() {
+        LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC);
+        store.claimPending(JobType.values()[0], 10, false);
+        LocalDateTime after = LocalDateTime.now(ZoneOffset.UTC);
+
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> leaseUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).claimDueByPriority(anyString(), eq(10), any(), now.capture(), leaseUntil.capture());
+
+        assertTrue(!now.getValue().isBefore(before) && !now.getValue().isAfter(after), now.getValue().toString());
+        assertEquals(Duration.ofMinutes(5), Duration.between(now.getValue(), leaseUntil.getValue()));
+    }
+
+    @Test
+    void claimFifoUsaOMesmoRelogio() {
+        LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC);
+        store.claimPending(JobType.values()[0], 3, true);
+
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).claimDueFifo(anyString(), anyInt(), any(), now.capture(), any());
+        assertTrue(!now.getValue().isBefore(before), now.getValue().toString());
+    }
+
+    @Test
+    void submitNormalizaAgendamentoParaUtc() {
+        when(repository.saveAndFlush(any(AutomationJob.class))).then(returnsFirstArg());
+        OffsetDateTime local = OffsetDateTime.parse("2026-03-01T09:00:00-03:00");
+
+        AutomationJob saved = store.submit(new NewJob(JobType.values()[0], "{}", local, null)).job();
+
+        assertEquals(OffsetDateTime.parse("2026-03-01T12:00:00Z"), saved.getScheduledAt());
+        assertEquals(ZoneOffset.UTC, saved.getNextAttemptAt().getOffset());
+        assertEquals(ZoneOffset.UTC, saved.getCreatedAt().getOffset());
+    }
+
+    @Test
+    void submitSemAgendamentoUsaAgoraEmUtc() {
+        when(repository.saveAndFlush(any(AutomationJob.class))).then(returnsFirstArg());
+
+        AutomationJob saved = store.submit(new NewJob(JobType.values()[0], "{}", null, null)).job();
+
+        assertEquals(ZoneOffset.UTC, saved.getScheduledAt().getOffset());
+    }
+}
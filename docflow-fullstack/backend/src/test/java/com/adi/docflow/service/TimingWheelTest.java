@@ -0,0 +1,78 @@
+package com.adi.docflow.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    // 8 slots de 100 ms: uma volta = 800 ms
+    private final TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+
+    @Test
+    void disparaNoTickDoVencimento() {
+        wheel.schedule("a", 300);
+
+        assertTrue(wheel.advance(299).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(300));
+        assertTrue(wheel.advance(1_000).isEmpty());
+    }
+
+    @Test
+    void vencimentoNoPassadoCaiNoProximoTick() {
+        wheel.advance(500);
+        wheel.schedule("atrasado", 100);
+
+        assertEquals(List.of("atrasado"), wheel.advance(600));
+    }
+
+    @Test
+    void ultimoSlotDaVoltaNaoEsperaOutraVolta() {
+        wheel.schedule("fim-da-volta", 800); // 8 ticks à frente, mesmo slot do tick atual
+
+        assertTrue(wheel.advance(700).isEmpty());
+        assertEquals(List.of("fim-da-volta"), wheel.advance(800));
+    }
+
+    @Test
+    void wrapAroundDoIndiceDoSlot() {
+        wheel.advance(650);                 // tick 6
+        wheel.schedule("depois-da-virada", 1_000); // tick 10 -> slot 2
+
+        assertTrue(wheel.advance(999).isEmpty());
+        assertEquals(List.of("depois-da-virada"), wheel.advance(1_000));
+    }
+
+    @Test
+    void variasVoltasNoMesmoSlot() {
+        wheel.schedule("1-volta", 200);    // tick 2
+        wheel.schedule("2-voltas", 1_000); // tick 10, mesmo slot
+        wheel.schedule("4-voltas", 2_600); // tick 26, mesmo slot
+
+        assertEquals(List.of("1-volta"), wheel.advance(200));
+        assertTrue(wheel.advance(999).isEmpty());
+        assertEquals(List.of("2-voltas"), wheel.advance(1_000));
+        assertTrue(wheel.advance(2_599).isEmpty());
+        assertEquals(List.of("4-voltas"), wheel.advance(2_600));
+    }
+
+    @Test
+    void avancoLongoDevolveEmOrdemDeTick() {
+        wheel.schedule("c", 2_000);
+        wheel.schedule("a", 150);
+        wheel.schedule("b", 900);
+
+        assertEquals(List.of("a", "b", "c"), wheel.advance(5_000));
+    }
+
+    @Test
+    void clearDescartaTudo() {
+        wheel.schedule("a", 300);
+        wheel.clear();
+
+        assertTrue(wheel.advance(10_000).isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package com.adi.docflow.service.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvRowReaderTest {
+
+    private static List<List<String>> readAll(CsvRowReader reader) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        List<String> row;
+        while ((row = reader.next()) != null) rows.add(row);
+        return rows;
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        return readAll(new CsvRowReader(new StringReader(csv)));
+    }
+
+    @Test
+    void camposEntreAspas() throws IOException {
+        assertEquals(List.of(
+                        List.of("code", "title"),
+                        List.of("A-1", "Planta, corte \"AA\""),
+                        List.of("A-2", "linha 1\nlinha 2")),
+                readAll("code,title\nA-1,\"Planta, corte \"\"AA\"\"\"\nA-2,\"linha 1\nlinha 2\"\n"));
+    }
+
+    @Test
+    void ignoraBomEAceitaCrlf() throws IOException {
+        assertEquals(List.of(List.of("code", "title"), List.of("A", "B")),
+                readAll("﻿code,title\r\nA,B\r\n"));
+    }
+
+    @Test
+    void detectaPontoEVirgulaNoCabecalho() throws IOException {
+        assertEquals(List.of(List.of("code", "title"), List.of("A", "1,5"), List.of("B", "x;y")),
+                readAll("code;title\nA;1,5\nB;\"x;y\"\n"));
+    }
+
+    @Test
+    void separadorForaDeAspasNaPrimeiraLinha() throws IOException {
+        assertEquals(List.of(List.of("a,b", "c"), List.of("1", "2")),
+                readAll("\"a,b\";c\n1;2\n"));
+    }
+
+    @Test
+    void separadorExplicito() throws IOException {
+        assertEquals(List.of(List.of("a;b", "c")),
+                readAll(new CsvRowReader(new StringReader("a;b|c"), '|')));
+    }
+
+    @Test
+    void celulasVaziasEUltimaLinhaSemQuebra() throws IOException {
+        assertEquals(List.of(List.of("a", "", "c"), List.of("", "", "")),
+                readAll("a,,c\n,,"));
+    }
+
+    @Test
+    void linhaEmBrancoViraUmaCelulaVazia() throws IOException {
+        assertEquals(List.of(List.of("a", "b"), List.of(""), List.of("c", "d")),
+                readAll("a,b\n\nc,d\n"));
+    }
+}
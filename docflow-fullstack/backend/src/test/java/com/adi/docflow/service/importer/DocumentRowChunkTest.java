@@ -0,0 +1,66 @@
+package com.adi.docflow.service.importer;
+
+import com.adi.docflow.service.DocumentImportWriter.Row;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DocumentRowChunkTest {
+
+    private final List<String> rejected = new ArrayList<>();
+    private final List<Set<Long>> lookups = new ArrayList<>();
+
+    // só o projeto 1 existe
+    private DocumentRowChunk chunk() {
+        return new DocumentRowChunk(new DocumentRowParser(List.of("projectId", "code", "title"), null),
+                ids -> {
+                    lookups.add(Set.copyOf(ids));
+                    Set<Long> found = new HashSet<>(ids);
+                    found.retainAll(Set.of(1L));
+                    return found;
+                },
+                10, (rowNo, content, message) -> rejected.add(rowNo + " " + content + " " + message));
+    }
+
+    @Test
+    void linhasRepetidasComProjetoInexistenteMantemSeusNumeros() {
+        DocumentRowChunk chunk = chunk();
+        chunk.add(1, List.of("9", "A1", "Planta"));
+        chunk.add(2, List.of("1", "B1", "Corte"));
+        chunk.add(3, List.of("9", "A1", "Planta"));
+
+        List<Row> valid = chunk.drain();
+
+        assertEquals(List.of(new Row(1, "B1", "Corte", 1)), valid);
+        assertEquals(List.of(
+                "1 [9, A1, Planta, 1] projectId 9 não existe",
+                "3 [9, A1, Planta, 1] projectId 9 não existe"), rejected);
+    }
+
+    @Test
+    void linhaInvalidaSaiComAsCelulasOriginais() {
+        DocumentRowChunk chunk = chunk();
+        chunk.add(4, List.of("x", "A1", "Planta"));
+
+        assertEquals(0, chunk.size());
+        assertEquals(List.of("4 [x, A1, Planta] projectId inválido: x"), rejected);
+    }
+
+    @Test
+    void drainEsvaziaOChunkESoConsultaProjetosNovos() {
+        DocumentRowChunk chunk = chunk();
+        chunk.add(1, List.of("1", "A1", "Planta"));
+        assertEquals(1, chunk.drain().size());
+        assertEquals(0, chunk.size());
+
+        chunk.add(2, List.of("1", "A2", "Corte"));
+        assertEquals(1, chunk.drain().size());
+        assertEquals(List.of(), chunk.drain());
+        assertEquals(List.of(Set.of(1L)), lookups);
+    }
+}
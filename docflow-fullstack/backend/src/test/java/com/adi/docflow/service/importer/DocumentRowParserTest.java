@@ -0,0 +1,121 @@
+package com.adi.docflow.service.importer;
+
+import com.adi.docflow.service.DocumentImportWriter.Row;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentRowParserTest {
+
+    private final List<String> errors = new ArrayList<>();
+
+    private Row parse(DocumentRowParser parser, String... cells) {
+        return parser.parse(List.of(cells), errors::add);
+    }
+
+    @Test
+    void aliasesEmPortuguesComAcentoECaixa() {
+        DocumentRowParser parser = new DocumentRowParser(List.of("Projeto", " Código ", "TÍTULO", "Revisão"), null);
+
+        assertEquals(new Row(7, "AB-01", "Planta baixa", 2), parse(parser, "7", "ab-01", " Planta baixa ", "2"));
+    }
+
+    @Test
+    void primeiraColunaDeTituloVence() {
+        DocumentRowParser parser = new DocumentRowParser(List.of("code", "Título", "Nome", "Descrição"), 1L);
+
+        assertEquals("Planta", parse(parser, "A1", "Planta", "outro", "descrição longa").title());
+    }
+
+    @Test
+    void descricaoNaoEAliasDeTitulo() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new DocumentRowParser(List.of("code", "descricao"), 1L));
+        assertTrue(e.getMessage().contains("title"), e.getMessage());
+    }
+
+    @Test
+    void projetoObrigatorioSemColunaESemPadrao() {
+        assertThrows(IllegalArgumentException.class, () -> new DocumentRowParser(List.of("code", "title"), null));
+    }
+
+    @Test
+    void usaProjetoPadraoERevisaoUm() {
+        DocumentRowParser parser = new DocumentRowParser(List.of("code", "title"), 5L);
+
+        assertEquals(new Row(5, "X", "Y", 1), parse(parser, "x", "Y"));
+    }
+
+    @Test
+    void numerosComCasasZeradasSaoAceitos() {
+        DocumentRowParser parser = new DocumentRowParser(List.of("projectId", "code", "title", "rev"), null);
+
+        // o Excel grava inteiros como "3.0"
+        assertEquals(new Row(3, "C", "T", 4), parse(parser, "3.0", "c", "T", "4.00"));
+    }
+
+    @Test
+    void numerosInvalidosSaoRejeitadosComMotivo() {
+        DocumentRowParser parser = new DocumentRowParser(List.of("projectId", "code", "title", "rev"), null);
+
+        assertNull(parse(parser, "abc", "c", "t", "1"));
+        assertNull(parse(parser, "1.5", "c", "t", "1"));
+        assertNull(parse(parser, "1", "c", "t", "A"));
+        assertNull(parse(parser, "1", "c", "t", "99999999999"));
+
+        assertEquals(List.of("projectId inválido: abc", "projectId inválido: 1.5",
+                "revision inválida: A", "revision inválida: 99999999999"), errors);
+    }
+
+    @Test
+    void linhaEmBrancoNaoEErro() {
+        DocumentRowParser parser = new DocumentRowParser(List.of("projectId", "code", "title"), null);
+
+        assertNull(parse(parser, " ", "", ""));
+        assertNull(parse(parser));
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void camposObrigatoriosETamanhos() {
+        DocumentRowParser parser = new DocumentRowParser(List.of("code", "title"), 1L);
+
+        assertNull(parse(parser, "", "t"));
+        assertNull(parse(parser, "c", ""));
+        assertNull(parse(parser, "c".repeat(41), "t"));
+        assertEquals(List.of("code é obrigatório", "title é obrigatório", "code com mais de 40 caracteres"), errors);
+
+        // título longo é truncado, não rejeitado
+        assertEquals(180, parse(parser, "c", "t".repeat(300)).title().length());
+    }
+
+    @Test
+    void projetosInexistentesConsultadosUmaVez() {
+        DocumentRowParser parser = new DocumentRowParser(List.of("projectId", "code", "title"), null);
+        List<Collection<Long>> lookups = new ArrayList<>();
+        Function<Collection<Long>, Set<Long>> lookup = ids -> {
+            lookups.add(Set.copyOf(ids));
+            return ids.contains(1L) ? Set.of(1L) : Set.of();
+        };
+        List<String> missing = new ArrayList<>();
+
+        List<Row> first = parser.retainExistingProjects(
+                List.of(new Row(1, "A", "a", 1), new Row(2, "B", "b", 1)), lookup, (r, msg) -> missing.add(msg));
+        List<Row> second = parser.retainExistingProjects(
+                List.of(new Row(2, "C", "c", 1), new Row(1, "D", "d", 1)), lookup, (r, msg) -> missing.add(msg));
+
+        assertEquals(List.of("A"), first.stream().map(Row::code).toList());
+        assertEquals(List.of("D"), second.stream().map(Row::code).toList());
+        assertEquals(List.of(Set.of(1L, 2L)), lookups);
+        assertEquals(List.of("projectId 2 não existe", "projectId 2 não existe"), missing);
+    }
+}
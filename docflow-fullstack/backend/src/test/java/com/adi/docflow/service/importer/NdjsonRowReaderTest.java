@@ -0,0 +1,68 @@
+package com.adi.docflow.service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdjsonRowReaderTest {
+
+    private static final List<String> COLUMNS = List.of("projectId", "code", "title", "revision");
+
+    private static NdjsonRowReader reader(String ndjson) {
+        return new NdjsonRowReader(new StringReader(ndjson), new ObjectMapper(), COLUMNS);
+    }
+
+    @Test
+    void cabecalhoEValoresNaOrdemDasColunas() throws IOException {
+        try (NdjsonRowReader reader = reader("""
+                {"title": "Planta", "code": "A-1", "projectId": 7, "revision": 2, "extra": true}
+                {"code": "A-2", "title": null}
+                """)) {
+            assertEquals(COLUMNS, reader.next());
+            assertEquals(List.of("7", "A-1", "Planta", "2"), reader.next());
+            assertEquals(List.of("", "A-2", "", ""), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void linhaEmBrancoMantemANumeracao() throws IOException {
+        try (NdjsonRowReader reader = reader("{\"code\": \"A\"}\n\n   \n{\"code\": \"B\"}")) {
+            reader.next();
+            assertEquals("A", reader.next().get(1));
+            assertTrue(reader.next().isEmpty());
+            assertTrue(reader.next().isEmpty());
+            assertEquals("B", reader.next().get(1));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void linhaInvalidaNaoInterrompeALeitura() throws IOException {
+        try (NdjsonRowReader reader = reader("""
+                {"code": "A"
+                [1, 2]
+                "texto"
+                {"code": "B"}
+                """)) {
+            reader.next();
+            NdjsonRowReader.InvalidLineException json =
+                    assertThrows(NdjsonRowReader.InvalidLineException.class, reader::next);
+            assertTrue(json.getMessage().startsWith("JSON inválido ("), json.getMessage());
+            assertEquals("linha não é um objeto JSON",
+                    assertThrows(NdjsonRowReader.InvalidLineException.class, reader::next).getMessage());
+            assertEquals("linha não é um objeto JSON",
+                    assertThrows(NdjsonRowReader.InvalidLineException.class, reader::next).getMessage());
+            assertEquals("B", reader.next().get(1));
+            assertNull(reader.next());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.adi.docflow.service.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XlsxRowReaderTest {
+
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    @TempDir
+    Path dir;
+
+    private Path xlsx(Map<String, String> entries) throws IOException {
+        Path file = dir.resolve("planilha.xlsx");
+        try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<String, String> e : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(e.getKey()));
+                zip.write(e.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    private static List<List<String>> readAll(Path file) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (XlsxRowReader reader = new XlsxRowReader(file)) {
+            List<String> row;
+            while ((row = reader.next()) != null) rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    void sharedStringsNumerosEBooleanos() throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("xl/sharedStrings.xml", """
+                <sst xmlns="%s"><si><t>code</t></si><si><t>title</t></si>
+                <si><r><t>Planta </t></r><r><t>baixa</t></r><rPh><t>ぷらんと</t></rPh></si></sst>""".formatted(MAIN_NS));
+        entries.put("xl/worksheets/sheet1.xml", """
+                <worksheet xmlns="%s"><dimension ref="A1:C3"/><sheetData>
+                <row r="1"><c r="A1" t="s"><v>0</v></c><c r="B1" t="s"><v>1</v></c></row>
+                <row r="2"><c r="A2"><v>12.0</v></c><c r="B2" t="s"><v>2</v></c><c r="C2" t="b"><v>1</v></c></row>
+                <row r="3"><c r="A3" t="inlineStr"><is><t>inline</t></is></c></row>
+                </sheetData></worksheet>""".formatted(MAIN_NS));
+
+        assertEquals(List.of(
+                        List.of("code", "title"),
+                        List.of("12.0", "Planta baixa", "TRUE"),
+                        List.of("inline")),
+                readAll(xlsx(entries)));
+    }
+
+    @Test
+    void celulasAusentesViramVazias() throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("xl/worksheets/sheet1.xml", """
+                <worksheet xmlns="%s"><sheetData>
+                <row r="1"><c r="B1"><v>1</v></c><c r="D1"><v>2</v></c></row>
+                </sheetData></worksheet>""".formatted(MAIN_NS));
+
+        assertEquals(List.of(List.of("", "1", "", "2")), readAll(xlsx(entries)));
+    }
+
+    @Test
+    void primeiraAbaPeloWorkbookEEstimativaDeLinhas() throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("xl/workbook.xml", """
+                <workbook xmlns="%s" xmlns:r="%s"><sheets>
+                <sheet name="Docs" sheetId="2" r:id="rId7"/><sheet name="Outra" sheetId="1" r:id="rId1"/>
+                </sheets></workbook>""".formatted(MAIN_NS, REL_NS));
+        entries.put("xl/_rels/workbook.xml.rels", """
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+                <Relationship Id="rId1" Target="worksheets/sheet1.xml"/>
+                <Relationship Id="rId7" Target="worksheets/sheet2.xml"/></Relationships>""");
+        entries.put("xl/worksheets/sheet1.xml", """
+                <worksheet xmlns="%s"><sheetData><row><c><v>errada</v></c></row></sheetData></worksheet>"""
+                .formatted(MAIN_NS));
+        entries.put("xl/worksheets/sheet2.xml", """
+                <worksheet xmlns="%s"><dimension ref="A1:B201"/><sheetData><row><c><v>certa</v></c></row></sheetData></worksheet>"""
+                .formatted(MAIN_NS));
+
+        try (XlsxRowReader reader = new XlsxRowReader(xlsx(entries))) {
+            assertEquals(List.of("certa"), reader.next());
+            assertEquals(200, reader.estimatedRows());
+        }
+    }
+
+    @Test
+    void arquivoQueNaoEZip() throws IOException {
+        Path file = dir.resolve("falso.xlsx");
+        Files.writeString(file, "code,title\n");
+
+        assertThrows(IOException.class, () -> new XlsxRowReader(file));
+    }
+}
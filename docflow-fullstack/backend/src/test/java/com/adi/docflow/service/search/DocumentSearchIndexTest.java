@@ -0,0 +1,120 @@
+package com.adi.docflow.service.search;
+
+import com.adi.docflow.config.DocumentSearchProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DocumentSearchIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private DocumentSearchIndex index;
+
+    /** Linha de SELECT_SQL: id, code, name, project, species, description. */
+    private record Row(long id, String code, String title, String project) {}
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (index != null) index.close();
+    }
+
+    private DocumentSearchIndex open(int maxHits, List<Row> rows) throws Exception {
+        DocumentSearchProperties properties = new DocumentSearchProperties();
+        properties.setIndexDir(dir);
+        properties.setMaxHits(maxHits);
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Row row : rows) handler.processRow(resultSet(row));
+            return null;
+        }).when(jdbc).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        index = new DocumentSearchIndex(properties, jdbc);
+        index.open();
+        index.rebuild();
+        return index;
+    }
+
+    private static ResultSet resultSet(Row row) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(row.id());
+        when(rs.getString(anyInt())).thenAnswer(invocation -> switch ((int) invocation.getArgument(0)) {
+            case 2 -> row.code();
+            case 3 -> row.title();
+            case 4 -> row.project();
+            default -> null;
+        });
+        return rs;
+    }
+
+    private static List<Row> numbered(int count) {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            rows.add(new Row(i, "ABC-%04d".formatted(i), "Planta baixa %d".formatted(i), "Subestação Norte"));
+        }
+        return rows;
+    }
+
+    @Test
+    void ateMaxHitsDevolveTodosOsIds() throws Exception {
+        open(10, numbered(10));
+
+        List<Long> hits = index.search("planta").orElseThrow();
+        assertEquals(10, hits.size());
+        assertEquals(List.of(7L), index.search("ABC-0007").orElseThrow());
+    }
+
+    @Test
+    void acimaDeMaxHitsCaiNoLike() throws Exception {
+        open(10, numbered(11));
+
+        // um IN (...) com 10 dos 11 erraria o total e as páginas
+        assertEquals(Optional.empty(), index.search("planta"));
+        assertEquals(Optional.empty(), index.search("abc"));
+        assertEquals(List.of(11L), index.search("abc-0011").orElseThrow());
+    }
+
+    @Test
+    void semResultadoNaoCaiNoLike() throws Exception {
+        open(10, numbered(30));
+
+        assertEquals(Optional.of(List.of()), index.search("inexistente"));
+    }
+
+    @Test
+    void codigoCasaPorTrechoComoNoLike() throws Exception {
+        open(100, List.of(new Row(1, "ABC-123", "Fachada", null), new Row(2, "XBC-124", "Corte", null)));
+
+        assertEquals(List.of(1L), index.search("BC-123").orElseThrow());
+        assertEquals(List.of(1L), index.search("c-123").orElseThrow());
+        assertEquals(2, index.search("bc-12").orElseThrow().size());
+    }
+
+    @Test
+    void tituloEProjetoCasamPorInicioDePalavra() throws Exception {
+        open(100, numbered(3));
+
+        assertEquals(3, index.search("baix").orElseThrow().size());
+        assertEquals(3, index.search("subestacao nor").orElseThrow().size());
+        // diferente do LIKE: trecho no meio da palavra não casa
+        assertTrue(index.search("lanta").orElseThrow().isEmpty());
+    }
+}
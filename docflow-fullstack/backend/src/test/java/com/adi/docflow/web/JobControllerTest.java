@@ -0,0 +1,151 @@
+package com.adi.docflow.web;
+
+import com.adi.docflow.config.AutomationJobProperties;
+import com.adi.docflow.job.BatchSubmission;
+import com.adi.docflow.job.JobStatus;
+import com.adi.docflow.job.JobSubmission;
+import com.adi.docflow.job.JobType;
+import com.adi.docflow.job.NewJob;
+import com.adi.docflow.model.AutomationJob;
+import com.adi.docflow.service.AutomationJobService;
+import com.adi.docflow.service.JobEventBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JobControllerTest {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final AutomationJobService service = mock(AutomationJobService.class);
+    private final AutomationJobProperties properties = new AutomationJobProperties();
+    // o que o createAll consumiu do iterador antes de terminar (ou falhar)
+    private final List<NewJob> consumed = new ArrayList<>();
+    private final Validator validator = spy(Validation.buildDefaultValidatorFactory().getValidator());
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        JobController controller = new JobController(service, mock(JobEventBroadcaster.class), properties,
+                objectMapper, validator);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        when(service.createAll(any())).thenAnswer(inv -> {
+            Iterator<NewJob> jobs = inv.getArgument(0);
+            List<String> uuids = new ArrayList<>();
+            while (jobs.hasNext()) {
+                consumed.add(jobs.next());
+                uuids.add("uuid-" + uuids.size());
+            }
+            return new BatchSubmission(uuids, 0);
+        });
+    }
+
+    @Test
+    void arrayJson() throws Exception {
+        mvc.perform(post("/api/v1/jobs/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"type\":\"EMAIL_NOTIFY\",\"priority\":9},{\"type\":\"IMPORT_DOCUMENTS\"}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.uuids.length()").value(2));
+
+        assertEquals(JobType.EMAIL_NOTIFY, consumed.get(0).type());
+        assertEquals(9, consumed.get(0).priority());
+        assertEquals(JobType.IMPORT_DOCUMENTS, consumed.get(1).type());
+    }
+
+    @Test
+    void ndjsonIgnoraLinhasEmBranco() throws Exception {
+        mvc.perform(post("/api/v1/jobs/batch").contentType(NDJSON)
+                        .content("{\"type\":\"EMAIL_NOTIFY\"}\n\n   \n{\"type\":\"EMAIL_NOTIFY\"}\n"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2));
+    }
+
+    @Test
+    void ndjsonInvalidoInformaALinha() throws Exception {
+        mvc.perform(post("/api/v1/jobs/batch").contentType(NDJSON)
+                        .content("{\"type\":\"EMAIL_NOTIFY\"}\n{\"type\": EMAIL}\n{\"type\":\"EMAIL_NOTIFY\"}\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(status().reason(org.hamcrest.Matchers.startsWith("Linha 2")));
+        assertEquals(1, consumed.size());
+    }
+
+    @Test
+    void itemInvalidoInterrompeOLote() throws Exception {
+        mvc.perform(post("/api/v1/jobs/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"type\":\"EMAIL_NOTIFY\"},{\"priority\":3}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(status().reason(org.hamcrest.Matchers.startsWith("Item 1: type")));
+    }
+
+    @Test
+    void loteAcimaDoLimite() throws Exception {
+        properties.setMaxBatchSubmit(2);
+        mvc.perform(post("/api/v1/jobs/batch").contentType(NDJSON)
+                        .content("{\"type\":\"EMAIL_NOTIFY\"}\n{\"type\":\"EMAIL_NOTIFY\"}\n{\"type\":\"EMAIL_NOTIFY\"}\n"))
+                .andExpect(status().isPayloadTooLarge());
+        assertEquals(2, consumed.size());
+    }
+
+    @Test
+    void loteVazio() throws Exception {
+        mvc.perform(post("/api/v1/jobs/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/api/v1/jobs/batch").contentType(NDJSON).content("\n\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createValidaUmaVezComAChaveDoHeader() throws Exception {
+        AutomationJob job = new AutomationJob();
+        job.setUuid("uuid-1");
+        job.setType(JobType.EMAIL_NOTIFY);
+        job.setStatus(JobStatus.QUEUED);
+        when(service.submit(any())).thenReturn(new JobSubmission(job, false));
+
+        mvc.perform(post("/api/v1/jobs").contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", "  pedido-42 ")
+                        .content("{\"type\":\"EMAIL_NOTIFY\"}"))
+                .andExpect(status().isCreated());
+
+        ArgumentCaptor<NewJob> submitted = ArgumentCaptor.forClass(NewJob.class);
+        verify(service).submit(submitted.capture());
+        assertEquals("pedido-42", submitted.getValue().idempotencyKey());
+        verify(validator, times(1)).validate(any());
+    }
+
+    @Test
+    void createRejeitaChaveDoHeaderLongaDemais() throws Exception {
+        mvc.perform(post("/api/v1/jobs").contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", "k".repeat(101))
+                        .content("{\"type\":\"EMAIL_NOTIFY\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(status().reason(org.hamcrest.Matchers.startsWith("idempotencyKey")));
+        verify(service, never()).submit(any());
+    }
+}
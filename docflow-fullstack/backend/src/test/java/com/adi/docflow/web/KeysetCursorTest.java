@@ -0,0 +1,226 @@
+package com.adi.docflow.web;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * O predicado do cursor é avaliado em memória (CriteriaBuilder falso, com a
+ * lógica de três valores do SQL) e comparado com a ordenação do SQL Server,
+ * em que NULL é o menor valor.
+ */
+class KeysetCursorTest {
+
+    private static final Map<String, Class<?>> TYPES = Map.of(
+            "title", String.class, "revision", Integer.class, "updatedAt", Instant.class, "id", Long.class);
+
+    /** Predicado avaliável; os demais métodos de Predicate não são usados pelo cursor. */
+    private interface Eval extends Predicate {
+        boolean test(Map<String, Object> row);
+    }
+
+    private interface Column extends Path<Object> {
+        String name();
+    }
+
+    @Test
+    void tiebreakerSegueADirecaoDaUltimaChave() {
+        assertEquals(Sort.by(Sort.Order.asc("title"), Sort.Order.desc("revision"), Sort.Order.desc("id")),
+                KeysetCursor.withTiebreaker(Sort.by(Sort.Order.asc("title"), Sort.Order.desc("revision"))));
+        Sort withId = Sort.by(Sort.Order.desc("id"), Sort.Order.asc("title"));
+        assertEquals(withId, KeysetCursor.withTiebreaker(withId));
+    }
+
+    @Test
+    void percorreTodasAsLinhasComNullsEDirecoesMistas() {
+        List<Map<String, Object>> rows = rows();
+        List<Sort> sorts = List.of(
+                Sort.by(Sort.Order.asc("title")),
+                Sort.by(Sort.Order.desc("title")),
+                Sort.by(Sort.Order.asc("title"), Sort.Order.desc("revision")),
+                Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.asc("revision"), Sort.Order.desc("title")),
+                Sort.by(Sort.Order.asc("revision"), Sort.Order.asc("updatedAt")));
+        for (Sort requested : sorts) {
+            Sort sort = KeysetCursor.withTiebreaker(requested);
+            List<Map<String, Object>> sorted = new ArrayList<>(rows);
+            sorted.sort(sqlServerOrder(sort));
+            for (int k = 0; k < sorted.size(); k++) {
+                String token = KeysetCursor.after(sortKeys(sorted.get(k), sort), sort).encode();
+                List<Map<String, Object>> after = after(KeysetCursor.decode(token, sort), rows);
+                after.sort(sqlServerOrder(sort));
+                assertEquals(ids(sorted.subList(k + 1, sorted.size())), ids(after), sort + " depois da linha " + k);
+            }
+        }
+    }
+
+    @Test
+    void tokenInvalido() {
+        Sort sort = KeysetCursor.withTiebreaker(Sort.by("title"));
+
+        for (String token : List.of("@@@", token("[]"), token("null"), token("{\"f\":[\"title\",\"id\"]}"),
+                token("{\"f\":[\"title\",\"id\"],\"v\":[\"a\",7]}"), token("{\"f\":[\"title\",\"id\"],\"v\":\"a\"}"))) {
+            assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(token, sort), token);
+        }
+    }
+
+    @Test
+    void tokenDeOutraOrdenacao() {
+        Sort byTitle = KeysetCursor.withTiebreaker(Sort.by("title"));
+        Sort byRevision = KeysetCursor.withTiebreaker(Sort.by("revision"));
+        String token = KeysetCursor.after(List.of("a", 1L), byTitle).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(token, byRevision));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode(token, KeysetCursor.withTiebreaker(Sort.by("title", "revision"))));
+    }
+
+    @Test
+    void valorAdulteradoViraBadRequest() {
+        Sort sort = KeysetCursor.withTiebreaker(Sort.by("updatedAt"));
+        for (String value : List.of("ontem", "2026-13-01T00:00:00Z")) {
+            KeysetCursor cursor = KeysetCursor.decode(token("{\"f\":[\"updatedAt\",\"id\"],\"v\":[\"" + value + "\",\"1\"]}"), sort);
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> after(cursor, rows()));
+            assertEquals(400, e.getStatusCode().value());
+        }
+        KeysetCursor badId = KeysetCursor.decode(token("{\"f\":[\"updatedAt\",\"id\"],\"v\":[null,\"x\"]}"), sort);
+        assertThrows(ResponseStatusException.class, () -> after(badId, rows()));
+    }
+
+    // ------------------------------------------------------------------
+
+    private static String token(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Map<String, Object>> rows() {
+        Random random = new Random(42);
+        String[] titles = {null, "a", "b", "c"};
+        Integer[] revisions = {null, 1, 2};
+        Instant[] times = {null, Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-01-01T00:00:00.5Z")};
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (long id = 1; id <= 60; id++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", id);
+            row.put("title", titles[random.nextInt(titles.length)]);
+            row.put("revision", revisions[random.nextInt(revisions.length)]);
+            row.put("updatedAt", times[random.nextInt(times.length)]);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<Object> sortKeys(Map<String, Object> row, Sort sort) {
+        List<Object> keys = new ArrayList<>();
+        for (Sort.Order order : sort) keys.add(row.get(order.getProperty()));
+        return keys;
+    }
+
+    private static List<Object> ids(List<Map<String, Object>> rows) {
+        return rows.stream().map(r -> r.get("id")).toList();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Map<String, Object>> sqlServerOrder(Sort sort) {
+        Comparator<Map<String, Object>> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Map<String, Object>> key = Comparator.comparing(
+                    r -> (Comparable) r.get(order.getProperty()), Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? key : key.reversed());
+        }
+        return comparator;
+    }
+
+    private static List<Map<String, Object>> after(KeysetCursor cursor, List<Map<String, Object>> rows) {
+        Eval predicate = (Eval) cursor.<Object>toSpecification().toPredicate(root(), null, criteriaBuilder());
+        List<Map<String, Object>> matched = new ArrayList<>();
+        for (Map<String, Object> row : rows) if (predicate.test(row)) matched.add(row);
+        return matched;
+    }
+
+    // ------------------------------ Criteria falso ------------------------------
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(KeysetCursorTest.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Eval eval(Function<Map<String, Object>, Boolean> test) {
+        return proxy(Eval.class, (p, method, args) -> {
+            if (method.getName().equals("test")) return test.apply((Map<String, Object>) args[0]);
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Root<Object> root() {
+        return proxy(Root.class, (p, method, args) -> {
+            if (method.getName().equals("get") && args.length == 1 && args[0] instanceof String name) {
+                return proxy(Column.class, (c, m, a) -> switch (m.getName()) {
+                    case "name" -> name;
+                    case "getJavaType" -> TYPES.get(name);
+                    default -> throw new UnsupportedOperationException(m.getName());
+                });
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static CriteriaBuilder criteriaBuilder() {
+        return proxy(CriteriaBuilder.class, (p, method, args) -> {
+            switch (method.getName()) {
+                case "and", "or" -> {
+                    Object[] parts = args.length == 1 && args[0] instanceof Object[] array ? array : args;
+                    boolean and = method.getName().equals("and");
+                    return eval(row -> {
+                        for (Object part : parts) {
+                            if (((Eval) part).test(row) != and) return !and;
+                        }
+                        return and;
+                    });
+                }
+                case "disjunction" -> {
+                    return eval(row -> false);
+                }
+                case "isNull", "isNotNull" -> {
+                    String name = ((Column) args[0]).name();
+                    boolean isNull = method.getName().equals("isNull");
+                    return eval(row -> (row.get(name) == null) == isNull);
+                }
+                case "equal", "greaterThan", "lessThan" -> {
+                    // comparação com NULL é UNKNOWN: a linha não entra
+                    String name = ((Column) args[0]).name();
+                    Comparable value = (Comparable) args[1];
+                    String op = method.getName();
+                    return eval(row -> {
+                        Comparable cell = (Comparable) row.get(name);
+                        if (cell == null || value == null) return false;
+                        int cmp = cell.compareTo(value);
+                        return op.equals("equal") ? cmp == 0 : op.equals("greaterThan") ? cmp > 0 : cmp < 0;
+                    });
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}